@@ -0,0 +1,28 @@
+#!/usr/bin/env bash
+# Runs loadtest/items.js against the application twice, once on the Tomcat platform-thread pool and once
+# with spring.threads.virtual.enabled=true, and keeps the k6 summaries side by side in loadtest/results.
+# Requires a running Couchbase, k6 on the PATH and a packaged jar (mvn package).
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+JAR=target/backend-for-todo-0.0.1-SNAPSHOT.jar
+RESULTS=loadtest/results
+mkdir -p "$RESULTS"
+
+run_mode() {
+    local mode=$1 virtual=$2
+    TODO_VIRTUAL_THREADS=$virtual java -jar "$JAR" > "$RESULTS/$mode-app.log" 2>&1 &
+    local pid=$!
+    trap 'kill $pid 2>/dev/null || true' RETURN
+    until curl -s -o /dev/null http://localhost:8080/actuator/health; do sleep 1; done
+    k6 run --summary-export "$RESULTS/$mode-summary.json" loadtest/items.js | tee "$RESULTS/$mode-k6.txt"
+}
+
+run_mode platform false
+run_mode virtual true
+
+for mode in platform virtual; do
+    echo "== $mode"
+    jq -r '"requests/s: \(.metrics.http_reqs.rate)  p50: \(.metrics.http_req_duration["p(50)"]) ms  p99: \(.metrics.http_req_duration["p(99)"]) ms"' \
+        "$RESULTS/$mode-summary.json"
+done
@@ -0,0 +1,46 @@
+// k6 scenario for comparing the platform-thread and virtual-thread execution modes.
+// Usage: k6 run -e BASE_URL=http://localhost:8080 -e USERNAME=loadtest -e PASSWORD=secret loadtest/items.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const USERNAME = __ENV.USERNAME || 'loadtest';
+const PASSWORD = __ENV.PASSWORD || 'loadtest-password';
+
+export const options = {
+    scenarios: {
+        items: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: 200 },
+                { duration: '2m', target: 1000 },
+                { duration: '30s', target: 0 },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+    const credentials = JSON.stringify({ username: USERNAME, password: PASSWORD, email: `${USERNAME}@example.com` });
+    const jsonHeaders = { headers: { 'Content-Type': 'application/json' } };
+    http.post(`${BASE_URL}/users/register`, credentials, jsonHeaders);
+    const login = http.post(`${BASE_URL}/users/login`, credentials, jsonHeaders);
+    return { token: login.headers['X-Auth-Token'] };
+}
+
+export default function (data) {
+    const headers = { headers: { Authorization: `Bearer ${data.token}`, 'Content-Type': 'application/json' } };
+
+    const created = http.post(`${BASE_URL}/items`, JSON.stringify({ title: `item-${__VU}-${__ITER}` }), headers);
+    check(created, { 'create 200': (r) => r.status === 200 });
+
+    const listed = http.get(`${BASE_URL}/items?limit=20`, headers);
+    check(listed, { 'list 200': (r) => r.status === 200 });
+
+    if (created.status === 200) {
+        const id = created.json('id');
+        check(http.get(`${BASE_URL}/items/${id}`, headers), { 'get 200': (r) => r.status === 200 });
+    }
+}
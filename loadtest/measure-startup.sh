@@ -0,0 +1,71 @@
+#!/usr/bin/env bash
+# Starts the application RUNS times in each available form (plain jar, AOT-processed jar, AOT jar on a CDS archive
+# and, if built, the native executable) and records, from process launch, when the application reported itself
+# ready, when the first HTTP response arrived and when the first GET /items succeeded. Runs are written to
+# loadtest/results/startup.csv and averaged per form at the end.
+# Requires a running Couchbase, jq and a jar built with mvn -Paot package. The native executable is measured when
+# mvn -Pnative native:compile has produced target/backend-for-todo.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+JAR=target/backend-for-todo-0.0.1-SNAPSHOT.jar
+NATIVE=target/backend-for-todo
+CDS=target/cds
+RESULTS=loadtest/results
+RUNS=${RUNS:-5}
+BASE_URL=http://localhost:8080
+USERNAME=${USERNAME:-startup}
+PASSWORD=${PASSWORD:-startup-password}
+CREDENTIALS="{\"username\":\"$USERNAME\",\"password\":\"$PASSWORD\",\"email\":\"$USERNAME@example.com\"}"
+mkdir -p "$RESULTS"
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# Same steps as the Dockerfile: the archive has to be recorded by the JVM that uses it, from the extracted jar
+prepare_cds() {
+    rm -rf "$CDS"
+    java -Djarmode=tools -jar "$JAR" extract --destination "$CDS"
+    java -XX:ArchiveClassesAtExit="$CDS/application.jsa" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+        -jar "$CDS/$(basename "$JAR")" > "$RESULTS/startup-cds-training.log" 2>&1
+}
+
+wait_for_status() {
+    local pid=$1 expected=$2; shift 2
+    until [[ "$(curl -s -o /dev/null -w '%{http_code}' "$@")" =~ $expected ]]; do
+        kill -0 "$pid" 2>/dev/null || { echo "Application exited before answering, see $RESULTS" >&2; return 1; }
+        sleep 0.05
+    done
+}
+
+run_once() {
+    local mode=$1 run=$2; shift 2
+    local start pid first_response first_items ready
+    start=$(now_ms)
+    "$@" > "$RESULTS/startup-$mode-$run.log" 2>&1 &
+    pid=$!
+    trap 'kill $pid 2>/dev/null || true; wait $pid 2>/dev/null || true' RETURN
+    # Registration is open to everyone and answers 200 the first time and 400 afterwards
+    wait_for_status "$pid" '^[1-5]' -H 'Content-Type: application/json' -d "$CREDENTIALS" "$BASE_URL/users/register"
+    first_response=$(( $(now_ms) - start ))
+    wait_for_status "$pid" '^200$' -u "$USERNAME:$PASSWORD" "$BASE_URL/items"
+    first_items=$(( $(now_ms) - start ))
+    ready=$(curl -s -u "$USERNAME:$PASSWORD" "$BASE_URL/actuator/metrics/application.ready.time" | jq '.measurements[0].value * 1000 | round')
+    echo "$mode,$run,$ready,$first_response,$first_items" >> "$RESULTS/startup.csv"
+}
+
+prepare_cds
+echo "mode,run,ready_ms,first_response_ms,first_items_ms" > "$RESULTS/startup.csv"
+for run in $(seq "$RUNS"); do
+    run_once jar "$run" java -jar "$JAR"
+    run_once aot "$run" java -Dspring.aot.enabled=true -jar "$JAR"
+    run_once aot-cds "$run" java -XX:SharedArchiveFile="$CDS/application.jsa" -Dspring.aot.enabled=true -jar "$CDS/$(basename "$JAR")"
+    if [ -x "$NATIVE" ]; then
+        run_once native "$run" "$NATIVE"
+    fi
+done
+
+awk -F, 'NR > 1 { n[$1]++; ready[$1] += $3; response[$1] += $4; items[$1] += $5 }
+    END { for (mode in n) printf "%-8s ready: %6.0f ms  first response: %6.0f ms  first GET /items: %6.0f ms\n",
+        mode, ready[mode] / n[mode], response[mode] / n[mode], items[mode] / n[mode] }' "$RESULTS/startup.csv"
@@ -0,0 +1,89 @@
+package com.oakbal.todoapp.backend.benchmark;
+
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import com.oakbal.todoapp.backend.model.User;
+import com.oakbal.todoapp.backend.service.AuthTokenService;
+import com.oakbal.todoapp.backend.service.UserIdentityCache;
+import com.oakbal.todoapp.backend.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request authentication cost: the user lookup, the BCrypt check HTTP Basic pays on every
+ * call, and the signed bearer token check that replaces both.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthenticationBenchmark {
+    private static final String USERNAME = "benchmark-user";
+    private static final String PASSWORD = "benchmark-password";
+
+    private UserService userService;
+    private UserIdentityCache userIdentityCache;
+    private PasswordEncoder passwordEncoder;
+    private String encodedPassword;
+    private DaoAuthenticationProvider authenticationProvider;
+    private AuthTokenService authTokenService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        TodoProperties properties = new TodoProperties();
+        passwordEncoder = new BCryptPasswordEncoder();
+        userIdentityCache = new UserIdentityCache(properties);
+        userService = new UserService(InMemoryRepositories.users(), passwordEncoder, userIdentityCache, new SimpleMeterRegistry());
+
+        User user = new User();
+        user.setUsername(USERNAME);
+        user.setEmail(USERNAME + "@example.com");
+        user.setPassword(PASSWORD);
+        encodedPassword = userService.registerUser(user).getPassword();
+
+        authenticationProvider = new DaoAuthenticationProvider(passwordEncoder);
+        authenticationProvider.setUserDetailsService(userService);
+
+        authTokenService = new AuthTokenService(properties);
+        token = authTokenService.issueToken(USERNAME).token();
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsernameCached() {
+        return userService.loadUserByUsername(USERNAME);
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsernameUncached() {
+        userIdentityCache.invalidateAll();
+        return userService.loadUserByUsername(USERNAME);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean passwordMatches() {
+        return passwordEncoder.matches(PASSWORD, encodedPassword);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Authentication basicAuthentication() {
+        return authenticationProvider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(USERNAME, PASSWORD));
+    }
+
+    @Benchmark
+    public Optional<String> bearerTokenVerification() {
+        return authTokenService.verifyToken(token);
+    }
+}
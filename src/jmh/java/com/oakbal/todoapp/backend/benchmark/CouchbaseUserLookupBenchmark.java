@@ -0,0 +1,122 @@
+package com.oakbal.todoapp.backend.benchmark;
+
+import com.couchbase.client.core.env.PasswordAuthenticator;
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import com.oakbal.todoapp.backend.model.User;
+import com.oakbal.todoapp.backend.repository.UserRepositoryCustomImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.couchbase.SimpleCouchbaseClientFactory;
+import org.springframework.data.couchbase.core.CouchbaseTemplate;
+import org.springframework.data.couchbase.core.convert.MappingCouchbaseConverter;
+import org.springframework.data.couchbase.core.query.Query;
+import org.springframework.data.couchbase.core.query.QueryCriteria;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The user lookup behind every uncached authentication, against a real Couchbase: the N1QL query on
+ * {@code username} that random user ids require, the {@code username::} lookup document plus a get,
+ * and the single get of a {@code user::<username>} key. Not part of the default run; start Couchbase
+ * with the indexes in {@code couchbase/indexes.n1ql} and select it explicitly. Connection settings are
+ * read from {@code COUCHBASE_CONNECTION_STRING}, {@code COUCHBASE_USERNAME}, {@code COUCHBASE_PASSWORD},
+ * {@code COUCHBASE_BUCKET} and {@code COUCHBASE_SCOPE}, defaulting to those in {@code application.properties}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CouchbaseUserLookupBenchmark {
+    private SimpleCouchbaseClientFactory clientFactory;
+    private CouchbaseTemplate template;
+    private UserRepositoryCustomImpl uuidRepository;
+    private UserRepositoryCustomImpl usernameRepository;
+    private String queriedUsername;
+    private String lookupUsername;
+    private String keyedUsername;
+    private List<User> users;
+
+    @Setup
+    public void setUp() {
+        clientFactory = new SimpleCouchbaseClientFactory(
+                env("COUCHBASE_CONNECTION_STRING", "couchbase://127.0.0.1"),
+                PasswordAuthenticator.create(env("COUCHBASE_USERNAME", "admin"), env("COUCHBASE_PASSWORD", "admin123")),
+                env("COUCHBASE_BUCKET", "todo-bucket"),
+                env("COUCHBASE_SCOPE", "todo"));
+        MappingCouchbaseConverter converter = new MappingCouchbaseConverter();
+        converter.afterPropertiesSet();
+        template = new CouchbaseTemplate(clientFactory, converter);
+
+        uuidRepository = new UserRepositoryCustomImpl(template, properties(TodoProperties.Users.KeyScheme.UUID));
+        usernameRepository = new UserRepositoryCustomImpl(template, properties(TodoProperties.Users.KeyScheme.USERNAME));
+
+        // Unique names, so runs do not collide with each other or with real users
+        String suffix = UUID.randomUUID().toString();
+        queriedUsername = "benchmark-query-" + suffix;
+        lookupUsername = "benchmark-lookup-" + suffix;
+        keyedUsername = "benchmark-keyed-" + suffix;
+
+        User queried = user(queriedUsername);
+        queried.setId(UUID.randomUUID().toString());
+        template.insertById(User.class).one(queried);
+        users = List.of(queried, register(uuidRepository, lookupUsername), register(usernameRepository, keyedUsername));
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (User user : users) {
+            template.removeById(User.class).one(user.getId());
+            template.getCollection("user_lookups").remove("username::" + user.getUsername());
+            template.getCollection("user_lookups").remove("email::" + user.getEmail());
+        }
+        clientFactory.close();
+    }
+
+    @Benchmark
+    public Optional<User> usernameQuery() {
+        return template.findByQuery(User.class)
+                .matching(new Query(QueryCriteria.where("username").is(queriedUsername)).limit(1))
+                .first();
+    }
+
+    @Benchmark
+    public Optional<User> lookupDocument() {
+        return uuidRepository.findUserByUsername(lookupUsername);
+    }
+
+    @Benchmark
+    public Optional<User> usernameKey() {
+        return usernameRepository.findUserByUsername(keyedUsername);
+    }
+
+    private static User register(UserRepositoryCustomImpl repository, String username) {
+        User user = user(username);
+        repository.reserveUser(user);
+        return repository.insertUser(user);
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("encodedPassword");
+        return user;
+    }
+
+    private static TodoProperties properties(TodoProperties.Users.KeyScheme keyScheme) {
+        TodoProperties properties = new TodoProperties();
+        properties.getUsers().setKeyScheme(keyScheme);
+        // Each path is measured on its own, without falling through to the query
+        properties.getUsers().setQueryFallback(false);
+        return properties;
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isEmpty() ? defaultValue : value;
+    }
+}
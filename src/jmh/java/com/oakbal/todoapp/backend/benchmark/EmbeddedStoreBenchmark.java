@@ -0,0 +1,101 @@
+package com.oakbal.todoapp.backend.benchmark;
+
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import com.oakbal.todoapp.backend.model.Item;
+import com.oakbal.todoapp.backend.model.ItemQuery;
+import com.oakbal.todoapp.backend.model.User;
+import com.oakbal.todoapp.backend.repository.embedded.EmbeddedItemRepository;
+import com.oakbal.todoapp.backend.repository.embedded.EmbeddedStore;
+import com.oakbal.todoapp.backend.repository.embedded.EmbeddedUserRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Repository operations of the {@code embedded} profile on a store in a temporary directory, with the
+ * log forced to disk in the background as configured by default.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmbeddedStoreBenchmark {
+    private static final String USERNAME = "benchmark-user";
+
+    @Param({"100", "10000"})
+    public int itemCount;
+
+    private Path directory;
+    private EmbeddedStore store;
+    private EmbeddedItemRepository itemRepository;
+    private EmbeddedUserRepository userRepository;
+    private Item existing;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("embedded-store-benchmark");
+        TodoProperties properties = new TodoProperties();
+        properties.getEmbedded().setDirectory(directory.toString());
+        // Keeps the rewritten item's dead records from filling the disk during upsertItem
+        properties.getEmbedded().setCompactionInterval(Duration.ofSeconds(1));
+        store = new EmbeddedStore(properties.getEmbedded());
+        itemRepository = new EmbeddedItemRepository(store, properties);
+        userRepository = new EmbeddedUserRepository(store, itemRepository, properties);
+
+        User user = new User();
+        user.setUsername(USERNAME);
+        user.setEmail(USERNAME + "@example.com");
+        userRepository.reserveUser(user);
+        userRepository.insertUser(user);
+        for (int i = 0; i < itemCount; i++) {
+            Item item = new Item();
+            item.setUserId(user.getId());
+            item.setTitle("Item " + i);
+            item.setCreatedAt(LocalDateTime.now());
+            item.setUpdatedAt(LocalDateTime.now());
+            existing = itemRepository.save(item);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public Optional<Item> findById() {
+        return itemRepository.findById(existing.getId());
+    }
+
+    @Benchmark
+    public Optional<User> findUserByUsername() {
+        return userRepository.findUserByUsername(USERNAME);
+    }
+
+    @Benchmark
+    public Item upsertItem() {
+        existing.setCompleted(!existing.isCompleted());
+        return itemRepository.upsertItem(existing);
+    }
+
+    @Benchmark
+    public List<Item> findFirstPage() {
+        return itemRepository.findItemPage(existing.getUserId(), new ItemQuery(), null, 50);
+    }
+}
@@ -0,0 +1,103 @@
+package com.oakbal.todoapp.backend.benchmark;
+
+import com.oakbal.todoapp.backend.model.Item;
+import com.oakbal.todoapp.backend.model.ItemCursor;
+import com.oakbal.todoapp.backend.model.ItemQuery;
+import com.oakbal.todoapp.backend.model.User;
+import com.oakbal.todoapp.backend.repository.ItemRepository;
+import com.oakbal.todoapp.backend.repository.UserAlreadyExistsException;
+import com.oakbal.todoapp.backend.repository.UserRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Map-backed stand-ins for the Couchbase repositories, so benchmarks measure the service layer
+ * without network I/O. Only the methods the services call are implemented.
+ */
+final class InMemoryRepositories {
+    private static final Comparator<Item> LISTING_ORDER = Comparator.comparing(Item::getCreatedAt).thenComparing(Item::getId);
+
+    private InMemoryRepositories() {
+    }
+
+    static ItemRepository items() {
+        Map<String, Item> items = new ConcurrentHashMap<>();
+        return (ItemRepository) Proxy.newProxyInstance(ItemRepository.class.getClassLoader(), new Class<?>[]{ItemRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "save", "upsertItem" -> {
+                        Item item = (Item) args[0];
+                        if (item.getId() == null) {
+                            item.setId(UUID.randomUUID().toString());
+                        }
+                        items.put(item.getId(), item);
+                        yield item;
+                    }
+                    case "findById" -> Optional.ofNullable(items.get((String) args[0]));
+                    case "deleteItem" -> Optional.ofNullable(items.remove((String) args[0])).map(Item::getUserId);
+                    case "findItemByUserId", "findCurrentItemsByUserId" -> items.values().stream()
+                            .filter(item -> item.getUserId().equals(args[0]))
+                            .toList();
+                    case "findItemPage" -> findItemPage(items, (String) args[0], (ItemQuery) args[1], (ItemCursor) args[2], (int) args[3]);
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryItemRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    static UserRepository users() {
+        Map<String, User> users = new ConcurrentHashMap<>();
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(), new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "reserveUser" -> {
+                        User user = (User) args[0];
+                        if (users.values().stream().anyMatch(existing -> existing.getUsername().equals(user.getUsername()))) {
+                            throw UserAlreadyExistsException.username(null);
+                        }
+                        if (users.values().stream().anyMatch(existing -> existing.getEmail().equals(user.getEmail()))) {
+                            throw UserAlreadyExistsException.email(null);
+                        }
+                        user.setId(UUID.randomUUID().toString());
+                        yield null;
+                    }
+                    case "save", "insertUser" -> {
+                        User user = (User) args[0];
+                        if (user.getId() == null) {
+                            user.setId(UUID.randomUUID().toString());
+                        }
+                        users.put(user.getId(), user);
+                        yield user;
+                    }
+                    case "findUserByUsername" -> users.values().stream()
+                            .filter(user -> user.getUsername().equals(args[0]))
+                            .findFirst();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryUserRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static List<Item> findItemPage(Map<String, Item> items, String userId, ItemQuery query, ItemCursor after, int limit) {
+        return items.values().stream()
+                .filter(item -> item.getUserId().equals(userId))
+                .filter(item -> query.getCompleted() == null || item.isCompleted() == query.getCompleted())
+                .filter(item -> after == null || LISTING_ORDER.compare(item, cursorItem(after)) > 0)
+                .sorted(LISTING_ORDER)
+                .limit(limit)
+                .toList();
+    }
+
+    private static Item cursorItem(ItemCursor cursor) {
+        Item item = new Item();
+        item.setId(cursor.id());
+        item.setCreatedAt(cursor.createdAt());
+        return item;
+    }
+}
@@ -0,0 +1,104 @@
+package com.oakbal.todoapp.backend.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.oakbal.todoapp.backend.model.Item;
+import com.oakbal.todoapp.backend.model.ItemPage;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encode and decode cost of an item page in each response format, with and without the gzip step that
+ * {@code server.compression} adds. Payload sizes are logged once per trial since JMH only reports times.
+ */
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemEncodingBenchmark {
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    @Param({"50", "200"})
+    public int size;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private ItemPage page;
+    private byte[] encoded;
+    private int gzippedSize;
+
+    @Setup
+    public void setUp() throws IOException {
+        JsonFactory factory = switch (format) {
+            case "smile" -> new SmileFactory();
+            case "cbor" -> new CBORFactory();
+            default -> new JsonFactory();
+        };
+        // Same builder Spring Boot uses for the HTTP message converters
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json().factory(factory);
+        writer = builder.build().writerFor(ItemPage.class);
+        reader = builder.build().readerFor(ItemPage.class);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Item> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Item item = new Item();
+            item.setId("item-" + i);
+            item.setUserId("user-" + i % 10);
+            item.setTitle("Item " + i);
+            item.setDescription("Description of benchmark item number " + i);
+            item.setCompleted(i % 2 == 0);
+            item.setCreatedAt(now.minusMinutes(i));
+            item.setUpdatedAt(now);
+            item.setVersion(i);
+            items.add(item);
+        }
+        page = new ItemPage(items, "bmV4dA");
+        encoded = writer.writeValueAsBytes(page);
+        gzippedSize = gzip(encoded).length;
+    }
+
+    @TearDown
+    public void logPayloadSize() {
+        log.info("{}, {} items: {} bytes, {} bytes gzipped", format, size, encoded.length, gzippedSize);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return writer.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] encodeGzip() throws IOException {
+        return gzip(writer.writeValueAsBytes(page));
+    }
+
+    @Benchmark
+    public ItemPage decode() throws IOException {
+        return reader.readValue(encoded);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(bytes);
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,97 @@
+package com.oakbal.todoapp.backend.benchmark;
+
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import com.oakbal.todoapp.backend.model.Item;
+import com.oakbal.todoapp.backend.model.ItemPage;
+import com.oakbal.todoapp.backend.model.ItemQuery;
+import com.oakbal.todoapp.backend.model.ItemSummary;
+import com.oakbal.todoapp.backend.repository.ItemRepository;
+import com.oakbal.todoapp.backend.service.ItemListCache;
+import com.oakbal.todoapp.backend.service.ItemSearchIndex;
+import com.oakbal.todoapp.backend.service.ItemService;
+import com.oakbal.todoapp.backend.service.ItemWriteBehindStore;
+import com.oakbal.todoapp.backend.service.LocalItemEventBroker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ItemService} CRUD, listing and search over {@link InMemoryRepositories}, isolating service-layer
+ * overhead from Couchbase round trips.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemServiceBenchmark {
+    private static final String USER_ID = "benchmark-user";
+
+    @Param({"100", "10000"})
+    public int itemCount;
+
+    @Param({"false", "true"})
+    public boolean listCache;
+
+    private ItemService itemService;
+    private Item existing;
+
+    @Setup
+    public void setUp() {
+        ItemRepository itemRepository = InMemoryRepositories.items();
+        TodoProperties properties = new TodoProperties();
+        properties.getItems().getListCache().setEnabled(listCache);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        itemService = new ItemService(itemRepository, properties, meterRegistry, new ItemWriteBehindStore(itemRepository, properties, meterRegistry),
+                new LocalItemEventBroker(properties, meterRegistry), new ItemListCache(properties),
+                new ItemSearchIndex(properties));
+        for (int i = 0; i < itemCount; i++) {
+            existing = itemService.createItem(newItem(i), USER_ID);
+        }
+    }
+
+    @Benchmark
+    public Item createAndDelete() {
+        Item created = itemService.createItem(newItem(-1), USER_ID);
+        itemService.deleteItem(created.getId(), null);
+        return created;
+    }
+
+    @Benchmark
+    public Optional<Item> getItemById() {
+        return itemService.getItemById(existing.getId());
+    }
+
+    @Benchmark
+    public Item updateItem() {
+        existing.setCompleted(!existing.isCompleted());
+        return itemService.updateItem(existing, null);
+    }
+
+    @Benchmark
+    public ItemPage getFirstPage() {
+        return itemService.getItemPage(USER_ID, new ItemQuery());
+    }
+
+    @Benchmark
+    public List<Item> getItemsByUserId() {
+        return itemService.getItemsByUserId(USER_ID);
+    }
+
+    @Benchmark
+    public List<ItemSummary> searchItems() {
+        // Every item matches, so this is the worst case for ranking
+        return itemService.searchItems(USER_ID, "bench ite", null);
+    }
+
+    private static Item newItem(int index) {
+        Item item = new Item();
+        item.setTitle("Item " + index);
+        item.setDescription("Benchmark item " + index);
+        return item;
+    }
+}
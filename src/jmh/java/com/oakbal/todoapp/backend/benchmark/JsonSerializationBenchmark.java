@@ -0,0 +1,98 @@
+package com.oakbal.todoapp.backend.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.oakbal.todoapp.backend.model.Item;
+import com.oakbal.todoapp.backend.model.ItemSummary;
+import com.oakbal.todoapp.backend.model.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the list payloads returned by the item and user endpoints, using the same
+ * mapper defaults Spring Boot applies to HTTP message conversion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    @Param({"1", "50", "1000"})
+    public int size;
+
+    private ObjectWriter itemListWriter;
+    private ObjectReader itemListReader;
+    private ObjectWriter summaryListWriter;
+    private ObjectWriter userListWriter;
+    private List<Item> items;
+    private List<ItemSummary> summaries;
+    private List<User> users;
+    private byte[] itemsJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        itemListWriter = objectMapper.writerFor(new TypeReference<List<Item>>() {
+        });
+        itemListReader = objectMapper.readerFor(new TypeReference<List<Item>>() {
+        });
+        summaryListWriter = objectMapper.writerFor(new TypeReference<List<ItemSummary>>() {
+        });
+        userListWriter = objectMapper.writerFor(new TypeReference<List<User>>() {
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        items = new ArrayList<>(size);
+        users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Item item = new Item();
+            item.setId("item-" + i);
+            item.setUserId("user-" + i % 10);
+            item.setTitle("Item " + i);
+            item.setDescription("Description of benchmark item number " + i);
+            item.setCompleted(i % 2 == 0);
+            item.setCreatedAt(now.minusMinutes(i));
+            item.setUpdatedAt(now);
+            items.add(item);
+
+            User user = new User();
+            user.setId("user-" + i);
+            user.setUsername("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z4ZFqYwQz4y0sTnpYpH9EeW6");
+            users.add(user);
+        }
+        summaries = items.stream().map(ItemSummary::of).toList();
+        itemsJson = itemListWriter.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public byte[] writeItems() throws IOException {
+        return itemListWriter.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public byte[] writeItemSummaries() throws IOException {
+        return summaryListWriter.writeValueAsBytes(summaries);
+    }
+
+    @Benchmark
+    public List<Item> readItems() throws IOException {
+        return itemListReader.readValue(itemsJson);
+    }
+
+    @Benchmark
+    public byte[] writeUsers() throws IOException {
+        return userListWriter.writeValueAsBytes(users);
+    }
+}
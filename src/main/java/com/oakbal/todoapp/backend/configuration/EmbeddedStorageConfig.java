@@ -0,0 +1,35 @@
+package com.oakbal.todoapp.backend.configuration;
+
+import com.oakbal.todoapp.backend.repository.embedded.EmbeddedItemRepository;
+import com.oakbal.todoapp.backend.repository.embedded.EmbeddedStore;
+import com.oakbal.todoapp.backend.repository.embedded.EmbeddedUserRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.io.IOException;
+
+/**
+ * Replaces the Couchbase repositories with ones on an {@link EmbeddedStore} under the {@code embedded}
+ * profile; application-embedded.properties leaves out the Couchbase auto-configuration. Serves the
+ * blocking stack only.
+ */
+@Configuration
+@Profile("embedded")
+public class EmbeddedStorageConfig {
+
+    @Bean
+    public EmbeddedStore embeddedStore(TodoProperties properties) throws IOException {
+        return new EmbeddedStore(properties.getEmbedded());
+    }
+
+    @Bean
+    public EmbeddedItemRepository itemRepository(EmbeddedStore store, TodoProperties properties) {
+        return new EmbeddedItemRepository(store, properties);
+    }
+
+    @Bean
+    public EmbeddedUserRepository userRepository(EmbeddedStore store, EmbeddedItemRepository itemRepository, TodoProperties properties) {
+        return new EmbeddedUserRepository(store, itemRepository, properties);
+    }
+}
@@ -0,0 +1,62 @@
+package com.oakbal.todoapp.backend.configuration;
+
+import com.oakbal.todoapp.backend.service.AuthTokenService;
+import com.oakbal.todoapp.backend.service.RateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Applies {@link RateLimiter} before the security chain runs, so rejected calls never reach
+ * BCrypt or the user queries.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+    private final RateLimiter rateLimiter;
+    private final AuthTokenService authTokenService;
+
+    public RateLimitFilter(RateLimiter rateLimiter, AuthTokenService authTokenService) {
+        this.rateLimiter = rateLimiter;
+        this.authTokenService = authTokenService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Duration wait = rateLimiter.acquire(path, request.getRemoteAddr(),
+                () -> bearerUser(request.getHeader(HttpHeaders.AUTHORIZATION), authTokenService));
+        if (wait.isZero()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        // Written directly: sendError would dispatch to /error, which the security chain answers with 401
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds(wait));
+    }
+
+    /**
+     * Username from a valid bearer token. Basic credentials are not checked here, so those requests
+     * are limited by IP.
+     */
+    static Optional<String> bearerUser(String authorization, AuthTokenService authTokenService) {
+        String prefix = "Bearer ";
+        if (authorization == null || !authorization.regionMatches(true, 0, prefix, 0, prefix.length())) {
+            return Optional.empty();
+        }
+        return authTokenService.verifyToken(authorization.substring(prefix.length()).trim());
+    }
+
+    static String retryAfterSeconds(Duration wait) {
+        // Retry-After takes whole seconds; round up so clients do not retry too early
+        long millis = wait.toMillis();
+        return String.valueOf(Math.max(1, (millis + 999) / 1000));
+    }
+}
@@ -0,0 +1,34 @@
+package com.oakbal.todoapp.backend.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * WebFlux counterpart of {@link BinaryFormatConfig}.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveBinaryFormatConfig {
+    @Bean
+    public CodecCustomizer binaryFormatCodecCustomizer(Jackson2ObjectMapperBuilder cborBuilder, Jackson2ObjectMapperBuilder smileBuilder) {
+        ObjectMapper cborMapper = cborBuilder.factory(new CBORFactory()).build();
+        ObjectMapper smileMapper = smileBuilder.factory(new SmileFactory()).build();
+        return configurer -> {
+            // Smile is a default codec once the dataformat is present; CBOR has to be registered
+            configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper));
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper));
+            configurer.customCodecs().register(new Jackson2CborEncoder(cborMapper));
+            configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper));
+        };
+    }
+}
@@ -0,0 +1,59 @@
+package com.oakbal.todoapp.backend.configuration;
+
+import com.oakbal.todoapp.backend.service.AuthTokenService;
+import com.oakbal.todoapp.backend.service.RateLimiter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+
+/**
+ * WebFlux counterpart of {@link RateLimitFilter}, ordered just ahead of the security filter chain.
+ */
+public class ReactiveRateLimitFilter implements WebFilter, Ordered {
+    // WebFilterChainProxy is registered at -100 by @EnableWebFluxSecurity
+    private static final int ORDER = -101;
+
+    private final RateLimiter rateLimiter;
+    private final AuthTokenService authTokenService;
+
+    public ReactiveRateLimitFilter(RateLimiter rateLimiter, AuthTokenService authTokenService) {
+        this.rateLimiter = rateLimiter;
+        this.authTokenService = authTokenService;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        Duration wait = rateLimiter.acquire(request.getPath().pathWithinApplication().value(), clientIp(request),
+                () -> RateLimitFilter.bearerUser(request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION), authTokenService));
+        if (wait.isZero()) {
+            return chain.filter(exchange);
+        }
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, RateLimitFilter.retryAfterSeconds(wait));
+        return response.setComplete();
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private static String clientIp(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            return "unknown";
+        }
+        return remoteAddress.getAddress().getHostAddress();
+    }
+}
@@ -0,0 +1,56 @@
+package com.oakbal.todoapp.backend.configuration;
+
+import com.oakbal.todoapp.backend.service.AuthTokenService;
+import com.oakbal.todoapp.backend.service.RateLimiter;
+import com.oakbal.todoapp.backend.service.ReactiveUserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+@Configuration
+@EnableWebFluxSecurity
+@Profile("reactive")
+public class ReactiveSecurityConfig {
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, AuthTokenService authTokenService) {
+        http.csrf(csrf -> csrf.disable())
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers("/users/register", "/users/login").permitAll()
+                        .anyExchange().authenticated()
+                )
+                .addFilterBefore(new ReactiveBearerTokenAuthenticationFilter(authTokenService), SecurityWebFiltersOrder.HTTP_BASIC)
+                .httpBasic(Customizer.withDefaults());
+        return http.build();
+    }
+
+    @Bean
+    public ReactiveRateLimitFilter rateLimitFilter(RateLimiter rateLimiter, AuthTokenService authTokenService) {
+        return new ReactiveRateLimitFilter(rateLimiter, authTokenService);
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+
+    @Bean
+    public ReactiveAuthenticationManager reactiveAuthenticationManager(ReactiveUserService userService, PasswordEncoder passwordEncoder,
+                                                                       MeterRegistry meterRegistry) {
+        // Password checks run on the bounded elastic scheduler, not the event loop
+        UserDetailsRepositoryReactiveAuthenticationManager authenticationManager = new UserDetailsRepositoryReactiveAuthenticationManager(userService);
+        authenticationManager.setPasswordEncoder(passwordEncoder);
+        return new TimedReactiveAuthenticationManager(authenticationManager, meterRegistry);
+    }
+}
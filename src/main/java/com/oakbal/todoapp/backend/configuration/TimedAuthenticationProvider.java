@@ -0,0 +1,48 @@
+package com.oakbal.todoapp.backend.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * Records {@value #TIMER_NAME} around the username/password check (user lookup plus BCrypt),
+ * tagged with the outcome.
+ */
+public class TimedAuthenticationProvider implements AuthenticationProvider {
+    public static final String TIMER_NAME = "todo.auth.authentication";
+
+    private final AuthenticationProvider delegate;
+    private final MeterRegistry meterRegistry;
+
+    public TimedAuthenticationProvider(AuthenticationProvider delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Authentication result = delegate.authenticate(authentication);
+            sample.stop(timer(meterRegistry, "success"));
+            return result;
+        } catch (AuthenticationException e) {
+            sample.stop(timer(meterRegistry, "failure"));
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+
+    static Timer timer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder(TIMER_NAME)
+                .description("Username/password authentication")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
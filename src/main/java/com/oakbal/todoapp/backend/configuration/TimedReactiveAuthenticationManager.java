@@ -0,0 +1,31 @@
+package com.oakbal.todoapp.backend.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux counterpart of {@link TimedAuthenticationProvider}; the sample starts on subscription.
+ */
+public class TimedReactiveAuthenticationManager implements ReactiveAuthenticationManager {
+    private final ReactiveAuthenticationManager delegate;
+    private final MeterRegistry meterRegistry;
+
+    public TimedReactiveAuthenticationManager(ReactiveAuthenticationManager delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return delegate.authenticate(authentication)
+                    .doOnSuccess(result -> sample.stop(TimedAuthenticationProvider.timer(meterRegistry, "success")))
+                    .doOnError(AuthenticationException.class, e -> sample.stop(TimedAuthenticationProvider.timer(meterRegistry, "failure")));
+        });
+    }
+}
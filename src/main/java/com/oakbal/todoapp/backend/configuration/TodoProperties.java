@@ -0,0 +1,153 @@
+package com.oakbal.todoapp.backend.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "todo")
+public class TodoProperties {
+    private final UserCache userCache = new UserCache();
+    private final Users users = new Users();
+    private final AuthToken authToken = new AuthToken();
+    private final Items items = new Items();
+    private final RateLimit rateLimit = new RateLimit();
+    private final Collections collections = new Collections();
+    private final Embedded embedded = new Embedded();
+
+    @Data
+    public static class UserCache {
+        private long maximumSize = 10_000;
+        private Duration ttl = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class Users {
+        public enum KeyScheme {
+            UUID, USERNAME
+        }
+
+        // Key of newly registered users; USERNAME makes a lookup by username a single get
+        private KeyScheme keyScheme = KeyScheme.USERNAME;
+        // Serve users registered before username/email lookup documents existed through N1QL
+        private boolean queryFallback = true;
+        private Duration reservationTimeout = Duration.ofSeconds(30);
+        // Runs UserKeyMigration at startup
+        private boolean migrateKeys = false;
+    }
+
+    @Data
+    public static class AuthToken {
+        private String secret;
+        private Duration ttl = Duration.ofMinutes(15);
+    }
+
+    @Data
+    public static class Items {
+        private int pageSize = 50;
+        private int maxPageSize = 200;
+        private int maxBatchSize = 500;
+        private int batchConcurrency = 32;
+        private final WriteBehind writeBehind = new WriteBehind();
+        private final Changes changes = new Changes();
+        private final Events events = new Events();
+        private final Index index = new Index();
+        private final ListCache listCache = new ListCache();
+        private final Search search = new Search();
+    }
+
+    @Data
+    public static class WriteBehind {
+        private boolean enabled = false;
+        private Duration flushInterval = Duration.ofMillis(200);
+        private int maxPending = 10_000;
+        private int maxBatchSize = 500;
+        private Duration shutdownTimeout = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Changes {
+        private Duration settleWindow = Duration.ofSeconds(5);
+        private Duration tombstoneTtl = Duration.ofDays(30);
+    }
+
+    @Data
+    public static class Events {
+        private String broker = "local";
+        private int bufferSize = 64;
+        private int maxSubscribers = 50_000;
+        private int maxSubscribersPerUser = 8;
+        private Duration heartbeatInterval = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Index {
+        // List items from a per-user index document and key-value gets instead of N1QL
+        private boolean enabled = false;
+        // Runs ItemIndexRebuild at startup
+        private boolean rebuildOnStartup = false;
+    }
+
+    @Data
+    public static class ListCache {
+        // Cache each user's full item list in memory and serve list requests from it
+        private boolean enabled = false;
+        // Total cached items across all users, counting each list as one more
+        private long maximumWeight = 100_000;
+        // Bounds staleness from writes made on other instances
+        private Duration ttl = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Search {
+        // Total indexed terms across all users' search indexes, counting each index as one more
+        private long maximumWeight = 1_000_000;
+        // Bounds staleness from writes made on other instances
+        private Duration ttl = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class Collections {
+        // Runs CollectionMigration at startup
+        private boolean migrate = false;
+        private int migrationBatchSize = 1000;
+        private int migrationConcurrency = 32;
+    }
+
+    @Data
+    public static class Embedded {
+        // Holds the log segments of the embedded profile's store; created if missing
+        private String directory = "data";
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+        // How often appended records are forced to disk; zero forces every write before it returns
+        private Duration syncInterval = Duration.ofSeconds(1);
+        private Duration compactionInterval = Duration.ofMinutes(5);
+        // Share of the sealed segments' bytes that must be dead before compaction rewrites them
+        private double compactionThreshold = 0.5;
+    }
+
+    @Data
+    public static class RateLimit {
+        private boolean enabled = true;
+        private long maxBuckets = 100_000;
+        private Duration idleExpiry = Duration.ofMinutes(10);
+        // Checked in declaration order; the first route whose path matches applies
+        private final Map<String, RateLimitRoute> routes = new LinkedHashMap<>();
+    }
+
+    @Data
+    public static class RateLimitRoute {
+        public enum Key {
+            IP, USER
+        }
+
+        private String path;
+        private int capacity;
+        private Duration period = Duration.ofMinutes(1);
+        private Key key = Key.IP;
+    }
+}
@@ -0,0 +1,61 @@
+package com.oakbal.todoapp.backend.controller;
+
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Strong entity tags carrying the document CAS, e.g. {@code "1712345678901234"}.
+ */
+final class ETags {
+    private ETags() {
+    }
+
+    static String of(long cas) {
+        return "\"" + cas + "\"";
+    }
+
+    /**
+     * {@code 200 OK} carrying the tag for {@code cas}; a zero CAS (not yet persisted) gets no tag.
+     */
+    static ResponseEntity.BodyBuilder ok(long cas) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        return cas == 0 ? builder : builder.eTag(of(cas));
+    }
+
+    /**
+     * Parses an {@code If-Match} value into a CAS; {@code null} or {@code *} means unconditional.
+     */
+    static Long parse(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/") || value.length() < 3 || !value.startsWith("\"") || !value.endsWith("\"")) {
+            throw new IllegalArgumentException("If-Match must be a single strong entity tag");
+        }
+        try {
+            return Long.parseLong(value.substring(1, value.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match must be a single strong entity tag", e);
+        }
+    }
+
+    /**
+     * Whether an {@code If-None-Match} list contains the tag for {@code cas}, using weak comparison.
+     */
+    static boolean matches(String ifNoneMatch, long cas) {
+        String tag = of(cas);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
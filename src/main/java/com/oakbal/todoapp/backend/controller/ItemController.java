@@ -1,26 +1,62 @@
 package com.oakbal.todoapp.backend.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
 import com.oakbal.todoapp.backend.model.Item;
-import com.oakbal.todoapp.backend.model.User;
+import com.oakbal.todoapp.backend.model.ItemBatchOperation;
+import com.oakbal.todoapp.backend.model.ItemBatchResult;
+import com.oakbal.todoapp.backend.model.ItemChanges;
+import com.oakbal.todoapp.backend.model.ItemEvent;
+import com.oakbal.todoapp.backend.model.ItemPage;
+import com.oakbal.todoapp.backend.model.ItemPatch;
+import com.oakbal.todoapp.backend.model.ItemQuery;
+import com.oakbal.todoapp.backend.model.ItemSummary;
+import com.oakbal.todoapp.backend.model.ItemSummaryPage;
+import com.oakbal.todoapp.backend.service.ExpiredChangeTokenException;
 import com.oakbal.todoapp.backend.service.ItemService;
+import com.oakbal.todoapp.backend.service.SubscriberLimitExceededException;
 import com.oakbal.todoapp.backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @RequestMapping("/items")
 @RestController
+@Profile("!reactive")
 public class ItemController {
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final int EXPORT_FLUSH_INTERVAL = 100;
+
     private final ItemService itemService;
     private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final TodoProperties properties;
 
     @Autowired
-    public ItemController(ItemService itemService, UserService userService) {
+    public ItemController(ItemService itemService, UserService userService, ObjectMapper objectMapper, TodoProperties properties) {
         this.itemService = itemService;
         this.userService = userService;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
     }
 
     @PostMapping
@@ -31,32 +67,163 @@ public class ItemController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Item>> getUserItems(Authentication authentication) {
+    public ResponseEntity<ItemPage> getUserItems(Authentication authentication, @ModelAttribute ItemQuery query) {
+        String userId = userService.getUserIdByUsername(authentication.getName());
+        return ResponseEntity.ok(itemService.getItemPage(userId, query));
+    }
+
+    @GetMapping(params = "fields=summary")
+    public ResponseEntity<ItemSummaryPage> getUserItemSummaries(Authentication authentication, @ModelAttribute ItemQuery query) {
+        String userId = userService.getUserIdByUsername(authentication.getName());
+        return ResponseEntity.ok(itemService.getItemSummaryPage(userId, query));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<ItemSummary>> searchItems(Authentication authentication,
+                                                         @RequestParam(required = false) String q,
+                                                         @RequestParam(required = false) Integer limit) {
+        String userId = userService.getUserIdByUsername(authentication.getName());
+        return ResponseEntity.ok(itemService.searchItems(userId, q, limit));
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportItems(Authentication authentication) {
         String userId = userService.getUserIdByUsername(authentication.getName());
-        return ResponseEntity.ok(itemService.getItemsByUserId(userId));
+        StreamingResponseBody body = outputStream -> {
+            // Values are buffered and flushed in groups; the separator goes between values, so the
+            // last line is ended separately
+            ObjectWriter writer = objectMapper.writerFor(Item.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .withRootValueSeparator("\n");
+            int written = 0;
+            try (Stream<Item> items = itemService.streamItemsByUserId(userId);
+                 SequenceWriter sequence = writer.writeValues(outputStream)) {
+                // A client disconnect surfaces as an IOException here, which closes and cancels the query
+                Iterator<Item> iterator = items.iterator();
+                while (iterator.hasNext()) {
+                    sequence.write(iterator.next());
+                    if (++written % EXPORT_FLUSH_INTERVAL == 0) {
+                        sequence.flush();
+                    }
+                }
+            }
+            if (written > 0) {
+                outputStream.write('\n');
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ItemEvent>> streamItemEvents(Authentication authentication) {
+        String userId = userService.getUserIdByUsername(authentication.getName());
+        return ItemEventStreams.sse(itemService.streamEvents(userId), properties.getItems().getEvents().getHeartbeatInterval());
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<ItemChanges> getChanges(Authentication authentication,
+                                                  @RequestParam(required = false) String since,
+                                                  @RequestParam(required = false) Integer limit) {
+        String userId = userService.getUserIdByUsername(authentication.getName());
+        return ResponseEntity.ok(itemService.getChanges(userId, since, limit));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Item> getItemById(@PathVariable String id) {
+    public ResponseEntity<Item> getItemById(@PathVariable String id,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Revalidation only needs the CAS, so an unchanged item is answered without fetching its body
+        if (ifNoneMatch != null) {
+            Optional<Long> version = itemService.getItemVersion(id);
+            if (version.isPresent() && ETags.matches(ifNoneMatch, version.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.of(version.get())).build();
+            }
+        }
         return itemService.getItemById(id)
-                .map(ResponseEntity::ok)
+                .map(item -> ETags.ok(item.getVersion()).body(item))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Item>> getItemsByUserId(@PathVariable String userId) {
-        return ResponseEntity.ok(itemService.getItemsByUserId(userId));
+    public ResponseEntity<ItemPage> getItemsByUserId(@PathVariable String userId, @ModelAttribute ItemQuery query) {
+        return ResponseEntity.ok(itemService.getItemPage(userId, query));
+    }
+
+    @GetMapping(value = "/user/{userId}", params = "fields=summary")
+    public ResponseEntity<ItemSummaryPage> getItemSummariesByUserId(@PathVariable String userId, @ModelAttribute ItemQuery query) {
+        return ResponseEntity.ok(itemService.getItemSummaryPage(userId, query));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Item> updateItem(@PathVariable String id, @RequestBody Item item) {
+    public ResponseEntity<Item> updateItem(@PathVariable String id, @RequestBody Item item, Authentication authentication,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long cas = ETags.parse(ifMatch);
+        String userId = userService.getUserIdByUsername(authentication.getName());
+        if (!isOwner(id, userId)) {
+            return ResponseEntity.notFound().build();
+        }
         item.setId(id);
-        return ResponseEntity.ok(itemService.updateItem(item));
+        item.setUserId(userId);
+        Item updated = itemService.updateItem(item, cas);
+        return ETags.ok(updated.getVersion()).body(updated);
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patchItem(@PathVariable String id, @RequestBody ItemPatch patch, Authentication authentication,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long cas = ETags.parse(ifMatch);
+        String userId = userService.getUserIdByUsername(authentication.getName());
+        if (!isOwner(id, userId)) {
+            return ResponseEntity.notFound().build();
+        }
+        long newCas = itemService.patchItem(id, userId, patch, cas);
+        return ResponseEntity.noContent().eTag(ETags.of(newCas)).build();
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteItem(@PathVariable String id) {
-        itemService.deleteItem(id);
+    public ResponseEntity<Void> deleteItem(@PathVariable String id, Authentication authentication,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long cas = ETags.parse(ifMatch);
+        if (!isOwner(id, userService.getUserIdByUsername(authentication.getName()))) {
+            return ResponseEntity.notFound().build();
+        }
+        itemService.deleteItem(id, cas);
         return ResponseEntity.ok().build();
     }
+
+    // Items of other users are answered the same as missing ones
+    private boolean isOwner(String id, String userId) {
+        return itemService.findOwnerById(id).filter(userId::equals).isPresent();
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<ItemBatchResult>> applyBatch(@RequestBody List<ItemBatchOperation> operations, Authentication authentication) {
+        String userId = userService.getUserIdByUsername(authentication.getName());
+        return ResponseEntity.ok(itemService.applyBatch(userId, operations));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidArgument(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    @ExceptionHandler(DataRetrievalFailureException.class)
+    public ResponseEntity<Void> handleNotFound(DataRetrievalFailureException e) {
+        return ResponseEntity.notFound().build();
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleConcurrentModification(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+    }
+
+    @ExceptionHandler(ExpiredChangeTokenException.class)
+    public ResponseEntity<String> handleExpiredChangeToken(ExpiredChangeTokenException e) {
+        return ResponseEntity.status(HttpStatus.GONE).body(e.getMessage());
+    }
+
+    @ExceptionHandler(SubscriberLimitExceededException.class)
+    public ResponseEntity<String> handleSubscriberLimit(SubscriberLimitExceededException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+    }
 }
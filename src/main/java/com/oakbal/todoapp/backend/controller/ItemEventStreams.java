@@ -0,0 +1,26 @@
+package com.oakbal.todoapp.backend.controller;
+
+import com.oakbal.todoapp.backend.model.ItemEvent;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Server-Sent Events framing shared by the servlet and WebFlux item controllers.
+ */
+final class ItemEventStreams {
+    private ItemEventStreams() {
+    }
+
+    static Flux<ServerSentEvent<ItemEvent>> sse(Flux<ItemEvent> events, Duration heartbeatInterval) {
+        Flux<ServerSentEvent<ItemEvent>> data = events.map(event -> ServerSentEvent.builder(event)
+                .event(event.getType().name().toLowerCase(Locale.ROOT))
+                .build());
+        // Comment frames keep idle connections open through proxies and expose dead clients as write failures
+        Flux<ServerSentEvent<ItemEvent>> heartbeats = Flux.interval(heartbeatInterval)
+                .map(tick -> ServerSentEvent.<ItemEvent>builder().comment("heartbeat").build());
+        return data.mergeWith(heartbeats);
+    }
+}
@@ -0,0 +1,192 @@
+package com.oakbal.todoapp.backend.controller;
+
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import com.oakbal.todoapp.backend.model.Item;
+import com.oakbal.todoapp.backend.model.ItemBatchOperation;
+import com.oakbal.todoapp.backend.model.ItemBatchResult;
+import com.oakbal.todoapp.backend.model.ItemChanges;
+import com.oakbal.todoapp.backend.model.ItemEvent;
+import com.oakbal.todoapp.backend.model.ItemPage;
+import com.oakbal.todoapp.backend.model.ItemPatch;
+import com.oakbal.todoapp.backend.model.ItemQuery;
+import com.oakbal.todoapp.backend.model.ItemSummaryPage;
+import com.oakbal.todoapp.backend.service.ExpiredChangeTokenException;
+import com.oakbal.todoapp.backend.service.ReactiveItemService;
+import com.oakbal.todoapp.backend.service.ReactiveUserService;
+import com.oakbal.todoapp.backend.service.SubscriberLimitExceededException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * WebFlux counterpart of {@link ItemController}, serving the same routes on the event loop.
+ */
+@RequestMapping("/items")
+@RestController
+@Profile("reactive")
+public class ReactiveItemController {
+    private final ReactiveItemService itemService;
+    private final ReactiveUserService userService;
+    private final TodoProperties properties;
+
+    @Autowired
+    public ReactiveItemController(ReactiveItemService itemService, ReactiveUserService userService, TodoProperties properties) {
+        this.itemService = itemService;
+        this.userService = userService;
+        this.properties = properties;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Item>> createItem(@RequestBody Item item, Authentication authentication) {
+        return userService.getUserIdByUsername(authentication.getName())
+                .flatMap(userId -> itemService.createItem(item, userId))
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<ItemPage>> getUserItems(Authentication authentication, @ModelAttribute ItemQuery query) {
+        return userService.getUserIdByUsername(authentication.getName())
+                .flatMap(userId -> itemService.getItemPage(userId, query))
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping(params = "fields=summary")
+    public Mono<ResponseEntity<ItemSummaryPage>> getUserItemSummaries(Authentication authentication, @ModelAttribute ItemQuery query) {
+        return userService.getUserIdByUsername(authentication.getName())
+                .flatMap(userId -> itemService.getItemSummaryPage(userId, query))
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public Flux<Item> exportItems(Authentication authentication) {
+        // Rows are requested as the client drains them; a disconnect cancels the query
+        return userService.getUserIdByUsername(authentication.getName())
+                .flatMapMany(itemService::streamItemsByUserId);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ItemEvent>> streamItemEvents(Authentication authentication) {
+        return userService.getUserIdByUsername(authentication.getName())
+                .flatMapMany(userId -> ItemEventStreams.sse(itemService.streamEvents(userId),
+                        properties.getItems().getEvents().getHeartbeatInterval()));
+    }
+
+    @GetMapping("/changes")
+    public Mono<ResponseEntity<ItemChanges>> getChanges(Authentication authentication,
+                                                        @RequestParam(required = false) String since,
+                                                        @RequestParam(required = false) Integer limit) {
+        return userService.getUserIdByUsername(authentication.getName())
+                .flatMap(userId -> itemService.getChanges(userId, since, limit))
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Item>> getItemById(@PathVariable String id,
+                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Mono<ResponseEntity<Item>> full = itemService.getItemById(id)
+                .map(item -> ETags.ok(item.getVersion()).body(item))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+        if (ifNoneMatch == null) {
+            return full;
+        }
+        return itemService.getItemVersion(id)
+                .filter(version -> ETags.matches(ifNoneMatch, version))
+                .map(version -> ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.of(version)).<Item>build())
+                .switchIfEmpty(full);
+    }
+
+    @GetMapping("/user/{userId}")
+    public Mono<ResponseEntity<ItemPage>> getItemsByUserId(@PathVariable String userId, @ModelAttribute ItemQuery query) {
+        return itemService.getItemPage(userId, query).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(value = "/user/{userId}", params = "fields=summary")
+    public Mono<ResponseEntity<ItemSummaryPage>> getItemSummariesByUserId(@PathVariable String userId, @ModelAttribute ItemQuery query) {
+        return itemService.getItemSummaryPage(userId, query).map(ResponseEntity::ok);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Item>> updateItem(@PathVariable String id, @RequestBody Item item, Authentication authentication,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return Mono.fromCallable(() -> ETags.parse(ifMatch))
+                .flatMap(cas -> ownerOf(id, authentication)
+                        .flatMap(userId -> {
+                            item.setId(id);
+                            item.setUserId(userId);
+                            return itemService.updateItem(item, cas);
+                        }))
+                .map(updated -> ETags.ok(updated.getVersion()).body(updated))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<Void>> patchItem(@PathVariable String id, @RequestBody ItemPatch patch, Authentication authentication,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return Mono.fromCallable(() -> ETags.parse(ifMatch))
+                .flatMap(cas -> ownerOf(id, authentication).flatMap(userId -> itemService.patchItem(id, userId, patch, cas)))
+                .map(cas -> ResponseEntity.noContent().eTag(ETags.of(cas)).<Void>build())
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteItem(@PathVariable String id, Authentication authentication,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return Mono.fromCallable(() -> ETags.parse(ifMatch))
+                .flatMap(cas -> ownerOf(id, authentication).flatMap(userId -> itemService.deleteItem(id, cas).thenReturn(userId)))
+                .map(userId -> ResponseEntity.ok().<Void>build())
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * The caller's id if the item belongs to the caller, otherwise empty, so items of other users are
+     * answered the same as missing ones.
+     */
+    private Mono<String> ownerOf(String id, Authentication authentication) {
+        return userService.getUserIdByUsername(authentication.getName())
+                .filterWhen(userId -> itemService.findOwnerById(id).map(userId::equals).defaultIfEmpty(false));
+    }
+
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<List<ItemBatchResult>>> applyBatch(@RequestBody List<ItemBatchOperation> operations, Authentication authentication) {
+        return userService.getUserIdByUsername(authentication.getName())
+                .flatMap(userId -> itemService.applyBatch(userId, operations).collectList())
+                .map(ResponseEntity::ok);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidArgument(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    @ExceptionHandler(DataRetrievalFailureException.class)
+    public ResponseEntity<Void> handleNotFound(DataRetrievalFailureException e) {
+        return ResponseEntity.notFound().build();
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleConcurrentModification(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+    }
+
+    @ExceptionHandler(ExpiredChangeTokenException.class)
+    public ResponseEntity<String> handleExpiredChangeToken(ExpiredChangeTokenException e) {
+        return ResponseEntity.status(HttpStatus.GONE).body(e.getMessage());
+    }
+
+    @ExceptionHandler(SubscriberLimitExceededException.class)
+    public ResponseEntity<String> handleSubscriberLimit(SubscriberLimitExceededException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+    }
+}
@@ -0,0 +1,73 @@
+package com.oakbal.todoapp.backend.controller;
+
+import com.oakbal.todoapp.backend.model.User;
+import com.oakbal.todoapp.backend.service.AuthTokenService;
+import com.oakbal.todoapp.backend.service.ReactiveUserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import static com.oakbal.todoapp.backend.controller.UserController.AUTH_TOKEN_EXPIRES_HEADER;
+import static com.oakbal.todoapp.backend.controller.UserController.AUTH_TOKEN_HEADER;
+
+/**
+ * WebFlux counterpart of {@link UserController}, serving the same routes on the event loop.
+ */
+@RestController
+@RequestMapping("/users")
+@Profile("reactive")
+public class ReactiveUserController {
+    private final ReactiveUserService userService;
+
+    private final ReactiveAuthenticationManager authenticationManager;
+
+    private final AuthTokenService authTokenService;
+
+    @Autowired
+    public ReactiveUserController(ReactiveUserService userService, ReactiveAuthenticationManager authenticationManager, AuthTokenService authTokenService) {
+        this.userService = userService;
+        this.authenticationManager = authenticationManager;
+        this.authTokenService = authTokenService;
+    }
+
+    @PostMapping("/register")
+    public Mono<ResponseEntity<?>> registerUser(@RequestBody User user) {
+        return userService.registerUser(user)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(RuntimeException.class, e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())));
+    }
+
+    @PostMapping("/login")
+    public Mono<ResponseEntity<?>> loginUser(@RequestBody User user) {
+        return authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(user.getUsername(), user.getPassword()))
+                .map(authentication -> {
+                    AuthTokenService.AuthToken token = authTokenService.issueToken(authentication.getName());
+                    return ResponseEntity.ok()
+                            .header(AUTH_TOKEN_HEADER, token.token())
+                            .header(AUTH_TOKEN_EXPIRES_HEADER, token.expiresAt().toString())
+                            .body("User logged in successfully");
+                });
+    }
+
+    @GetMapping("/{username}")
+    public Mono<ResponseEntity<User>> getUserByUsername(@PathVariable String username) {
+        return userService.getUserByUsername(username)
+                .map(user -> ETags.ok(user.getVersion()).body(user))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/me")
+    public Mono<ResponseEntity<User>> getCurrentUser(Authentication authentication) {
+        return userService.getUserByUsername(authentication.getName())
+                .map(user -> {
+                    user.setPassword(null);
+                    return ETags.ok(user.getVersion()).body(user); // Hide password for security
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
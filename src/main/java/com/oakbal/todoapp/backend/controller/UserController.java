@@ -1,8 +1,10 @@
 package com.oakbal.todoapp.backend.controller;
 
 import com.oakbal.todoapp.backend.model.User;
+import com.oakbal.todoapp.backend.service.AuthTokenService;
 import com.oakbal.todoapp.backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -12,15 +14,22 @@ import org.springframework.web.bind.annotation.*;
 
 @RestController
 @RequestMapping("/users")
+@Profile("!reactive")
 public class UserController {
+    public static final String AUTH_TOKEN_HEADER = "X-Auth-Token";
+    public static final String AUTH_TOKEN_EXPIRES_HEADER = "X-Auth-Token-Expires";
+
     private final UserService userService;
 
     private final AuthenticationManager authenticationManager;
 
+    private final AuthTokenService authTokenService;
+
     @Autowired
-    public UserController(UserService userService, AuthenticationManager authenticationManager) {
+    public UserController(UserService userService, AuthenticationManager authenticationManager, AuthTokenService authTokenService) {
         this.userService = userService;
         this.authenticationManager = authenticationManager;
+        this.authTokenService = authTokenService;
     }
 
     @PostMapping("/register")
@@ -39,13 +48,17 @@ public class UserController {
                 new UsernamePasswordAuthenticationToken(user.getUsername(), user.getPassword())
         );
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        return ResponseEntity.ok("User logged in successfully");
+        AuthTokenService.AuthToken token = authTokenService.issueToken(authentication.getName());
+        return ResponseEntity.ok()
+                .header(AUTH_TOKEN_HEADER, token.token())
+                .header(AUTH_TOKEN_EXPIRES_HEADER, token.expiresAt().toString())
+                .body("User logged in successfully");
     }
 
     @GetMapping("/{username}")
     public ResponseEntity<User> getUserByUsername(@PathVariable String username) {
         return userService.getUserByUsername(username)
-                .map(ResponseEntity::ok)
+                .map(user -> ETags.ok(user.getVersion()).body(user))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -56,7 +69,7 @@ public class UserController {
         return userService.getUserByUsername(username)
                 .map(user -> {
                     user.setPassword(null);
-                    return ResponseEntity.ok(user); // Hide password for security
+                    return ETags.ok(user.getVersion()).body(user); // Hide password for security
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
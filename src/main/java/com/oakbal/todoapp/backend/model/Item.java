@@ -2,16 +2,21 @@ package com.oakbal.todoapp.backend.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.couchbase.core.mapping.Document;
 import org.springframework.data.couchbase.core.mapping.Field;
 import org.springframework.data.couchbase.core.mapping.id.GeneratedValue;
 import org.springframework.data.couchbase.core.mapping.id.GenerationStrategy;
+import org.springframework.data.couchbase.repository.Collection;
 
 import java.time.LocalDateTime;
 
 @Data
 @Document
+@Collection(Item.COLLECTION)
 public class Item {
+    public static final String COLLECTION = "items";
+
     @Id
     @GeneratedValue(strategy = GenerationStrategy.UNIQUE)
     private String id;
@@ -35,4 +40,25 @@ public class Item {
     private LocalDateTime updatedAt;
 
     private String type = "Item";
+
+    // Document CAS; exposed as the ETag and checked on conditional writes
+    @Version
+    private long version;
+
+    /**
+     * A detached copy, for holding on to an item that its owner may still change.
+     */
+    public static Item copyOf(Item source) {
+        Item item = new Item();
+        item.setId(source.getId());
+        item.setUserId(source.getUserId());
+        item.setTitle(source.getTitle());
+        item.setDescription(source.getDescription());
+        item.setCompleted(source.isCompleted());
+        item.setCreatedAt(source.getCreatedAt());
+        item.setUpdatedAt(source.getUpdatedAt());
+        item.setType(source.getType());
+        item.setVersion(source.getVersion());
+        return item;
+    }
 }
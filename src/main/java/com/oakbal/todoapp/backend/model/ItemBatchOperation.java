@@ -0,0 +1,31 @@
+package com.oakbal.todoapp.backend.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemBatchOperation {
+    public enum Type {
+        CREATE, UPDATE, DELETE
+    }
+
+    private Type op;
+
+    private String id;
+
+    private Item item;
+
+    /**
+     * Owner the updated or deleted item must belong to. Set by the service, never read from the request.
+     */
+    @JsonIgnore
+    private String userId;
+
+    public ItemBatchOperation(Type op, String id, Item item) {
+        this(op, id, item, null);
+    }
+}
@@ -0,0 +1,34 @@
+package com.oakbal.todoapp.backend.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemBatchResult {
+    private int index;
+
+    private String id;
+
+    private int status;
+
+    private Item item;
+
+    private String error;
+
+    public static ItemBatchResult success(int index, int status, Item item) {
+        return new ItemBatchResult(index, item.getId(), status, item, null);
+    }
+
+    public static ItemBatchResult deleted(int index, String id) {
+        return new ItemBatchResult(index, id, 200, null, null);
+    }
+
+    public static ItemBatchResult failure(int index, String id, int status, String error) {
+        return new ItemBatchResult(index, id, status, null, error);
+    }
+}
@@ -0,0 +1,40 @@
+package com.oakbal.todoapp.backend.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a user's change feed, ordered by change time then item id. An empty {@code id}
+ * means every change at {@code changedAt} is still to come.
+ */
+public record ItemChangeToken(LocalDateTime changedAt, String id) {
+    private static final char SEPARATOR = '|';
+
+    public static ItemChangeToken after(Item item) {
+        return new ItemChangeToken(item.getUpdatedAt(), item.getId());
+    }
+
+    public static ItemChangeToken after(ItemTombstone tombstone) {
+        return new ItemChangeToken(tombstone.getDeletedAt(), tombstone.getItemId());
+    }
+
+    public String encode() {
+        String raw = changedAt + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ItemChangeToken decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid change token");
+            }
+            return new ItemChangeToken(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid change token", e);
+        }
+    }
+}
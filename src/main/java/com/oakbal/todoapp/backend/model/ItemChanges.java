@@ -0,0 +1,20 @@
+package com.oakbal.todoapp.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemChanges {
+    private List<Item> items;
+
+    private List<String> deleted;
+
+    private String nextToken;
+
+    private boolean hasMore;
+}
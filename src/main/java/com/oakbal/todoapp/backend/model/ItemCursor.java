@@ -0,0 +1,41 @@
+package com.oakbal.todoapp.backend.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in a user's item listing, ordered by {@code createdAt} then document id.
+ */
+public record ItemCursor(LocalDateTime createdAt, String id) {
+    private static final char SEPARATOR = '|';
+
+    public static ItemCursor after(Item item) {
+        return new ItemCursor(item.getCreatedAt(), item.getId());
+    }
+
+    public static ItemCursor after(ItemSummary summary) {
+        return new ItemCursor(summary.getCreatedAt(), summary.getId());
+    }
+
+    public String encode() {
+        // Items written without createdAt list first; their position has an empty timestamp
+        String raw = (createdAt == null ? "" : createdAt.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ItemCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0 || separator == raw.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            LocalDateTime createdAt = separator == 0 ? null : LocalDateTime.parse(raw.substring(0, separator));
+            return new ItemCursor(createdAt, raw.substring(separator + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
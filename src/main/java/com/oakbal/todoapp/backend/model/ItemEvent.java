@@ -0,0 +1,51 @@
+package com.oakbal.todoapp.backend.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Change pushed to the owner's item stream. {@code item} is absent for deletions and for patches,
+ * where only the new {@code version} is known.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemEvent {
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private Type type;
+
+    private String itemId;
+
+    private String userId;
+
+    private Item item;
+
+    private Long version;
+
+    public static ItemEvent created(Item item) {
+        return new ItemEvent(Type.CREATED, item.getId(), item.getUserId(), item, versionOf(item));
+    }
+
+    public static ItemEvent updated(Item item) {
+        return new ItemEvent(Type.UPDATED, item.getId(), item.getUserId(), item, versionOf(item));
+    }
+
+    public static ItemEvent patched(String itemId, String userId, long version) {
+        return new ItemEvent(Type.UPDATED, itemId, userId, null, version);
+    }
+
+    public static ItemEvent deleted(String itemId, String userId) {
+        return new ItemEvent(Type.DELETED, itemId, userId, null, null);
+    }
+
+    private static Long versionOf(Item item) {
+        // Buffered write-behind updates have no CAS yet
+        return item.getVersion() == 0 ? null : item.getVersion();
+    }
+}
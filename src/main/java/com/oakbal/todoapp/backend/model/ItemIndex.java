@@ -0,0 +1,51 @@
+package com.oakbal.todoapp.backend.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.couchbase.core.mapping.Document;
+import org.springframework.data.couchbase.core.mapping.Field;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-user document listing the ids and summaries of the user's items, keyed by item id, so the
+ * user's items can be listed with key-value gets instead of a query. Maintained alongside every item
+ * write when {@code todo.items.index.enabled} is set.
+ */
+@Data
+@NoArgsConstructor
+@Document
+@org.springframework.data.couchbase.repository.Collection(ItemIndex.COLLECTION)
+public class ItemIndex {
+    public static final String COLLECTION = "item_indexes";
+    private static final String ID_PREFIX = "item-index::";
+
+    @Id
+    private String id;
+
+    @Field
+    private String userId;
+
+    @Field
+    private Map<String, ItemSummary> items = new HashMap<>();
+
+    private String type = "ItemIndex";
+
+    // Document CAS; checked when a rebuild replaces the whole index
+    @Version
+    private long version;
+
+    public ItemIndex(String userId, Collection<ItemSummary> summaries) {
+        this.id = idFor(userId);
+        this.userId = userId;
+        summaries.forEach(summary -> items.put(summary.getId(), summary));
+    }
+
+    public static String idFor(String userId) {
+        return ID_PREFIX + userId;
+    }
+}
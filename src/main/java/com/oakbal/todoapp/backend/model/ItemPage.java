@@ -0,0 +1,16 @@
+package com.oakbal.todoapp.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemPage {
+    private List<Item> items;
+
+    private String nextCursor;
+}
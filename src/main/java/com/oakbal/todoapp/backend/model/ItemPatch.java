@@ -0,0 +1,35 @@
+package com.oakbal.todoapp.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Field-level item update; {@code null} fields are left unchanged.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemPatch {
+    private String title;
+
+    private String description;
+
+    private Boolean completed;
+
+    public boolean isEmpty() {
+        return title == null && description == null && completed == null;
+    }
+
+    public void applyTo(Item item) {
+        if (title != null) {
+            item.setTitle(title);
+        }
+        if (description != null) {
+            item.setDescription(description);
+        }
+        if (completed != null) {
+            item.setCompleted(completed);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.oakbal.todoapp.backend.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Listing fields of an item as kept in its owner's {@link ItemIndex}: enough to filter, order and
+ * page without reading the items themselves. Also the lean projection returned by the list endpoints
+ * with {@code fields=summary}, which only shows id, title and completed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemSummary {
+    private String id;
+
+    private String title;
+
+    private boolean completed;
+
+    // Ordering and paging keys, not part of the list view
+    @JsonIgnore
+    private LocalDateTime createdAt;
+
+    @JsonIgnore
+    private LocalDateTime updatedAt;
+
+    public static ItemSummary of(Item item) {
+        return new ItemSummary(item.getId(), item.getTitle(), item.isCompleted(), item.getCreatedAt(), item.getUpdatedAt());
+    }
+}
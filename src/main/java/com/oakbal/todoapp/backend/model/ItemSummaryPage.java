@@ -0,0 +1,19 @@
+package com.oakbal.todoapp.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * {@link ItemPage} counterpart for {@code fields=summary}; the cursor is interchangeable between the two.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemSummaryPage {
+    private List<ItemSummary> items;
+
+    private String nextCursor;
+}
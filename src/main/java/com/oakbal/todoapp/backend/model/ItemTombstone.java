@@ -0,0 +1,44 @@
+package com.oakbal.todoapp.backend.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.couchbase.core.mapping.Document;
+import org.springframework.data.couchbase.core.mapping.Field;
+import org.springframework.data.couchbase.repository.Collection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marker left behind when an item is deleted so delta sync can report the deletion. Written with an
+ * expiry, which bounds how old a change token may be.
+ */
+@Data
+@NoArgsConstructor
+@Document
+@Collection(ItemTombstone.COLLECTION)
+public class ItemTombstone {
+    public static final String COLLECTION = "item_tombstones";
+    private static final String ID_PREFIX = "tombstone::";
+
+    @Id
+    private String id;
+
+    @Field
+    private String itemId;
+
+    @Field
+    private String userId;
+
+    @Field
+    private LocalDateTime deletedAt;
+
+    private String type = "ItemTombstone";
+
+    public ItemTombstone(String itemId, String userId, LocalDateTime deletedAt) {
+        this.id = ID_PREFIX + itemId;
+        this.itemId = itemId;
+        this.userId = userId;
+        this.deletedAt = deletedAt;
+    }
+}
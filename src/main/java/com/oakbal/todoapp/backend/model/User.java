@@ -2,14 +2,21 @@ package com.oakbal.todoapp.backend.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.couchbase.core.mapping.Document;
 import org.springframework.data.couchbase.core.mapping.Field;
 import org.springframework.data.couchbase.core.mapping.id.GeneratedValue;
 import org.springframework.data.couchbase.core.mapping.id.GenerationStrategy;
+import org.springframework.data.couchbase.repository.Collection;
+
+import java.util.Objects;
 
 @Data
 @Document
+@Collection(User.COLLECTION)
 public class User {
+    public static final String COLLECTION = "users";
+
     @Id
     @GeneratedValue(strategy = GenerationStrategy.UNIQUE)
     private String id;
@@ -25,4 +32,27 @@ public class User {
 
     @Field
     private String type = "User";
+
+    @Version
+    private long version;
+
+    /**
+     * A copy of the account under another id, without the stored version.
+     */
+    public static User copyOf(User source, String id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(source.getUsername());
+        user.setPassword(source.getPassword());
+        user.setEmail(source.getEmail());
+        user.setType(source.getType());
+        return user;
+    }
+
+    /**
+     * Whether both documents hold the same account, such as a user and its copy under a new key.
+     */
+    public static boolean sameAccount(User a, User b) {
+        return Objects.equals(a.getEmail(), b.getEmail()) && Objects.equals(a.getPassword(), b.getPassword());
+    }
 }
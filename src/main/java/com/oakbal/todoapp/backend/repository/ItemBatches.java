@@ -0,0 +1,60 @@
+package com.oakbal.todoapp.backend.repository;
+
+import com.couchbase.client.core.error.CasMismatchException;
+import com.couchbase.client.core.error.DocumentExistsException;
+import com.couchbase.client.core.error.DocumentNotFoundException;
+import com.oakbal.todoapp.backend.model.Item;
+import com.oakbal.todoapp.backend.model.ItemBatchOperation;
+import com.oakbal.todoapp.backend.model.ItemBatchResult;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.couchbase.core.ReactiveCouchbaseTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Batch pipeline shared by the blocking and reactive repositories.
+ */
+final class ItemBatches {
+    private ItemBatches() {
+    }
+
+    static Flux<ItemBatchResult> execute(ReactiveCouchbaseTemplate reactiveTemplate, List<ItemBatchOperation> operations, int concurrency,
+                                         Duration tombstoneTtl) {
+        // Operations are pipelined over the KV connections; results keep the request order
+        return Flux.range(0, operations.size())
+                .flatMapSequential(index -> execute(reactiveTemplate, index, operations.get(index), tombstoneTtl), concurrency);
+    }
+
+    private static Mono<ItemBatchResult> execute(ReactiveCouchbaseTemplate reactiveTemplate, int index, ItemBatchOperation operation,
+                                                 Duration tombstoneTtl) {
+        Mono<ItemBatchResult> result = switch (operation.getOp()) {
+            case CREATE -> reactiveTemplate.insertById(Item.class).one(operation.getItem())
+                    .map(saved -> ItemBatchResult.success(index, 201, saved));
+            // Updates and deletes only reach the items of the operation's owner
+            case UPDATE -> ItemMutations.requireOwner(reactiveTemplate, operation.getId(), operation.getUserId())
+                    .then(reactiveTemplate.replaceById(Item.class).one(operation.getItem()))
+                    .map(saved -> ItemBatchResult.success(index, 200, saved));
+            case DELETE -> ItemMutations.delete(reactiveTemplate, operation.getId(), operation.getUserId(), null, tombstoneTtl)
+                    .thenReturn(ItemBatchResult.deleted(index, operation.getId()));
+        };
+        return result.onErrorResume(e -> Mono.just(ItemBatchResult.failure(index, operation.getId(), statusOf(e), e.getMessage())));
+    }
+
+    private static int statusOf(Throwable e) {
+        if (e instanceof DataRetrievalFailureException || e instanceof DocumentNotFoundException) {
+            return 404;
+        }
+        if (e instanceof DuplicateKeyException || e instanceof DocumentExistsException) {
+            return 409;
+        }
+        if (e instanceof OptimisticLockingFailureException || e instanceof CasMismatchException) {
+            return 412;
+        }
+        return 500;
+    }
+}
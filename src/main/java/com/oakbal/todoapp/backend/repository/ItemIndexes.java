@@ -0,0 +1,128 @@
+package com.oakbal.todoapp.backend.repository;
+
+import com.couchbase.client.core.error.CasMismatchException;
+import com.couchbase.client.core.error.DocumentNotFoundException;
+import com.couchbase.client.core.error.subdoc.PathNotFoundException;
+import com.couchbase.client.java.ReactiveCollection;
+import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.kv.MutateInSpec;
+import com.oakbal.todoapp.backend.model.ItemIndex;
+import com.oakbal.todoapp.backend.model.ItemPatch;
+import com.oakbal.todoapp.backend.model.ItemSummary;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.couchbase.core.ReactiveCouchbaseTemplate;
+import org.springframework.data.couchbase.core.convert.CouchbaseConverter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Sub-document maintenance of the per-user {@link ItemIndex}, shared by the blocking and reactive
+ * repositories. Entries are written path by path, so concurrent writes to different items of the
+ * same user never overwrite each other.
+ */
+final class ItemIndexes {
+    // The server accepts at most 16 specs per mutateIn
+    private static final int ENTRIES_PER_MUTATION = 16;
+
+    private ItemIndexes() {
+    }
+
+    static Mono<ItemIndex> find(ReactiveCouchbaseTemplate template, String userId) {
+        return template.findById(ItemIndex.class).one(ItemIndex.idFor(userId));
+    }
+
+    /**
+     * Adds or replaces the entries of an existing index. A user without an index document is left without
+     * one: an index holding only these entries would pass for complete, while the first listing builds it
+     * from all of the user's items.
+     */
+    static Mono<Void> put(ReactiveCouchbaseTemplate template, String userId, Collection<ItemSummary> summaries) {
+        ReactiveCollection collection = collection(template);
+        CouchbaseConverter converter = template.getConverter();
+        List<ItemSummary> entries = List.copyOf(summaries);
+        return Flux.range(0, (entries.size() + ENTRIES_PER_MUTATION - 1) / ENTRIES_PER_MUTATION)
+                .concatMap(chunk -> {
+                    // Default store semantics replace, so the mutation fails instead of creating the document
+                    List<MutateInSpec> specs = new ArrayList<>();
+                    entries.subList(chunk * ENTRIES_PER_MUTATION, Math.min(entries.size(), (chunk + 1) * ENTRIES_PER_MUTATION))
+                            .forEach(summary -> specs.add(MutateInSpec.upsert(entryPath(summary.getId()), toJson(converter, summary))));
+                    return collection.mutateIn(ItemIndex.idFor(userId), specs);
+                })
+                .onErrorResume(DocumentNotFoundException.class, e -> Mono.empty())
+                .then();
+    }
+
+    /**
+     * Applies the patched listing fields to an existing entry. A missing entry is left missing rather
+     * than created half-filled; rebuilding the index restores it.
+     */
+    static Mono<Void> patch(ReactiveCouchbaseTemplate template, String userId, String id, ItemPatch patch, LocalDateTime updatedAt) {
+        CouchbaseConverter converter = template.getConverter();
+        String path = entryPath(id);
+        List<MutateInSpec> specs = new ArrayList<>();
+        if (patch.getTitle() != null) {
+            specs.add(MutateInSpec.upsert(path + ".title", patch.getTitle()));
+        }
+        if (patch.getCompleted() != null) {
+            specs.add(MutateInSpec.upsert(path + ".completed", patch.getCompleted()));
+        }
+        specs.add(MutateInSpec.upsert(path + ".updatedAt", converter.convertForWriteIfNeeded(updatedAt)));
+        return collection(template).mutateIn(ItemIndex.idFor(userId), specs)
+                .onErrorResume(e -> e instanceof PathNotFoundException || e instanceof DocumentNotFoundException, e -> Mono.empty())
+                .then();
+    }
+
+    static Mono<Void> remove(ReactiveCouchbaseTemplate template, String userId, Collection<String> ids, int concurrency) {
+        ReactiveCollection collection = collection(template);
+        // One mutation per entry: a single missing path would fail a combined mutateIn
+        return Flux.fromIterable(ids)
+                .flatMap(id -> collection.mutateIn(ItemIndex.idFor(userId), List.of(MutateInSpec.remove(entryPath(id))))
+                        .onErrorResume(e -> e instanceof PathNotFoundException || e instanceof DocumentNotFoundException, e -> Mono.empty()),
+                        concurrency)
+                .then();
+    }
+
+    /**
+     * Stores a newly built index. If the user already has one, that one is kept and returned instead, as
+     * it may hold entries written after {@code index} was built.
+     */
+    static Mono<ItemIndex> create(ReactiveCouchbaseTemplate template, ItemIndex index) {
+        return template.insertById(ItemIndex.class).one(index)
+                .onErrorResume(DuplicateKeyException.class, e -> find(template, index.getUserId()));
+    }
+
+    /**
+     * Replaces the whole index, dropping entries that are not in {@code index}, as long as the stored
+     * document still has the CAS in {@link ItemIndex#getVersion()}.
+     */
+    static Mono<ItemIndex> replace(ReactiveCouchbaseTemplate template, ItemIndex index) {
+        return template.replaceById(ItemIndex.class).one(index)
+                .onErrorMap(CasMismatchException.class,
+                        e -> new OptimisticLockingFailureException("Item index of user " + index.getUserId() + " was modified concurrently", e));
+    }
+
+    private static String entryPath(String id) {
+        // Item ids are path segments here, so dots and other separators in them must be escaped
+        return "items.`" + id.replace("`", "``") + "`";
+    }
+
+    private static JsonObject toJson(CouchbaseConverter converter, ItemSummary summary) {
+        // Same layout the converter gives ItemIndex.items, so the document still reads back as an entity
+        return JsonObject.create()
+                .put("id", summary.getId())
+                .put("title", summary.getTitle())
+                .put("completed", summary.isCompleted())
+                .put("createdAt", converter.convertForWriteIfNeeded(summary.getCreatedAt()))
+                .put("updatedAt", converter.convertForWriteIfNeeded(summary.getUpdatedAt()));
+    }
+
+    private static ReactiveCollection collection(ReactiveCouchbaseTemplate template) {
+        return template.getCollection(ItemIndex.COLLECTION).reactive();
+    }
+}
@@ -0,0 +1,135 @@
+package com.oakbal.todoapp.backend.repository;
+
+import com.couchbase.client.core.error.CasMismatchException;
+import com.couchbase.client.core.error.DocumentNotFoundException;
+import com.couchbase.client.java.ReactiveCollection;
+import com.couchbase.client.java.kv.LookupInResult;
+import com.couchbase.client.java.kv.LookupInSpec;
+import com.couchbase.client.java.kv.MutateInOptions;
+import com.couchbase.client.java.kv.MutateInSpec;
+import com.couchbase.client.java.kv.MutationResult;
+import com.couchbase.client.java.kv.RemoveOptions;
+import com.oakbal.todoapp.backend.model.Item;
+import com.oakbal.todoapp.backend.model.ItemPatch;
+import com.oakbal.todoapp.backend.model.ItemTombstone;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.couchbase.core.ReactiveCouchbaseTemplate;
+import org.springframework.data.couchbase.core.convert.CouchbaseConverter;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sub-document item mutations and deletes shared by the blocking and reactive repositories.
+ */
+final class ItemMutations {
+    private static final List<LookupInSpec> OWNER = List.of(LookupInSpec.get("userId"));
+
+    private ItemMutations() {
+    }
+
+    static List<MutateInSpec> patchSpecs(CouchbaseConverter converter, ItemPatch patch, LocalDateTime updatedAt) {
+        // Only the changed paths travel over the wire and the server applies them atomically
+        List<MutateInSpec> specs = new ArrayList<>();
+        if (patch.getTitle() != null) {
+            specs.add(MutateInSpec.upsert("title", patch.getTitle()));
+        }
+        if (patch.getDescription() != null) {
+            specs.add(MutateInSpec.upsert("description", patch.getDescription()));
+        }
+        if (patch.getCompleted() != null) {
+            specs.add(MutateInSpec.upsert("completed", patch.getCompleted()));
+        }
+        specs.add(MutateInSpec.upsert("updatedAt", converter.convertForWriteIfNeeded(updatedAt)));
+        return specs;
+    }
+
+    static MutateInOptions options(Long cas) {
+        MutateInOptions options = MutateInOptions.mutateInOptions();
+        if (cas != null) {
+            options.cas(cas);
+        }
+        return options;
+    }
+
+    /**
+     * Reads only the owner's id of the item, without fetching the document body. Empty when the item
+     * does not exist.
+     */
+    static Mono<String> owner(ReactiveCouchbaseTemplate template, String id) {
+        return template.getCollection(Item.COLLECTION).reactive()
+                .lookupIn(id, OWNER)
+                .mapNotNull(ItemMutations::ownerOf)
+                .onErrorResume(DocumentNotFoundException.class, e -> Mono.empty());
+    }
+
+    /**
+     * Fails with {@link DataRetrievalFailureException} unless the item exists and belongs to the user, so
+     * items of other users look the same as missing ones.
+     */
+    static Mono<Void> requireOwner(ReactiveCouchbaseTemplate template, String id, String userId) {
+        return owner(template, id)
+                .filter(owner -> owner.equals(userId))
+                .switchIfEmpty(Mono.error(() -> new DataRetrievalFailureException("Item not found " + id)))
+                .then();
+    }
+
+    /**
+     * Removes the item and records a tombstone under its owner. Emits the owner's id, or completes
+     * empty for an item without one, which gets no tombstone.
+     */
+    static Mono<String> delete(ReactiveCouchbaseTemplate template, String id, Long cas, Duration tombstoneTtl) {
+        return delete(template, id, null, cas, tombstoneTtl);
+    }
+
+    /**
+     * Same as {@link #delete(ReactiveCouchbaseTemplate, String, Long, Duration)}, but an item that does not
+     * belong to the required owner is reported as not found and left in place.
+     */
+    static Mono<String> delete(ReactiveCouchbaseTemplate template, String id, String requiredOwner, Long cas, Duration tombstoneTtl) {
+        ReactiveCollection collection = template.getCollection(Item.COLLECTION).reactive();
+        return collection.lookupIn(id, OWNER)
+                .flatMap(lookup -> {
+                    String userId = ownerOf(lookup);
+                    if (requiredOwner != null && !requiredOwner.equals(userId)) {
+                        return Mono.<String>error(new DataRetrievalFailureException("Item not found " + id));
+                    }
+                    Mono<MutationResult> removed = collection.remove(id, removeOptions(cas));
+                    if (userId == null) {
+                        return removed.then(Mono.<String>empty());
+                    }
+                    return removed
+                            .then(template.upsertById(ItemTombstone.class)
+                                    .withExpiry(tombstoneTtl)
+                                    .one(new ItemTombstone(id, userId, LocalDateTime.now())))
+                            .thenReturn(userId);
+                })
+                .onErrorMap(RuntimeException.class, e -> translate(id, e));
+    }
+
+    private static String ownerOf(LookupInResult lookup) {
+        return lookup.exists(0) ? lookup.contentAs(0, String.class) : null;
+    }
+
+    private static RemoveOptions removeOptions(Long cas) {
+        RemoveOptions options = RemoveOptions.removeOptions();
+        if (cas != null) {
+            options.cas(cas);
+        }
+        return options;
+    }
+
+    static RuntimeException translate(String id, RuntimeException e) {
+        if (e instanceof DocumentNotFoundException) {
+            return new DataRetrievalFailureException("Item not found " + id, e);
+        }
+        if (e instanceof CasMismatchException) {
+            return new OptimisticLockingFailureException("Item " + id + " was modified concurrently", e);
+        }
+        return e;
+    }
+}
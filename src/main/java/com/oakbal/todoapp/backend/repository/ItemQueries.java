@@ -0,0 +1,91 @@
+package com.oakbal.todoapp.backend.repository;
+
+import com.oakbal.todoapp.backend.model.ItemChangeToken;
+import com.oakbal.todoapp.backend.model.ItemCursor;
+import com.oakbal.todoapp.backend.model.ItemQuery;
+import org.springframework.data.couchbase.core.query.N1QLExpression;
+import org.springframework.data.couchbase.core.query.Query;
+import org.springframework.data.couchbase.core.query.QueryCriteria;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+
+/**
+ * Item listing queries shared by the blocking and reactive repositories.
+ */
+final class ItemQueries {
+    private static final N1QLExpression DOCUMENT_ID = N1QLExpression.x("META().id");
+    private static final Sort LISTING_ORDER = Sort.by("createdAt").and(Sort.by(DOCUMENT_ID.toString()));
+    private static final Sort CHANGE_ORDER = Sort.by("updatedAt").and(Sort.by(DOCUMENT_ID.toString()));
+    private static final Sort TOMBSTONE_ORDER = Sort.by("deletedAt").and(Sort.by("itemId"));
+    // What ItemSummary needs for the list view and its cursor; the id always comes from META()
+    static final String[] SUMMARY_FIELDS = {"title", "completed", "createdAt"};
+
+    private ItemQueries() {
+    }
+
+    static Query page(String userId, ItemQuery query, ItemCursor after, int limit) {
+        // Only active filters are added so they can be pushed down into idx_item_user_created
+        QueryCriteria criteria = QueryCriteria.where("userId").is(userId);
+        if (query.getCompleted() != null) {
+            criteria = criteria.and("completed").is(query.getCompleted());
+        }
+        if (query.getCreatedFrom() != null) {
+            criteria = criteria.and("createdAt").gte(query.getCreatedFrom());
+        }
+        if (query.getCreatedTo() != null) {
+            criteria = criteria.and("createdAt").lt(query.getCreatedTo());
+        }
+        if (query.getUpdatedFrom() != null) {
+            criteria = criteria.and("updatedAt").gte(query.getUpdatedFrom());
+        }
+        if (query.getUpdatedTo() != null) {
+            criteria = criteria.and("updatedAt").lt(query.getUpdatedTo());
+        }
+        if (query.getTitlePrefix() != null && !query.getTitlePrefix().isEmpty()) {
+            criteria = criteria.and("title").startingWith(escapeLike(query.getTitlePrefix()));
+        }
+        if (after != null && after.createdAt() == null) {
+            // Items without createdAt sort first, so everything with one comes after them
+            criteria = criteria.and(QueryCriteria.where("createdAt").isValued()
+                    .or(QueryCriteria.where("createdAt").isNotValued().and(DOCUMENT_ID).gt(after.id())));
+        } else if (after != null) {
+            criteria = criteria.and(QueryCriteria.where("createdAt").gt(after.createdAt())
+                    .or(QueryCriteria.where("createdAt").is(after.createdAt()).and(DOCUMENT_ID).gt(after.id())));
+        }
+
+        return new Query(criteria)
+                .with(LISTING_ORDER)
+                .limit(limit);
+    }
+
+    static Query allByUser(String userId) {
+        return new Query(QueryCriteria.where("userId").is(userId)).with(LISTING_ORDER);
+    }
+
+    /**
+     * Items changed after {@code since} and strictly before {@code until}, served by idx_item_user_updated.
+     */
+    static Query changes(String userId, ItemChangeToken since, LocalDateTime until, int limit) {
+        QueryCriteria criteria = QueryCriteria.where("userId").is(userId).and("updatedAt").lt(until);
+        if (since != null) {
+            criteria = criteria.and(QueryCriteria.where("updatedAt").gt(since.changedAt())
+                    .or(QueryCriteria.where("updatedAt").is(since.changedAt()).and(DOCUMENT_ID).gt(since.id())));
+        }
+        return new Query(criteria).with(CHANGE_ORDER).limit(limit);
+    }
+
+    /**
+     * Deletions after {@code since} and strictly before {@code until}, served by idx_tombstone_user_deleted.
+     */
+    static Query tombstones(String userId, ItemChangeToken since, LocalDateTime until, int limit) {
+        QueryCriteria criteria = QueryCriteria.where("userId").is(userId).and("deletedAt").lt(until)
+                .and(QueryCriteria.where("deletedAt").gt(since.changedAt())
+                        .or(QueryCriteria.where("deletedAt").is(since.changedAt()).and("itemId").gt(since.id())));
+        return new Query(criteria).with(TOMBSTONE_ORDER).limit(limit);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -1,10 +1,14 @@
 package com.oakbal.todoapp.backend.repository;
 
 import com.oakbal.todoapp.backend.model.Item;
-import org.springframework.data.couchbase.repository.CouchbaseRepository;
+import org.springframework.data.repository.ListCrudRepository;
 
 import java.util.List;
 
-public interface ItemRepository extends CouchbaseRepository<Item, String> {
+/**
+ * Blocking item repository. Only the CRUD operations are exposed, so the embedded store can implement
+ * all of it.
+ */
+public interface ItemRepository extends ListCrudRepository<Item, String>, ItemRepositoryCustom {
     List<Item> findItemByUserId(String userId);
 }
@@ -0,0 +1,105 @@
+package com.oakbal.todoapp.backend.repository;
+
+import com.oakbal.todoapp.backend.model.Item;
+import com.oakbal.todoapp.backend.model.ItemBatchOperation;
+import com.oakbal.todoapp.backend.model.ItemBatchResult;
+import com.oakbal.todoapp.backend.model.ItemChangeToken;
+import com.oakbal.todoapp.backend.model.ItemCursor;
+import com.oakbal.todoapp.backend.model.ItemIndex;
+import com.oakbal.todoapp.backend.model.ItemPatch;
+import com.oakbal.todoapp.backend.model.ItemQuery;
+import com.oakbal.todoapp.backend.model.ItemSummary;
+import com.oakbal.todoapp.backend.model.ItemTombstone;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ItemRepositoryCustom {
+    List<Item> findItemPage(String userId, ItemQuery query, ItemCursor after, int limit);
+
+    /**
+     * Same page as {@link #findItemPage}, selecting only the summary fields.
+     */
+    List<ItemSummary> findItemSummaryPage(String userId, ItemQuery query, ItemCursor after, int limit);
+
+    Stream<Item> streamItemsByUserId(String userId);
+
+    /**
+     * All of the user's items in listing order, waiting for the query index to catch up with every
+     * write made so far so that the result can be cached.
+     */
+    List<Item> findCurrentItemsByUserId(String userId);
+
+    /**
+     * Items changed after {@code since} (from the beginning when {@code null}) and before {@code until},
+     * in change order.
+     */
+    List<Item> findItemChanges(String userId, ItemChangeToken since, LocalDateTime until, int limit);
+
+    List<ItemTombstone> findItemTombstones(String userId, ItemChangeToken since, LocalDateTime until, int limit);
+
+    /**
+     * Current CAS of the item, read without transferring the document body.
+     */
+    Optional<Long> findVersionById(String id);
+
+    /**
+     * Unconditional write that ignores {@code version}, unlike {@code save} which inserts or
+     * compare-and-swaps a versioned entity.
+     */
+    Item upsertItem(Item item);
+
+    /**
+     * Owner of the item, read without transferring the document body.
+     */
+    Optional<String> findOwnerById(String id);
+
+    /**
+     * Deletes the item, leaves a tombstone for delta sync and returns the owner. A non-null
+     * {@code cas} makes the delete conditional on the document being unchanged.
+     */
+    Optional<String> deleteItem(String id, Long cas);
+
+    List<ItemBatchResult> executeBatch(List<ItemBatchOperation> operations, int concurrency);
+
+    /**
+     * Applies the patch as sub-document mutations and returns the new CAS. A non-null
+     * {@code cas} makes the mutation conditional on the document being unchanged.
+     */
+    long patchItem(String id, ItemPatch patch, LocalDateTime updatedAt, Long cas);
+
+    Optional<ItemIndex> findItemIndex(String userId);
+
+    /**
+     * Adds or replaces the entries in the user's item index, creating it if needed.
+     */
+    void indexItems(String userId, Collection<ItemSummary> summaries);
+
+    /**
+     * Applies a patch to the item's index entry; a missing entry is left for a rebuild to restore.
+     */
+    void patchItemIndex(String userId, String id, ItemPatch patch, LocalDateTime updatedAt);
+
+    void unindexItems(String userId, Collection<String> ids);
+
+    /**
+     * Stores a newly built item index, or returns the user's existing one without overwriting it.
+     */
+    ItemIndex createItemIndex(ItemIndex index);
+
+    /**
+     * Replaces the user's whole item index if it is unchanged since it was read with the CAS in
+     * {@link ItemIndex#getVersion()}; throws {@link org.springframework.dao.OptimisticLockingFailureException}
+     * otherwise.
+     */
+    ItemIndex replaceItemIndex(ItemIndex index);
+
+    /**
+     * Moves items and tombstones stored in the bucket's default collection into their collections.
+     * Returns the number of documents moved.
+     */
+    long moveLegacyItems(int batchSize, int concurrency);
+}
@@ -0,0 +1,152 @@
+package com.oakbal.todoapp.backend.repository;
+
+import com.couchbase.client.java.kv.ExistsResult;
+import com.couchbase.client.java.query.QueryScanConsistency;
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import com.oakbal.todoapp.backend.model.Item;
+import com.oakbal.todoapp.backend.model.ItemBatchOperation;
+import com.oakbal.todoapp.backend.model.ItemBatchResult;
+import com.oakbal.todoapp.backend.model.ItemChangeToken;
+import com.oakbal.todoapp.backend.model.ItemCursor;
+import com.oakbal.todoapp.backend.model.ItemIndex;
+import com.oakbal.todoapp.backend.model.ItemPatch;
+import com.oakbal.todoapp.backend.model.ItemQuery;
+import com.oakbal.todoapp.backend.model.ItemSummary;
+import com.oakbal.todoapp.backend.model.ItemTombstone;
+import org.springframework.data.couchbase.core.CouchbaseTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public class ItemRepositoryCustomImpl implements ItemRepositoryCustom {
+    private final CouchbaseTemplate couchbaseTemplate;
+    private final Duration tombstoneTtl;
+    private final int batchConcurrency;
+
+    public ItemRepositoryCustomImpl(CouchbaseTemplate couchbaseTemplate, TodoProperties properties) {
+        this.couchbaseTemplate = couchbaseTemplate;
+        this.tombstoneTtl = properties.getItems().getChanges().getTombstoneTtl();
+        this.batchConcurrency = properties.getItems().getBatchConcurrency();
+    }
+
+    @Override
+    public List<Item> findItemPage(String userId, ItemQuery query, ItemCursor after, int limit) {
+        return couchbaseTemplate.findByQuery(Item.class).matching(ItemQueries.page(userId, query, after, limit)).all();
+    }
+
+    @Override
+    public List<ItemSummary> findItemSummaryPage(String userId, ItemQuery query, ItemCursor after, int limit) {
+        return couchbaseTemplate.findByQuery(Item.class)
+                .project(ItemQueries.SUMMARY_FIELDS)
+                .as(ItemSummary.class)
+                .matching(ItemQueries.page(userId, query, after, limit))
+                .all();
+    }
+
+    @Override
+    public Stream<Item> streamItemsByUserId(String userId) {
+        // Backed by the reactive query result: rows are pulled as the stream is consumed and
+        // closing the stream cancels the query
+        return couchbaseTemplate.findByQuery(Item.class).matching(ItemQueries.allByUser(userId)).stream();
+    }
+
+    @Override
+    public List<Item> findCurrentItemsByUserId(String userId) {
+        return couchbaseTemplate.findByQuery(Item.class)
+                .withConsistency(QueryScanConsistency.REQUEST_PLUS)
+                .matching(ItemQueries.allByUser(userId))
+                .all();
+    }
+
+    @Override
+    public List<Item> findItemChanges(String userId, ItemChangeToken since, LocalDateTime until, int limit) {
+        return couchbaseTemplate.findByQuery(Item.class).matching(ItemQueries.changes(userId, since, until, limit)).all();
+    }
+
+    @Override
+    public List<ItemTombstone> findItemTombstones(String userId, ItemChangeToken since, LocalDateTime until, int limit) {
+        return couchbaseTemplate.findByQuery(ItemTombstone.class).matching(ItemQueries.tombstones(userId, since, until, limit)).all();
+    }
+
+    @Override
+    public Optional<Long> findVersionById(String id) {
+        ExistsResult result = couchbaseTemplate.getCollection(Item.COLLECTION).exists(id);
+        return result.exists() ? Optional.of(result.cas()) : Optional.empty();
+    }
+
+    @Override
+    public Item upsertItem(Item item) {
+        return couchbaseTemplate.upsertById(Item.class).one(item);
+    }
+
+    @Override
+    public Optional<String> findOwnerById(String id) {
+        return ItemMutations.owner(couchbaseTemplate.reactive(), id).blockOptional();
+    }
+
+    @Override
+    public Optional<String> deleteItem(String id, Long cas) {
+        return ItemMutations.delete(couchbaseTemplate.reactive(), id, cas, tombstoneTtl).blockOptional();
+    }
+
+    @Override
+    public List<ItemBatchResult> executeBatch(List<ItemBatchOperation> operations, int concurrency) {
+        return ItemBatches.execute(couchbaseTemplate.reactive(), operations, concurrency, tombstoneTtl)
+                .collectList()
+                .block();
+    }
+
+    @Override
+    public long patchItem(String id, ItemPatch patch, LocalDateTime updatedAt, Long cas) {
+        try {
+            return couchbaseTemplate.getCollection(Item.COLLECTION)
+                    .mutateIn(id, ItemMutations.patchSpecs(couchbaseTemplate.getConverter(), patch, updatedAt), ItemMutations.options(cas))
+                    .cas();
+        } catch (RuntimeException e) {
+            throw ItemMutations.translate(id, e);
+        }
+    }
+
+    @Override
+    public Optional<ItemIndex> findItemIndex(String userId) {
+        return ItemIndexes.find(couchbaseTemplate.reactive(), userId).blockOptional();
+    }
+
+    @Override
+    public void indexItems(String userId, Collection<ItemSummary> summaries) {
+        ItemIndexes.put(couchbaseTemplate.reactive(), userId, summaries).block();
+    }
+
+    @Override
+    public void patchItemIndex(String userId, String id, ItemPatch patch, LocalDateTime updatedAt) {
+        ItemIndexes.patch(couchbaseTemplate.reactive(), userId, id, patch, updatedAt).block();
+    }
+
+    @Override
+    public void unindexItems(String userId, Collection<String> ids) {
+        ItemIndexes.remove(couchbaseTemplate.reactive(), userId, ids, batchConcurrency).block();
+    }
+
+    @Override
+    public ItemIndex createItemIndex(ItemIndex index) {
+        return ItemIndexes.create(couchbaseTemplate.reactive(), index).block();
+    }
+
+    @Override
+    public ItemIndex replaceItemIndex(ItemIndex index) {
+        return ItemIndexes.replace(couchbaseTemplate.reactive(), index).block();
+    }
+
+    @Override
+    public long moveLegacyItems(int batchSize, int concurrency) {
+        return LegacyDocuments.move(couchbaseTemplate.reactive(), Item.class, "userId", Item.COLLECTION,
+                        batchSize, concurrency, LegacyDocuments::none)
+                .zipWith(LegacyDocuments.move(couchbaseTemplate.reactive(), ItemTombstone.class, "userId", ItemTombstone.COLLECTION,
+                        batchSize, concurrency, LegacyDocuments::none), Long::sum)
+                .block();
+    }
+}
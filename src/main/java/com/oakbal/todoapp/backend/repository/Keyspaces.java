@@ -0,0 +1,24 @@
+package com.oakbal.todoapp.backend.repository;
+
+import org.springframework.data.couchbase.core.ReactiveCouchbaseTemplate;
+
+/**
+ * Fully qualified N1QL keyspaces for statements written by hand.
+ */
+final class Keyspaces {
+    static final String DEFAULT = "_default";
+
+    private Keyspaces() {
+    }
+
+    /**
+     * {@code `bucket`.`scope`.`collection`} in the template's scope.
+     */
+    static String of(ReactiveCouchbaseTemplate template, String collection) {
+        return of(template, template.getCouchbaseClientFactory().getScope().name(), collection);
+    }
+
+    static String of(ReactiveCouchbaseTemplate template, String scope, String collection) {
+        return "`" + template.getBucketName() + "`.`" + scope + "`.`" + collection + "`";
+    }
+}
@@ -0,0 +1,100 @@
+package com.oakbal.todoapp.backend.repository;
+
+import com.couchbase.client.core.error.DocumentNotFoundException;
+import com.couchbase.client.java.ReactiveCollection;
+import com.couchbase.client.java.codec.RawJsonTranscoder;
+import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.kv.GetOptions;
+import com.couchbase.client.java.kv.RemoveOptions;
+import com.couchbase.client.java.kv.UpsertOptions;
+import com.couchbase.client.java.query.QueryOptions;
+import com.couchbase.client.java.query.QueryScanConsistency;
+import com.oakbal.todoapp.backend.model.ItemIndex;
+import org.springframework.data.couchbase.core.ReactiveCouchbaseTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Moves documents written before the entities had collections of their own out of the bucket's default
+ * collection. Documents are copied byte for byte with their expiry and removed from the source only if
+ * unchanged since the copy, so a run interrupted at any point can be started again.
+ */
+final class LegacyDocuments {
+    private LegacyDocuments() {
+    }
+
+    /**
+     * Moves every default-collection document of the entity class into {@code target}, {@code batchSize}
+     * ids at a time with {@code concurrency} documents in flight, and emits how many were moved.
+     * {@code leadingField} must lead one of the entity's legacy indexes so the scan can use it.
+     * {@code companions} maps each moved document to further keys, such as its lookup documents, and
+     * the collections they move to.
+     */
+    static Mono<Long> move(ReactiveCouchbaseTemplate template, Class<?> entity, String leadingField, String target,
+                           int batchSize, int concurrency, BiFunction<String, JsonObject, Map<String, String>> companions) {
+        ReactiveCollection source = template.getCouchbaseClientFactory().getBucket().defaultCollection().reactive();
+        String statement = "SELECT RAW META().id FROM " + Keyspaces.of(template, Keyspaces.DEFAULT, Keyspaces.DEFAULT)
+                // The class is inlined rather than a parameter so the planner can match the partial index
+                + " WHERE `_class` = \"" + entity.getName() + "\" AND `" + leadingField + "` IS NOT MISSING LIMIT $limit";
+        QueryOptions options = QueryOptions.queryOptions()
+                .parameters(JsonObject.create().put("limit", batchSize))
+                // Documents removed by the previous batch must not be returned again
+                .scanConsistency(QueryScanConsistency.REQUEST_PLUS);
+        Mono<Long> batch = template.getCouchbaseClientFactory().getCluster().reactive()
+                .query(statement, options)
+                .flatMapMany(result -> result.rowsAs(String.class))
+                .flatMap(id -> copy(source, collection(template, target), id)
+                        .flatMap(content -> Flux.fromIterable(companions.apply(id, JsonObject.fromJson(content)).entrySet())
+                                .flatMap(companion -> copy(source, collection(template, companion.getValue()), companion.getKey()))
+                                .then(Mono.just(1L))), concurrency)
+                .count();
+        // A batch that moved nothing means the rest vanished under us; stop rather than scan forever
+        return batch.expand(moved -> moved == 0 ? Mono.empty() : batch)
+                .reduce(0L, Long::sum);
+    }
+
+    static Map<String, String> none(String id, JsonObject content) {
+        return Map.of();
+    }
+
+    /**
+     * A user's lookup documents and item index, which are keyed by its name, address and id.
+     */
+    static Map<String, String> userCompanions(String userId, JsonObject user) {
+        Map<String, String> keys = new HashMap<>();
+        keys.put(ItemIndex.idFor(userId), ItemIndex.COLLECTION);
+        if (user.getString("username") != null) {
+            keys.put(UserLookups.USERNAME_PREFIX + user.getString("username"), UserLookups.COLLECTION);
+        }
+        if (user.getString("email") != null) {
+            keys.put(UserLookups.EMAIL_PREFIX + user.getString("email"), UserLookups.COLLECTION);
+        }
+        return keys;
+    }
+
+    /**
+     * Copies the document to the target collection and removes it from the source. Emits its content,
+     * or completes empty if it no longer exists.
+     */
+    private static Mono<byte[]> copy(ReactiveCollection source, ReactiveCollection target, String id) {
+        return source.get(id, GetOptions.getOptions().withExpiry(true).transcoder(RawJsonTranscoder.INSTANCE))
+                .flatMap(result -> {
+                    UpsertOptions options = UpsertOptions.upsertOptions().transcoder(RawJsonTranscoder.INSTANCE);
+                    result.expiryTime().ifPresent(options::expiry);
+                    byte[] content = result.contentAsBytes();
+                    // Upsert, so a rerun after the source changed copies the newer version
+                    return target.upsert(id, content, options)
+                            .then(source.remove(id, RemoveOptions.removeOptions().cas(result.cas())))
+                            .thenReturn(content);
+                })
+                .onErrorResume(DocumentNotFoundException.class, e -> Mono.empty());
+    }
+
+    private static ReactiveCollection collection(ReactiveCouchbaseTemplate template, String name) {
+        return template.getCollection(name).reactive();
+    }
+}
@@ -0,0 +1,9 @@
+package com.oakbal.todoapp.backend.repository;
+
+import com.oakbal.todoapp.backend.model.Item;
+import org.springframework.data.couchbase.repository.ReactiveCouchbaseRepository;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveItemRepository extends ReactiveCouchbaseRepository<Item, String>, ReactiveItemRepositoryCustom {
+    Flux<Item> findItemByUserId(String userId);
+}
@@ -0,0 +1,60 @@
+package com.oakbal.todoapp.backend.repository;
+
+import com.oakbal.todoapp.backend.model.Item;
+import com.oakbal.todoapp.backend.model.ItemBatchOperation;
+import com.oakbal.todoapp.backend.model.ItemBatchResult;
+import com.oakbal.todoapp.backend.model.ItemChangeToken;
+import com.oakbal.todoapp.backend.model.ItemCursor;
+import com.oakbal.todoapp.backend.model.ItemIndex;
+import com.oakbal.todoapp.backend.model.ItemPatch;
+import com.oakbal.todoapp.backend.model.ItemQuery;
+import com.oakbal.todoapp.backend.model.ItemSummary;
+import com.oakbal.todoapp.backend.model.ItemTombstone;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ReactiveItemRepositoryCustom {
+    Flux<Item> findItemPage(String userId, ItemQuery query, ItemCursor after, int limit);
+
+    Flux<ItemSummary> findItemSummaryPage(String userId, ItemQuery query, ItemCursor after, int limit);
+
+    Flux<Item> streamItemsByUserId(String userId);
+
+    /**
+     * All of the user's items in listing order, waiting for the query index to catch up with every
+     * write made so far.
+     */
+    Flux<Item> findCurrentItemsByUserId(String userId);
+
+    Flux<Item> findItemChanges(String userId, ItemChangeToken since, LocalDateTime until, int limit);
+
+    Flux<ItemTombstone> findItemTombstones(String userId, ItemChangeToken since, LocalDateTime until, int limit);
+
+    Mono<Long> findVersionById(String id);
+
+    Mono<Item> upsertItem(Item item);
+
+    Mono<String> findOwnerById(String id);
+
+    Mono<String> deleteItem(String id, Long cas);
+
+    Flux<ItemBatchResult> executeBatch(List<ItemBatchOperation> operations, int concurrency);
+
+    Mono<Long> patchItem(String id, ItemPatch patch, LocalDateTime updatedAt, Long cas);
+
+    Mono<ItemIndex> findItemIndex(String userId);
+
+    Mono<Void> indexItems(String userId, Collection<ItemSummary> summaries);
+
+    Mono<Void> patchItemIndex(String userId, String id, ItemPatch patch, LocalDateTime updatedAt);
+
+    Mono<Void> unindexItems(String userId, Collection<String> ids);
+
+    Mono<ItemIndex> createItemIndex(ItemIndex index);
+
+    Mono<ItemIndex> replaceItemIndex(ItemIndex index);
+}
@@ -0,0 +1,138 @@
+package com.oakbal.todoapp.backend.repository;
+
+import com.couchbase.client.java.kv.ExistsResult;
+import com.couchbase.client.java.query.QueryScanConsistency;
+import com.couchbase.client.java.kv.MutateInResult;
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import com.oakbal.todoapp.backend.model.Item;
+import com.oakbal.todoapp.backend.model.ItemBatchOperation;
+import com.oakbal.todoapp.backend.model.ItemBatchResult;
+import com.oakbal.todoapp.backend.model.ItemChangeToken;
+import com.oakbal.todoapp.backend.model.ItemCursor;
+import com.oakbal.todoapp.backend.model.ItemIndex;
+import com.oakbal.todoapp.backend.model.ItemPatch;
+import com.oakbal.todoapp.backend.model.ItemQuery;
+import com.oakbal.todoapp.backend.model.ItemSummary;
+import com.oakbal.todoapp.backend.model.ItemTombstone;
+import org.springframework.data.couchbase.core.ReactiveCouchbaseTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public class ReactiveItemRepositoryCustomImpl implements ReactiveItemRepositoryCustom {
+    private final ReactiveCouchbaseTemplate reactiveCouchbaseTemplate;
+    private final Duration tombstoneTtl;
+    private final int batchConcurrency;
+
+    public ReactiveItemRepositoryCustomImpl(ReactiveCouchbaseTemplate reactiveCouchbaseTemplate, TodoProperties properties) {
+        this.reactiveCouchbaseTemplate = reactiveCouchbaseTemplate;
+        this.tombstoneTtl = properties.getItems().getChanges().getTombstoneTtl();
+        this.batchConcurrency = properties.getItems().getBatchConcurrency();
+    }
+
+    @Override
+    public Flux<Item> findItemPage(String userId, ItemQuery query, ItemCursor after, int limit) {
+        return reactiveCouchbaseTemplate.findByQuery(Item.class).matching(ItemQueries.page(userId, query, after, limit)).all();
+    }
+
+    @Override
+    public Flux<ItemSummary> findItemSummaryPage(String userId, ItemQuery query, ItemCursor after, int limit) {
+        return reactiveCouchbaseTemplate.findByQuery(Item.class)
+                .project(ItemQueries.SUMMARY_FIELDS)
+                .as(ItemSummary.class)
+                .matching(ItemQueries.page(userId, query, after, limit))
+                .all();
+    }
+
+    @Override
+    public Flux<Item> streamItemsByUserId(String userId) {
+        return reactiveCouchbaseTemplate.findByQuery(Item.class).matching(ItemQueries.allByUser(userId)).all();
+    }
+
+    @Override
+    public Flux<Item> findCurrentItemsByUserId(String userId) {
+        return reactiveCouchbaseTemplate.findByQuery(Item.class)
+                .withConsistency(QueryScanConsistency.REQUEST_PLUS)
+                .matching(ItemQueries.allByUser(userId))
+                .all();
+    }
+
+    @Override
+    public Flux<Item> findItemChanges(String userId, ItemChangeToken since, LocalDateTime until, int limit) {
+        return reactiveCouchbaseTemplate.findByQuery(Item.class).matching(ItemQueries.changes(userId, since, until, limit)).all();
+    }
+
+    @Override
+    public Flux<ItemTombstone> findItemTombstones(String userId, ItemChangeToken since, LocalDateTime until, int limit) {
+        return reactiveCouchbaseTemplate.findByQuery(ItemTombstone.class).matching(ItemQueries.tombstones(userId, since, until, limit)).all();
+    }
+
+    @Override
+    public Mono<Long> findVersionById(String id) {
+        return reactiveCouchbaseTemplate.getCollection(Item.COLLECTION).reactive().exists(id)
+                .filter(ExistsResult::exists)
+                .map(ExistsResult::cas);
+    }
+
+    @Override
+    public Mono<Item> upsertItem(Item item) {
+        return reactiveCouchbaseTemplate.upsertById(Item.class).one(item);
+    }
+
+    @Override
+    public Mono<String> findOwnerById(String id) {
+        return ItemMutations.owner(reactiveCouchbaseTemplate, id);
+    }
+
+    @Override
+    public Mono<String> deleteItem(String id, Long cas) {
+        return ItemMutations.delete(reactiveCouchbaseTemplate, id, cas, tombstoneTtl);
+    }
+
+    @Override
+    public Flux<ItemBatchResult> executeBatch(List<ItemBatchOperation> operations, int concurrency) {
+        return ItemBatches.execute(reactiveCouchbaseTemplate, operations, concurrency, tombstoneTtl);
+    }
+
+    @Override
+    public Mono<Long> patchItem(String id, ItemPatch patch, LocalDateTime updatedAt, Long cas) {
+        return reactiveCouchbaseTemplate.getCollection(Item.COLLECTION).reactive()
+                .mutateIn(id, ItemMutations.patchSpecs(reactiveCouchbaseTemplate.getConverter(), patch, updatedAt), ItemMutations.options(cas))
+                .map(MutateInResult::cas)
+                .onErrorMap(RuntimeException.class, e -> ItemMutations.translate(id, e));
+    }
+
+    @Override
+    public Mono<ItemIndex> findItemIndex(String userId) {
+        return ItemIndexes.find(reactiveCouchbaseTemplate, userId);
+    }
+
+    @Override
+    public Mono<Void> indexItems(String userId, Collection<ItemSummary> summaries) {
+        return ItemIndexes.put(reactiveCouchbaseTemplate, userId, summaries);
+    }
+
+    @Override
+    public Mono<Void> patchItemIndex(String userId, String id, ItemPatch patch, LocalDateTime updatedAt) {
+        return ItemIndexes.patch(reactiveCouchbaseTemplate, userId, id, patch, updatedAt);
+    }
+
+    @Override
+    public Mono<Void> unindexItems(String userId, Collection<String> ids) {
+        return ItemIndexes.remove(reactiveCouchbaseTemplate, userId, ids, batchConcurrency);
+    }
+
+    @Override
+    public Mono<ItemIndex> createItemIndex(ItemIndex index) {
+        return ItemIndexes.create(reactiveCouchbaseTemplate, index);
+    }
+
+    @Override
+    public Mono<ItemIndex> replaceItemIndex(ItemIndex index) {
+        return ItemIndexes.replace(reactiveCouchbaseTemplate, index);
+    }
+}
@@ -0,0 +1,7 @@
+package com.oakbal.todoapp.backend.repository;
+
+import com.oakbal.todoapp.backend.model.User;
+import org.springframework.data.couchbase.repository.ReactiveCouchbaseRepository;
+
+public interface ReactiveUserRepository extends ReactiveCouchbaseRepository<User, String>, ReactiveUserRepositoryCustom {
+}
@@ -0,0 +1,15 @@
+package com.oakbal.todoapp.backend.repository;
+
+import com.oakbal.todoapp.backend.model.User;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveUserRepositoryCustom {
+    Mono<User> findUserByUsername(String username);
+
+    /**
+     * Errors with {@link UserAlreadyExistsException} if the username or email is taken.
+     */
+    Mono<Void> reserveUser(User user);
+
+    Mono<User> insertUser(User user);
+}
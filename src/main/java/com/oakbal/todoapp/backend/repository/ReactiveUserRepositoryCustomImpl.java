@@ -0,0 +1,32 @@
+package com.oakbal.todoapp.backend.repository;
+
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import com.oakbal.todoapp.backend.model.User;
+import org.springframework.data.couchbase.core.ReactiveCouchbaseTemplate;
+import reactor.core.publisher.Mono;
+
+
+public class ReactiveUserRepositoryCustomImpl implements ReactiveUserRepositoryCustom {
+    private final ReactiveCouchbaseTemplate reactiveCouchbaseTemplate;
+    private final TodoProperties.Users config;
+
+    public ReactiveUserRepositoryCustomImpl(ReactiveCouchbaseTemplate reactiveCouchbaseTemplate, TodoProperties properties) {
+        this.reactiveCouchbaseTemplate = reactiveCouchbaseTemplate;
+        this.config = properties.getUsers();
+    }
+
+    @Override
+    public Mono<User> findUserByUsername(String username) {
+        return UserLookups.findByUsername(reactiveCouchbaseTemplate, username, config);
+    }
+
+    @Override
+    public Mono<Void> reserveUser(User user) {
+        return UserLookups.reserve(reactiveCouchbaseTemplate, user, config);
+    }
+
+    @Override
+    public Mono<User> insertUser(User user) {
+        return UserLookups.insert(reactiveCouchbaseTemplate, user);
+    }
+}
@@ -0,0 +1,30 @@
+package com.oakbal.todoapp.backend.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+
+/**
+ * Registration conflict on a unique user field. {@link #getField()} is {@code username} or {@code email}.
+ */
+public class UserAlreadyExistsException extends DuplicateKeyException {
+    public static final String USERNAME = "username";
+    public static final String EMAIL = "email";
+
+    private final String field;
+
+    private UserAlreadyExistsException(String field, String message, Throwable cause) {
+        super(message, cause);
+        this.field = field;
+    }
+
+    public static UserAlreadyExistsException username(Throwable cause) {
+        return new UserAlreadyExistsException(USERNAME, "Username already exists", cause);
+    }
+
+    public static UserAlreadyExistsException email(Throwable cause) {
+        return new UserAlreadyExistsException(EMAIL, "Email already exists", cause);
+    }
+
+    public String getField() {
+        return field;
+    }
+}
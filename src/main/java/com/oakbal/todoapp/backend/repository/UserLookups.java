@@ -0,0 +1,188 @@
+package com.oakbal.todoapp.backend.repository;
+
+import com.couchbase.client.core.error.DocumentExistsException;
+import com.couchbase.client.core.error.DocumentNotFoundException;
+import com.couchbase.client.java.ReactiveCollection;
+import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.kv.InsertOptions;
+import com.couchbase.client.java.query.QueryOptions;
+import com.couchbase.client.java.query.QueryScanConsistency;
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import com.oakbal.todoapp.backend.model.Item;
+import com.oakbal.todoapp.backend.model.ItemIndex;
+import com.oakbal.todoapp.backend.model.ItemTombstone;
+import com.oakbal.todoapp.backend.model.User;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.couchbase.core.ReactiveCouchbaseTemplate;
+import org.springframework.data.couchbase.core.query.Query;
+import org.springframework.data.couchbase.core.query.QueryCriteria;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * {@code username::<name>} and {@code email::<addr>} lookup documents shared by the blocking and reactive
+ * repositories. Each holds the id of the user that owns the name or address, so uniqueness is an
+ * insert-or-fail on the key and a username resolves through key-value gets instead of an index scan.
+ * Under {@link TodoProperties.Users.KeyScheme#USERNAME} the user itself is stored under
+ * {@code user::<name>} and found with a single get.
+ */
+final class UserLookups {
+    static final String COLLECTION = "user_lookups";
+    static final String USERNAME_PREFIX = "username::";
+    static final String EMAIL_PREFIX = "email::";
+    private static final String USER_PREFIX = "user::";
+    private static final String TYPE = "UserLookup";
+
+    private UserLookups() {
+    }
+
+    /**
+     * Resolves the user by its username key, then through its username lookup document; with
+     * {@code queryFallback} users without one are found by a N1QL query on {@code username}.
+     */
+    static Mono<User> findByUsername(ReactiveCouchbaseTemplate template, String username, TodoProperties.Users config) {
+        Mono<User> byLookup = collection(template).get(USERNAME_PREFIX + username)
+                .mapNotNull(result -> result.contentAsObject().getString("userId"))
+                .onErrorResume(DocumentNotFoundException.class, e -> Mono.empty())
+                .flatMap(id -> template.findById(User.class).one(id))
+                // A reservation whose registration has not completed points at a user that does not exist yet
+                .filter(user -> username.equals(user.getUsername()));
+        if (config.getKeyScheme() == TodoProperties.Users.KeyScheme.USERNAME) {
+            // Users registered under the other scheme, or not migrated yet, still resolve through the lookup
+            byLookup = template.findById(User.class).one(USER_PREFIX + username)
+                    .filter(user -> username.equals(user.getUsername()))
+                    .switchIfEmpty(byLookup);
+        }
+        if (!config.isQueryFallback()) {
+            return byLookup;
+        }
+        return byLookup.switchIfEmpty(Mono.defer(() -> template.findByQuery(User.class)
+                .matching(new Query(QueryCriteria.where("username").is(username)).limit(1))
+                .first()));
+    }
+
+    /**
+     * Assigns the user's id and reserves its username and email, failing with
+     * {@link UserAlreadyExistsException} if either is taken. Reservations expire after {@code timeout}
+     * unless {@link #insert} confirms them, so an abandoned registration does not hold the names forever.
+     */
+    static Mono<Void> reserve(ReactiveCouchbaseTemplate template, User user, TodoProperties.Users config) {
+        ReactiveCollection collection = collection(template);
+        // Assigned up front so the lookups can point at the user before its document exists. An id sent by
+        // the client is never kept, or registering could take over another user's key
+        user.setId(config.getKeyScheme() == TodoProperties.Users.KeyScheme.USERNAME
+                ? USER_PREFIX + user.getUsername()
+                : UUID.randomUUID().toString());
+        JsonObject lookup = lookup(user.getId());
+        InsertOptions options = InsertOptions.insertOptions().expiry(config.getReservationTimeout());
+        Mono<Void> reservations = collection.insert(USERNAME_PREFIX + user.getUsername(), lookup, options)
+                .onErrorMap(DocumentExistsException.class, UserAlreadyExistsException::username)
+                .then(user.getEmail() == null
+                        ? Mono.empty()
+                        : collection.insert(EMAIL_PREFIX + user.getEmail(), lookup, options)
+                                .onErrorMap(DocumentExistsException.class, UserAlreadyExistsException::email)
+                                .then()
+                                .onErrorResume(e -> release(collection, USERNAME_PREFIX + user.getUsername()).then(Mono.error(e))));
+        if (!config.isQueryFallback()) {
+            return reservations;
+        }
+        // Users registered before lookup documents existed are only visible to the query service; a single
+        // query covers both fields
+        QueryCriteria criteria = QueryCriteria.where("username").is(user.getUsername());
+        if (user.getEmail() != null) {
+            criteria = criteria.or("email").is(user.getEmail());
+        }
+        return template.findByQuery(User.class)
+                .matching(new Query(criteria).limit(1))
+                .first()
+                .flatMap(existing -> Mono.<Void>error(user.getUsername().equals(existing.getUsername())
+                        ? UserAlreadyExistsException.username(null)
+                        : UserAlreadyExistsException.email(null)))
+                .then(reservations);
+    }
+
+    /**
+     * Writes the user reserved by {@link #reserve} and makes its lookups permanent. If either step fails
+     * the user and its reservations are removed again.
+     */
+    static Mono<User> insert(ReactiveCouchbaseTemplate template, User user) {
+        ReactiveCollection collection = collection(template);
+        String usernameKey = USERNAME_PREFIX + user.getUsername();
+        String emailKey = EMAIL_PREFIX + user.getEmail();
+        // Touching with a zero expiry clears the reservation's expiry
+        Mono<Void> confirm = collection.touch(usernameKey, Duration.ZERO)
+                .then(user.getEmail() == null ? Mono.empty() : collection.touch(emailKey, Duration.ZERO).then());
+        Mono<Void> release = release(collection, usernameKey)
+                .then(user.getEmail() == null ? Mono.empty() : release(collection, emailKey));
+        return template.insertById(User.class).one(user)
+                .flatMap(saved -> confirm.thenReturn(saved)
+                        .onErrorResume(e -> users(template).remove(saved.getId())
+                                .onErrorResume(removeError -> Mono.empty())
+                                .then(Mono.error(e))))
+                .onErrorResume(e -> release.then(Mono.error(e)));
+    }
+
+    /**
+     * Moves a user to its {@code user::<name>} key: writes the copy, re-points the lookups, reassigns the
+     * user's items and tombstones, drops its item index, then removes the old document. Every step is
+     * repeatable, so an interrupted run can simply be started again. Completes empty if a different user
+     * already holds the key.
+     */
+    static Mono<User> rekey(ReactiveCouchbaseTemplate template, User user) {
+        String oldId = user.getId();
+        String newId = USER_PREFIX + user.getUsername();
+        if (newId.equals(oldId)) {
+            return Mono.just(user);
+        }
+        ReactiveCollection collection = collection(template);
+        User moved = User.copyOf(user, newId);
+        JsonObject lookup = lookup(newId);
+        Mono<User> written = template.insertById(User.class).one(moved)
+                .onErrorResume(DuplicateKeyException.class, e -> template.findById(User.class).one(newId)
+                        // Left behind by an interrupted run for this same user
+                        .filter(existing -> User.sameAccount(existing, user)));
+        return written
+                .flatMap(saved -> collection.upsert(USERNAME_PREFIX + user.getUsername(), lookup)
+                        .then(user.getEmail() == null ? Mono.empty() : collection.upsert(EMAIL_PREFIX + user.getEmail(), lookup))
+                        .then(reassign(template, Item.class, Item.COLLECTION, oldId, newId))
+                        .then(reassign(template, ItemTombstone.class, ItemTombstone.COLLECTION, oldId, newId))
+                        // The index is keyed by the old id; the first listing under the new one rebuilds it
+                        .then(template.getCollection(ItemIndex.COLLECTION).reactive().remove(ItemIndex.idFor(oldId))
+                                .onErrorResume(DocumentNotFoundException.class, e -> Mono.empty()))
+                        .then(users(template).remove(oldId)
+                                .onErrorResume(DocumentNotFoundException.class, e -> Mono.empty()))
+                        .thenReturn(saved));
+    }
+
+    private static Mono<Void> reassign(ReactiveCouchbaseTemplate template, Class<?> entity, String collection, String oldId, String newId) {
+        String statement = "UPDATE " + Keyspaces.of(template, collection) + " SET userId = $newId WHERE `_class` = $class AND userId = $oldId";
+        return template.getCouchbaseClientFactory().getCluster().reactive()
+                .query(statement, QueryOptions.queryOptions()
+                        .parameters(JsonObject.create().put("newId", newId).put("class", entity.getName()).put("oldId", oldId))
+                        // Items written just before the migration must be moved too
+                        .scanConsistency(QueryScanConsistency.REQUEST_PLUS))
+                .flatMap(result -> result.metaData())
+                .then();
+    }
+
+    private static JsonObject lookup(String userId) {
+        return JsonObject.create().put("userId", userId).put("type", TYPE);
+    }
+
+    private static Mono<Void> release(ReactiveCollection collection, String key) {
+        // Best effort; a reservation left behind still expires on its own
+        return collection.remove(key)
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    private static ReactiveCollection collection(ReactiveCouchbaseTemplate template) {
+        return template.getCollection(COLLECTION).reactive();
+    }
+
+    private static ReactiveCollection users(ReactiveCouchbaseTemplate template) {
+        return template.getCollection(User.COLLECTION).reactive();
+    }
+}
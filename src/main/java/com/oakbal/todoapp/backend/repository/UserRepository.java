@@ -1,12 +1,10 @@
 package com.oakbal.todoapp.backend.repository;
 
 import com.oakbal.todoapp.backend.model.User;
-import org.springframework.data.couchbase.repository.CouchbaseRepository;
+import org.springframework.data.repository.ListCrudRepository;
 
-import java.util.Optional;
-
-public interface UserRepository extends CouchbaseRepository<User, String> {
-    Optional<User> findUserByUsername(String username);
-
-    Optional<User> findUserByEmail(String email);
+/**
+ * Blocking user repository, limited to the CRUD operations like {@link ItemRepository}.
+ */
+public interface UserRepository extends ListCrudRepository<User, String>, UserRepositoryCustom {
 }
@@ -0,0 +1,39 @@
+package com.oakbal.todoapp.backend.repository;
+
+import com.oakbal.todoapp.backend.model.User;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+    /**
+     * Key-value lookup by the {@code user::} key or through the {@code username::} document rather than
+     * an index scan.
+     */
+    Optional<User> findUserByUsername(String username);
+
+    /**
+     * Assigns the user's id and reserves its username and email until {@link #insertUser} completes the
+     * registration or the reservation times out.
+     *
+     * @throws UserAlreadyExistsException if the username or email is taken
+     */
+    void reserveUser(User user);
+
+    /**
+     * Inserts a user previously passed to {@link #reserveUser}, releasing its reservations on failure.
+     */
+    User insertUser(User user);
+
+    /**
+     * Moves a user to its {@code user::<username>} key together with its lookups, items and tombstones.
+     * Returns the user as stored under the new key (unchanged if it already was), or empty when a
+     * different user holds that key.
+     */
+    Optional<User> rekeyUser(User user);
+
+    /**
+     * Moves users stored in the bucket's default collection, with their lookups and item indexes, into
+     * their collections. Returns the number of users moved.
+     */
+    long moveLegacyUsers(int batchSize, int concurrency);
+}
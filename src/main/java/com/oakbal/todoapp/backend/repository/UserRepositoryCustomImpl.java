@@ -0,0 +1,43 @@
+package com.oakbal.todoapp.backend.repository;
+
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import com.oakbal.todoapp.backend.model.User;
+import org.springframework.data.couchbase.core.CouchbaseTemplate;
+
+import java.util.Optional;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+    private final CouchbaseTemplate couchbaseTemplate;
+    private final TodoProperties.Users config;
+
+    public UserRepositoryCustomImpl(CouchbaseTemplate couchbaseTemplate, TodoProperties properties) {
+        this.couchbaseTemplate = couchbaseTemplate;
+        this.config = properties.getUsers();
+    }
+
+    @Override
+    public Optional<User> findUserByUsername(String username) {
+        return UserLookups.findByUsername(couchbaseTemplate.reactive(), username, config).blockOptional();
+    }
+
+    @Override
+    public void reserveUser(User user) {
+        UserLookups.reserve(couchbaseTemplate.reactive(), user, config).block();
+    }
+
+    @Override
+    public User insertUser(User user) {
+        return UserLookups.insert(couchbaseTemplate.reactive(), user).block();
+    }
+
+    @Override
+    public Optional<User> rekeyUser(User user) {
+        return UserLookups.rekey(couchbaseTemplate.reactive(), user).blockOptional();
+    }
+
+    @Override
+    public long moveLegacyUsers(int batchSize, int concurrency) {
+        return LegacyDocuments.move(couchbaseTemplate.reactive(), User.class, "username", User.COLLECTION,
+                batchSize, concurrency, LegacyDocuments::userCompanions).block();
+    }
+}
@@ -0,0 +1,394 @@
+package com.oakbal.todoapp.backend.repository.embedded;
+
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import com.oakbal.todoapp.backend.model.Item;
+import com.oakbal.todoapp.backend.model.ItemBatchOperation;
+import com.oakbal.todoapp.backend.model.ItemBatchResult;
+import com.oakbal.todoapp.backend.model.ItemChangeToken;
+import com.oakbal.todoapp.backend.model.ItemCursor;
+import com.oakbal.todoapp.backend.model.ItemIndex;
+import com.oakbal.todoapp.backend.model.ItemPatch;
+import com.oakbal.todoapp.backend.model.ItemQuery;
+import com.oakbal.todoapp.backend.model.ItemSummary;
+import com.oakbal.todoapp.backend.model.ItemTombstone;
+import com.oakbal.todoapp.backend.repository.ItemRepository;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * {@link ItemRepository} on the {@link EmbeddedStore}. Each user's items are also held in memory as
+ * summaries in listing order, which answers the page, summary and change queries without touching
+ * the log; only the items on the page are then read by id. The summaries double as the user's
+ * {@link ItemIndex}, which is therefore always current and needs no maintenance.
+ */
+public class EmbeddedItemRepository extends EmbeddedRepository<Item> implements ItemRepository {
+    private static final Comparator<ItemCursor> LISTING_ORDER = Comparator
+            .comparing(ItemCursor::createdAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(ItemCursor::id);
+    private static final Comparator<ItemChangeToken> CHANGE_ORDER = Comparator
+            .comparing(ItemChangeToken::changedAt)
+            .thenComparing(ItemChangeToken::id);
+
+    private final Duration tombstoneTtl;
+    // Updated under writes alongside the store
+    private final Map<String, NavigableMap<ItemCursor, ItemSummary>> listings = new ConcurrentHashMap<>();
+    private final Map<String, Position> positions = new ConcurrentHashMap<>();
+    private final Map<String, NavigableMap<ItemChangeToken, ItemTombstone>> tombstones = new ConcurrentHashMap<>();
+
+    public EmbeddedItemRepository(EmbeddedStore store, TodoProperties properties) {
+        super(store, Item.class, Item.COLLECTION);
+        this.tombstoneTtl = properties.getItems().getChanges().getTombstoneTtl();
+        store.forEach(Item.COLLECTION, (id, document) -> stored(decode(document)));
+        store.forEach(ItemTombstone.COLLECTION, (id, document) -> track(decode(document.content(), ItemTombstone.class)));
+    }
+
+    @Override
+    String idOf(Item item) {
+        return item.getId();
+    }
+
+    @Override
+    void setId(Item item, String id) {
+        item.setId(id);
+    }
+
+    @Override
+    long versionOf(Item item) {
+        return item.getVersion();
+    }
+
+    @Override
+    void setVersion(Item item, long version) {
+        item.setVersion(version);
+    }
+
+    @Override
+    void stored(Item item) {
+        removed(item.getId());
+        ItemCursor cursor = ItemCursor.after(item);
+        positions.put(item.getId(), new Position(item.getUserId(), cursor));
+        if (item.getUserId() != null) {
+            listings.computeIfAbsent(item.getUserId(), userId -> new ConcurrentSkipListMap<>(LISTING_ORDER))
+                    .put(cursor, ItemSummary.of(item));
+        }
+    }
+
+    @Override
+    void removed(String id) {
+        Position position = positions.remove(id);
+        if (position != null && position.userId() != null) {
+            NavigableMap<ItemCursor, ItemSummary> listing = listings.get(position.userId());
+            listing.remove(position.cursor());
+            if (listing.isEmpty()) {
+                listings.remove(position.userId());
+            }
+        }
+    }
+
+    private void track(ItemTombstone tombstone) {
+        NavigableMap<ItemChangeToken, ItemTombstone> deleted = tombstones
+                .computeIfAbsent(tombstone.getUserId(), userId -> new ConcurrentSkipListMap<>(CHANGE_ORDER));
+        deleted.put(ItemChangeToken.after(tombstone), tombstone);
+        // Tombstones past their retention have expired from the store; drop them here as well
+        LocalDateTime retained = LocalDateTime.now().minus(tombstoneTtl);
+        deleted.headMap(new ItemChangeToken(retained, ""), false).clear();
+    }
+
+    private NavigableMap<ItemCursor, ItemSummary> listing(String userId) {
+        return listings.getOrDefault(userId, new ConcurrentSkipListMap<>(LISTING_ORDER));
+    }
+
+    private Stream<Item> load(Stream<String> ids) {
+        // An item removed since its summary was read is skipped
+        return ids.map(this::findById).flatMap(Optional::stream);
+    }
+
+    @Override
+    public List<Item> findItemByUserId(String userId) {
+        return load(listing(userId).values().stream().map(ItemSummary::getId)).toList();
+    }
+
+    @Override
+    public List<Item> findItemPage(String userId, ItemQuery query, ItemCursor after, int limit) {
+        return load(page(userId, query, after, limit).map(ItemSummary::getId)).toList();
+    }
+
+    @Override
+    public List<ItemSummary> findItemSummaryPage(String userId, ItemQuery query, ItemCursor after, int limit) {
+        return page(userId, query, after, limit).map(EmbeddedItemRepository::copy).toList();
+    }
+
+    private Stream<ItemSummary> page(String userId, ItemQuery query, ItemCursor after, int limit) {
+        NavigableMap<ItemCursor, ItemSummary> listing = listing(userId);
+        return (after == null ? listing : listing.tailMap(after, false)).values().stream()
+                .filter(summary -> matches(summary, query))
+                .limit(limit);
+    }
+
+    private static boolean matches(ItemSummary summary, ItemQuery query) {
+        String titlePrefix = query.getTitlePrefix();
+        return (query.getCompleted() == null || summary.isCompleted() == query.getCompleted())
+                && inRange(summary.getCreatedAt(), query.getCreatedFrom(), query.getCreatedTo())
+                && inRange(summary.getUpdatedAt(), query.getUpdatedFrom(), query.getUpdatedTo())
+                && (titlePrefix == null || titlePrefix.isEmpty() || (summary.getTitle() != null && summary.getTitle().startsWith(titlePrefix)));
+    }
+
+    private static boolean inRange(LocalDateTime value, LocalDateTime from, LocalDateTime to) {
+        if (from == null && to == null) {
+            return true;
+        }
+        // A missing value fails any bound, as it does in N1QL
+        return value != null && (from == null || !value.isBefore(from)) && (to == null || value.isBefore(to));
+    }
+
+    @Override
+    public Stream<Item> streamItemsByUserId(String userId) {
+        return load(listing(userId).values().stream().map(ItemSummary::getId));
+    }
+
+    @Override
+    public List<Item> findCurrentItemsByUserId(String userId) {
+        // There is no index to wait for
+        return findItemByUserId(userId);
+    }
+
+    @Override
+    public List<Item> findItemChanges(String userId, ItemChangeToken since, LocalDateTime until, int limit) {
+        return load(listing(userId).values().stream()
+                .filter(summary -> summary.getUpdatedAt() != null && summary.getUpdatedAt().isBefore(until))
+                .map(summary -> new ItemChangeToken(summary.getUpdatedAt(), summary.getId()))
+                .filter(token -> since == null || CHANGE_ORDER.compare(token, since) > 0)
+                .sorted(CHANGE_ORDER)
+                .limit(limit)
+                .map(ItemChangeToken::id))
+                .toList();
+    }
+
+    @Override
+    public List<ItemTombstone> findItemTombstones(String userId, ItemChangeToken since, LocalDateTime until, int limit) {
+        return tombstones.getOrDefault(userId, new ConcurrentSkipListMap<>(CHANGE_ORDER)).tailMap(since, false).values().stream()
+                .takeWhile(tombstone -> tombstone.getDeletedAt().isBefore(until))
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public Optional<Long> findVersionById(String id) {
+        return store.version(Item.COLLECTION, id);
+    }
+
+    @Override
+    public Item upsertItem(Item item) {
+        writes.lock();
+        try {
+            if (item.getId() == null) {
+                item.setId(UUID.randomUUID().toString());
+            }
+            item.setVersion(store.upsert(Item.COLLECTION, item.getId(), encode(item), null));
+            stored(item);
+            return item;
+        } finally {
+            writes.unlock();
+        }
+    }
+
+    @Override
+    public Optional<String> findOwnerById(String id) {
+        return Optional.ofNullable(positions.get(id)).map(Position::userId);
+    }
+
+    @Override
+    public Optional<String> deleteItem(String id, Long cas) {
+        writes.lock();
+        try {
+            Position position = positions.get(id);
+            if (position == null || !store.remove(Item.COLLECTION, id, cas == null ? 0 : cas)) {
+                throw new DataRetrievalFailureException("Item not found " + id);
+            }
+            removed(id);
+            if (position.userId() == null) {
+                return Optional.empty();
+            }
+            ItemTombstone tombstone = new ItemTombstone(id, position.userId(), LocalDateTime.now());
+            store.upsert(ItemTombstone.COLLECTION, tombstone.getId(), encode(tombstone), tombstoneTtl);
+            track(tombstone);
+            return Optional.of(position.userId());
+        } finally {
+            writes.unlock();
+        }
+    }
+
+    @Override
+    public List<ItemBatchResult> executeBatch(List<ItemBatchOperation> operations, int concurrency) {
+        // Local writes gain nothing from being pipelined, so the operations simply run in order
+        List<ItemBatchResult> results = new ArrayList<>(operations.size());
+        for (int index = 0; index < operations.size(); index++) {
+            results.add(execute(index, operations.get(index)));
+        }
+        return results;
+    }
+
+    private ItemBatchResult execute(int index, ItemBatchOperation operation) {
+        try {
+            return switch (operation.getOp()) {
+                case CREATE -> ItemBatchResult.success(index, 201, insert(operation.getItem()));
+                case UPDATE -> {
+                    requireOwner(operation);
+                    yield ItemBatchResult.success(index, 200, replace(operation.getItem()));
+                }
+                case DELETE -> {
+                    requireOwner(operation);
+                    deleteItem(operation.getId(), null);
+                    yield ItemBatchResult.deleted(index, operation.getId());
+                }
+            };
+        } catch (RuntimeException e) {
+            return ItemBatchResult.failure(index, operation.getId(), statusOf(e), e.getMessage());
+        }
+    }
+
+    // Items of other users look the same as missing ones
+    private void requireOwner(ItemBatchOperation operation) {
+        if (findOwnerById(operation.getId()).filter(owner -> owner.equals(operation.getUserId())).isEmpty()) {
+            throw new DataRetrievalFailureException("Item not found " + operation.getId());
+        }
+    }
+
+    private Item insert(Item item) {
+        writes.lock();
+        try {
+            if (item.getId() == null) {
+                item.setId(UUID.randomUUID().toString());
+            }
+            item.setVersion(store.insert(Item.COLLECTION, item.getId(), encode(item), null));
+            stored(item);
+            return item;
+        } finally {
+            writes.unlock();
+        }
+    }
+
+    private Item replace(Item item) {
+        writes.lock();
+        try {
+            item.setVersion(store.replace(Item.COLLECTION, item.getId(), encode(item), item.getVersion()));
+            stored(item);
+            return item;
+        } finally {
+            writes.unlock();
+        }
+    }
+
+    private static int statusOf(RuntimeException e) {
+        if (e instanceof DataRetrievalFailureException) {
+            return 404;
+        }
+        if (e instanceof DuplicateKeyException) {
+            return 409;
+        }
+        if (e instanceof OptimisticLockingFailureException) {
+            return 412;
+        }
+        return 500;
+    }
+
+    @Override
+    public long patchItem(String id, ItemPatch patch, LocalDateTime updatedAt, Long cas) {
+        writes.lock();
+        try {
+            Item item = findById(id).orElseThrow(() -> new DataRetrievalFailureException("Item not found " + id));
+            if (cas != null && cas != item.getVersion()) {
+                throw new OptimisticLockingFailureException("Item " + id + " was modified concurrently");
+            }
+            patch.applyTo(item);
+            item.setUpdatedAt(updatedAt);
+            item.setVersion(store.replace(Item.COLLECTION, id, encode(item), item.getVersion()));
+            stored(item);
+            return item.getVersion();
+        } finally {
+            writes.unlock();
+        }
+    }
+
+    @Override
+    public Optional<ItemIndex> findItemIndex(String userId) {
+        return Optional.of(new ItemIndex(userId, listing(userId).values().stream().map(EmbeddedItemRepository::copy).toList()));
+    }
+
+    @Override
+    public void indexItems(String userId, Collection<ItemSummary> summaries) {
+        // The listing is updated with every item write
+    }
+
+    @Override
+    public void patchItemIndex(String userId, String id, ItemPatch patch, LocalDateTime updatedAt) {
+    }
+
+    @Override
+    public void unindexItems(String userId, Collection<String> ids) {
+    }
+
+    @Override
+    public ItemIndex createItemIndex(ItemIndex index) {
+        return index;
+    }
+
+    @Override
+    public ItemIndex replaceItemIndex(ItemIndex index) {
+        return index;
+    }
+
+    @Override
+    public long moveLegacyItems(int batchSize, int concurrency) {
+        // Collections are separate from the start here
+        return 0;
+    }
+
+    /**
+     * Moves the user's items and tombstones to {@code newUserId}, for a user whose id changes.
+     */
+    void reassign(String oldUserId, String newUserId) {
+        writes.lock();
+        try {
+            for (ItemSummary summary : List.copyOf(listing(oldUserId).values())) {
+                findById(summary.getId()).ifPresent(item -> {
+                    item.setUserId(newUserId);
+                    item.setVersion(store.upsert(Item.COLLECTION, item.getId(), encode(item), null));
+                    stored(item);
+                });
+            }
+            NavigableMap<ItemChangeToken, ItemTombstone> deleted = tombstones.remove(oldUserId);
+            if (deleted != null) {
+                for (ItemTombstone tombstone : deleted.values()) {
+                    ItemTombstone moved = new ItemTombstone(tombstone.getItemId(), newUserId, tombstone.getDeletedAt());
+                    store.upsert(ItemTombstone.COLLECTION, moved.getId(), encode(moved), tombstoneTtl);
+                    track(moved);
+                }
+            }
+        } finally {
+            writes.unlock();
+        }
+    }
+
+    private static ItemSummary copy(ItemSummary summary) {
+        return new ItemSummary(summary.getId(), summary.getTitle(), summary.isCompleted(), summary.getCreatedAt(), summary.getUpdatedAt());
+    }
+
+    private record Position(String userId, ItemCursor cursor) {
+    }
+}
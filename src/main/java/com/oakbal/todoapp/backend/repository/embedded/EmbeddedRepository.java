@@ -0,0 +1,172 @@
+package com.oakbal.todoapp.backend.repository.embedded;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.data.repository.ListCrudRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Spring Data operations on one collection of the {@link EmbeddedStore}, with entities stored as JSON
+ * and the entity's version taken from the store. Writes and the subclass's in-memory indexes are
+ * updated together under {@link #writes}; reads take no lock.
+ */
+abstract class EmbeddedRepository<T> implements ListCrudRepository<T, String> {
+    // Dates stay in Jackson's numeric array form: the log is private to the store, and parsing ISO-8601
+    // text dominated the cost of decoding an item
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    final EmbeddedStore store;
+    final ReentrantLock writes = new ReentrantLock();
+    private final Class<T> type;
+    private final String collection;
+
+    EmbeddedRepository(EmbeddedStore store, Class<T> type, String collection) {
+        this.store = store;
+        this.type = type;
+        this.collection = collection;
+    }
+
+    abstract String idOf(T entity);
+
+    abstract void setId(T entity, String id);
+
+    abstract long versionOf(T entity);
+
+    abstract void setVersion(T entity, long version);
+
+    /**
+     * Called under {@link #writes} after the entity was written.
+     */
+    abstract void stored(T entity);
+
+    /**
+     * Called under {@link #writes} after the entity with this id was removed.
+     */
+    abstract void removed(String id);
+
+    /**
+     * Inserts an entity at version 0 and otherwise replaces it if still at its version, like
+     * {@code save} on the Couchbase repositories.
+     */
+    @Override
+    public <S extends T> S save(S entity) {
+        writes.lock();
+        try {
+            if (idOf(entity) == null) {
+                setId(entity, UUID.randomUUID().toString());
+            }
+            long version = versionOf(entity) == 0
+                    ? store.insert(collection, idOf(entity), encode(entity), null)
+                    : store.replace(collection, idOf(entity), encode(entity), versionOf(entity));
+            setVersion(entity, version);
+            stored(entity);
+            return entity;
+        } finally {
+            writes.unlock();
+        }
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(entity -> saved.add(save(entity)));
+        return saved;
+    }
+
+    @Override
+    public Optional<T> findById(String id) {
+        return store.get(collection, id).map(this::decode);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return store.version(collection, id).isPresent();
+    }
+
+    @Override
+    public List<T> findAll() {
+        List<T> all = new ArrayList<>();
+        store.forEach(collection, (id, document) -> all.add(decode(document)));
+        return all;
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<String> ids) {
+        List<T> found = new ArrayList<>();
+        ids.forEach(id -> findById(id).ifPresent(found::add));
+        return found;
+    }
+
+    @Override
+    public long count() {
+        return store.count(collection);
+    }
+
+    @Override
+    public void deleteById(String id) {
+        writes.lock();
+        try {
+            if (store.remove(collection, id, 0)) {
+                removed(id);
+            }
+        } finally {
+            writes.unlock();
+        }
+    }
+
+    @Override
+    public void delete(T entity) {
+        deleteById(idOf(entity));
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends String> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        List<String> ids = new ArrayList<>();
+        store.forEach(collection, (id, document) -> ids.add(id));
+        ids.forEach(this::deleteById);
+    }
+
+    T decode(EmbeddedStore.Document document) {
+        T entity = decode(document.content(), type);
+        setVersion(entity, document.version());
+        return entity;
+    }
+
+    static byte[] encode(Object entity) {
+        try {
+            return MAPPER.writeValueAsBytes(entity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static <U> U decode(byte[] content, Class<U> type) {
+        try {
+            return MAPPER.readValue(content, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
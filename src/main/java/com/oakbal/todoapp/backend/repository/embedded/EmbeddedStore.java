@@ -0,0 +1,538 @@
+package com.oakbal.todoapp.backend.repository.embedded;
+
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Embedded document store behind the {@code embedded} profile, for deployments without a Couchbase
+ * cluster. Documents are appended to a log of memory-mapped {@link Segment} files and located through
+ * an in-memory hash index per collection, so a read is a map lookup and a copy out of the page cache.
+ * <p>
+ * Every write takes the next value of a store-wide sequence as the document's version, which is used
+ * like a Couchbase CAS. On startup the segments are replayed in order to rebuild the index; a record
+ * torn by a crash fails its checksum and ends the replay. Compaction copies the live records of all
+ * sealed segments to the end of the log, then deletes those segments oldest first, so an interrupted
+ * compaction loses nothing and never brings back a deleted document.
+ */
+@Slf4j
+public class EmbeddedStore implements MeterBinder, Closeable {
+    private static final String LOCK_FILE = "store.lock";
+    // Record: int body length | int CRC32C of the body | body
+    // Body:   byte op | long version | long expiresAt | short collection length | collection | short id length | id | content
+    private static final int HEADER_SIZE = 8;
+    private static final int FIXED_BODY_SIZE = 1 + 8 + 8 + 2 + 2;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean syncEveryWrite;
+    private final double compactionThreshold;
+    private final Clock clock;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+
+    private final Map<String, Map<String, Entry>> collections = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock compactionLock = new ReentrantLock();
+    private final AtomicLong compactions = new AtomicLong();
+    // Oldest first; guarded by writeLock like the version sequence
+    private final List<Segment> sealed = new ArrayList<>();
+    private volatile Segment active;
+    private long lastVersion;
+    private volatile boolean closed;
+
+    private final ScheduledExecutorService scheduler;
+
+    public EmbeddedStore(TodoProperties.Embedded config) throws IOException {
+        this(config, Clock.systemUTC());
+    }
+
+    EmbeddedStore(TodoProperties.Embedded config, Clock clock) throws IOException {
+        long size = config.getSegmentSize().toBytes();
+        if (size < 1024 || size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("todo.embedded.segment-size must be between 1KB and 2GB");
+        }
+        this.directory = Path.of(config.getDirectory());
+        this.segmentSize = (int) size;
+        this.syncEveryWrite = config.getSyncInterval().isZero();
+        this.compactionThreshold = config.getCompactionThreshold();
+        this.clock = clock;
+
+        Files.createDirectories(directory);
+        this.lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), CREATE, WRITE);
+        this.lock = tryLock(lockChannel);
+        if (lock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Embedded store " + directory.toAbsolutePath() + " is already open");
+        }
+        recover();
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("embedded-store").daemon().factory());
+        if (!syncEveryWrite) {
+            long interval = config.getSyncInterval().toMillis();
+            scheduler.scheduleWithFixedDelay(this::syncSafely, interval, interval, TimeUnit.MILLISECONDS);
+        }
+        if (config.getCompactionInterval().isPositive()) {
+            long interval = config.getCompactionInterval().toMillis();
+            scheduler.scheduleWithFixedDelay(this::compactSafely, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            return null;
+        }
+    }
+
+    public Optional<Document> get(String collection, String id) {
+        Entry entry = live(collection, id);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new Document(entry.segment.read(entry.contentOffset, entry.contentLength), entry.version));
+    }
+
+    /**
+     * Version of the document, read without copying its content.
+     */
+    public Optional<Long> version(String collection, String id) {
+        Entry entry = live(collection, id);
+        return entry == null ? Optional.empty() : Optional.of(entry.version);
+    }
+
+    /**
+     * Visits every live document of the collection; documents written meanwhile may or may not be seen.
+     */
+    public void forEach(String collection, BiConsumer<String, Document> action) {
+        collections.getOrDefault(collection, Map.of()).forEach((id, entry) -> {
+            if (!expired(entry)) {
+                action.accept(id, new Document(entry.segment.read(entry.contentOffset, entry.contentLength), entry.version));
+            }
+        });
+    }
+
+    public int count(String collection) {
+        return collections.getOrDefault(collection, Map.of()).size();
+    }
+
+    /**
+     * Writes a new document, failing with {@link DuplicateKeyException} if the id is taken. A
+     * {@code null} or zero {@code expiry} keeps the document until it is removed.
+     */
+    public long insert(String collection, String id, byte[] content, Duration expiry) {
+        writeLock.lock();
+        try {
+            if (live(collection, id) != null) {
+                throw new DuplicateKeyException("Document " + collection + "/" + id + " already exists");
+            }
+            return put(collection, id, content, expiry);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public long upsert(String collection, String id, byte[] content, Duration expiry) {
+        writeLock.lock();
+        try {
+            return put(collection, id, content, expiry);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Overwrites an existing document. A non-zero {@code cas} makes the write conditional on the
+     * document still being at that version.
+     *
+     * @throws DataRetrievalFailureException if the document does not exist
+     * @throws OptimisticLockingFailureException if it has a different version
+     */
+    public long replace(String collection, String id, byte[] content, long cas) {
+        writeLock.lock();
+        try {
+            Entry current = live(collection, id);
+            if (current == null) {
+                throw new DataRetrievalFailureException("Document " + collection + "/" + id + " not found");
+            }
+            checkCas(collection, id, current, cas);
+            return put(collection, id, content, null);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the document, returning {@code false} if it did not exist. A non-zero {@code cas} makes
+     * the removal conditional like {@link #replace}.
+     */
+    public boolean remove(String collection, String id, long cas) {
+        writeLock.lock();
+        try {
+            Entry current = live(collection, id);
+            if (current == null) {
+                return false;
+            }
+            checkCas(collection, id, current, cas);
+            Entry entry = append(DELETE, collection, id, ++lastVersion, 0, new byte[0]);
+            apply(DELETE, collection, id, entry);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static void checkCas(String collection, String id, Entry current, long cas) {
+        if (cas != 0 && cas != current.version) {
+            throw new OptimisticLockingFailureException("Document " + collection + "/" + id + " was modified concurrently");
+        }
+    }
+
+    private long put(String collection, String id, byte[] content, Duration expiry) {
+        long expiresAt = expiry == null || expiry.isZero() ? 0 : clock.millis() + expiry.toMillis();
+        Entry entry = append(PUT, collection, id, ++lastVersion, expiresAt, content);
+        apply(PUT, collection, id, entry);
+        return entry.version;
+    }
+
+    private Entry live(String collection, String id) {
+        Entry entry = collections.getOrDefault(collection, Map.of()).get(id);
+        return entry == null || expired(entry) ? null : entry;
+    }
+
+    private boolean expired(Entry entry) {
+        return entry.expiresAt != 0 && entry.expiresAt <= clock.millis();
+    }
+
+    private Entry append(byte op, String collection, String id, long version, long expiresAt, byte[] content) {
+        byte[] collectionBytes = collection.getBytes(StandardCharsets.UTF_8);
+        byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+        if (collectionBytes.length > 0xFFFF || idBytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Document id is too long");
+        }
+        int bodyLength = FIXED_BODY_SIZE + collectionBytes.length + idBytes.length + content.length;
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + bodyLength)
+                .putInt(bodyLength)
+                .putInt(0)
+                .put(op)
+                .putLong(version)
+                .putLong(expiresAt)
+                .putShort((short) collectionBytes.length)
+                .put(collectionBytes)
+                .putShort((short) idBytes.length)
+                .put(idBytes)
+                .put(content);
+        CRC32C crc = new CRC32C();
+        crc.update(record.array(), HEADER_SIZE, bodyLength);
+        record.putInt(4, (int) crc.getValue());
+        return write(record.array(), version, expiresAt, content.length);
+    }
+
+    private Entry write(byte[] record, long version, long expiresAt, int contentLength) {
+        ensureOpen();
+        if (record.length > segmentSize) {
+            throw new IllegalArgumentException("Document of " + record.length + " bytes does not fit in a segment");
+        }
+        if (record.length > active.remaining()) {
+            roll();
+        }
+        Segment segment = active;
+        int offset = segment.append(record);
+        if (syncEveryWrite) {
+            segment.force(offset, record.length);
+        }
+        return new Entry(segment, offset, record.length, offset + record.length - contentLength, contentLength, version, expiresAt);
+    }
+
+    private void roll() {
+        // Only the active segment can hold a torn record after a crash, so a segment is complete on disk before it is sealed
+        Segment full = active;
+        full.force();
+        try {
+            active = Segment.create(directory, full.id + 1, segmentSize);
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not create a segment in " + directory, e);
+        }
+        sealed.add(full);
+    }
+
+    private void apply(byte op, String collection, String id, Entry entry) {
+        Map<String, Entry> documents = collections.computeIfAbsent(collection, name -> new ConcurrentHashMap<>());
+        boolean live = op == PUT && !expired(entry);
+        Entry previous = live ? documents.put(id, entry) : documents.remove(id);
+        if (previous != null) {
+            previous.segment.liveBytes -= previous.length;
+        }
+        if (live) {
+            entry.segment.liveBytes += entry.length;
+        }
+        lastVersion = Math.max(lastVersion, entry.version);
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            // Zero-padded ids, so name order is log order
+            files = listing.filter(Segment::isSegment).sorted().toList();
+        }
+        for (Path file : files) {
+            Segment segment = Segment.open(file);
+            replay(segment);
+            sealed.add(segment);
+        }
+        if (sealed.isEmpty()) {
+            active = Segment.create(directory, 1, segmentSize);
+        } else {
+            active = sealed.remove(sealed.size() - 1);
+            active.clearTail();
+        }
+        log.info("Embedded store opened at {}: {} documents in {} segments", directory.toAbsolutePath(),
+                collections.values().stream().mapToInt(Map::size).sum(), sealed.size() + 1);
+    }
+
+    private void replay(Segment segment) {
+        int offset = 0;
+        while (segment.capacity() - offset >= HEADER_SIZE + FIXED_BODY_SIZE) {
+            int bodyLength = segment.getInt(offset);
+            if (bodyLength < FIXED_BODY_SIZE || bodyLength > segment.capacity() - offset - HEADER_SIZE) {
+                // Zero where the log ends, anything else where a crash cut a record short
+                break;
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(segment.read(offset + HEADER_SIZE, bodyLength));
+            if ((int) crc.getValue() != segment.getInt(offset + 4)) {
+                log.warn("Embedded store segment {} has a damaged record at offset {}; ignoring the rest of it", segment.path, offset);
+                break;
+            }
+            int body = offset + HEADER_SIZE;
+            byte op = segment.get(body);
+            long version = segment.getLong(body + 1);
+            long expiresAt = segment.getLong(body + 9);
+            int collectionLength = Short.toUnsignedInt(segment.getShort(body + 17));
+            String collection = new String(segment.read(body + 19, collectionLength), StandardCharsets.UTF_8);
+            int idLength = Short.toUnsignedInt(segment.getShort(body + 19 + collectionLength));
+            String id = new String(segment.read(body + 21 + collectionLength, idLength), StandardCharsets.UTF_8);
+            int contentLength = bodyLength - FIXED_BODY_SIZE - collectionLength - idLength;
+            int length = HEADER_SIZE + bodyLength;
+            apply(op, collection, id, new Entry(segment, offset, length, offset + length - contentLength, contentLength, version, expiresAt));
+            offset += length;
+        }
+        segment.position = offset;
+    }
+
+    /**
+     * Share of the sealed segments' bytes held by overwritten, removed or expired records.
+     */
+    public double garbageRatio() {
+        writeLock.lock();
+        try {
+            long total = 0;
+            long live = 0;
+            for (Segment segment : sealed) {
+                total += segment.position;
+                live += segment.liveBytes;
+            }
+            return total == 0 ? 0 : (double) (total - live) / total;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Rewrites all sealed segments, keeping only their live records, and returns the number of bytes
+     * reclaimed. Reads and writes carry on meanwhile.
+     */
+    public long compact() {
+        compactionLock.lock();
+        try {
+            List<Segment> compacted;
+            writeLock.lock();
+            try {
+                ensureOpen();
+                compacted = List.copyOf(sealed);
+            } finally {
+                writeLock.unlock();
+            }
+            if (compacted.isEmpty()) {
+                return 0;
+            }
+            Set<Segment> sources = Collections.newSetFromMap(new IdentityHashMap<>());
+            sources.addAll(compacted);
+            long copied = 0;
+            for (Map.Entry<String, Map<String, Entry>> collection : collections.entrySet()) {
+                for (Map.Entry<String, Entry> document : collection.getValue().entrySet()) {
+                    if (sources.contains(document.getValue().segment)) {
+                        copied += relocate(collection.getValue(), document.getKey(), document.getValue());
+                    }
+                }
+            }
+            writeLock.lock();
+            try {
+                ensureOpen();
+                // The copies must be on disk before the originals go
+                active.force();
+                sealed.removeAll(compacted);
+            } finally {
+                writeLock.unlock();
+            }
+            long size = 0;
+            for (Segment segment : compacted) {
+                size += segment.position;
+                // Oldest first: a removal record is only dropped after every segment that may hold the removed document
+                segment.delete();
+            }
+            compactions.incrementAndGet();
+            log.info("Embedded store compacted {} segments, reclaiming {} bytes", compacted.size(), size - copied);
+            return size - copied;
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not delete a compacted segment in " + directory, e);
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    private int relocate(Map<String, Entry> documents, String id, Entry entry) {
+        writeLock.lock();
+        try {
+            if (documents.get(id) != entry) {
+                // Overwritten or removed since the scan started
+                return 0;
+            }
+            if (expired(entry)) {
+                documents.remove(id);
+                entry.segment.liveBytes -= entry.length;
+                return 0;
+            }
+            Entry moved = write(entry.segment.read(entry.offset, entry.length), entry.version, entry.expiresAt, entry.contentLength);
+            documents.put(id, moved);
+            entry.segment.liveBytes -= entry.length;
+            moved.segment.liveBytes += moved.length;
+            return moved.length;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void compactSafely() {
+        try {
+            if (garbageRatio() >= compactionThreshold) {
+                compact();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Embedded store compaction failed", e);
+        }
+    }
+
+    private void syncSafely() {
+        try {
+            active.force();
+        } catch (RuntimeException e) {
+            log.warn("Embedded store sync failed", e);
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Embedded store is closed");
+        }
+    }
+
+    private long logSize() {
+        writeLock.lock();
+        try {
+            return sealed.stream().mapToLong(segment -> segment.position).sum() + active.position;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todo.embedded.documents", collections, documents -> documents.values().stream().mapToInt(Map::size).sum())
+                .description("Live documents in the embedded store")
+                .register(registry);
+        Gauge.builder("todo.embedded.log.size", this, EmbeddedStore::logSize)
+                .description("Bytes written to the embedded store's log segments")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("todo.embedded.garbage.ratio", this, EmbeddedStore::garbageRatio)
+                .description("Share of the sealed segments that compaction would reclaim")
+                .register(registry);
+        FunctionCounter.builder("todo.embedded.compactions", compactions, AtomicLong::get)
+                .description("Compactions of the embedded store's log")
+                .register(registry);
+    }
+
+    /**
+     * Stops background work and forces the log to disk. Waits for a running compaction to finish.
+     */
+    @Override
+    public void close() throws IOException {
+        scheduler.shutdown();
+        compactionLock.lock();
+        writeLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            active.force();
+            for (Segment segment : sealed) {
+                segment.close();
+            }
+            active.close();
+            lock.release();
+            lockChannel.close();
+        } finally {
+            writeLock.unlock();
+            compactionLock.unlock();
+        }
+    }
+
+    public record Document(byte[] content, long version) {
+    }
+
+    private record Entry(Segment segment, int offset, int length, int contentOffset, int contentLength, long version, long expiresAt) {
+    }
+}
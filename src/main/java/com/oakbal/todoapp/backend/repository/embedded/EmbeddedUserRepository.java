@@ -0,0 +1,184 @@
+package com.oakbal.todoapp.backend.repository.embedded;
+
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import com.oakbal.todoapp.backend.model.User;
+import com.oakbal.todoapp.backend.repository.UserAlreadyExistsException;
+import com.oakbal.todoapp.backend.repository.UserRepository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link UserRepository} on the {@link EmbeddedStore}. Usernames and emails resolve through an
+ * in-memory map rebuilt from the users at startup, keyed like the Couchbase lookup documents, so a
+ * login is one map lookup and one read. Pending registrations reserve their names in the same map
+ * until they are inserted or the reservation times out; reservations are not persisted.
+ */
+public class EmbeddedUserRepository extends EmbeddedRepository<User> implements UserRepository {
+    private static final String USERNAME_PREFIX = "username::";
+    private static final String EMAIL_PREFIX = "email::";
+    private static final String USER_PREFIX = "user::";
+
+    private final EmbeddedItemRepository itemRepository;
+    private final TodoProperties.Users config;
+    // Updated under writes alongside the store
+    private final Map<String, Lookup> lookups = new ConcurrentHashMap<>();
+    private final Map<String, List<String>> lookupKeys = new ConcurrentHashMap<>();
+
+    public EmbeddedUserRepository(EmbeddedStore store, EmbeddedItemRepository itemRepository, TodoProperties properties) {
+        super(store, User.class, User.COLLECTION);
+        this.itemRepository = itemRepository;
+        this.config = properties.getUsers();
+        store.forEach(User.COLLECTION, (id, document) -> stored(decode(document)));
+    }
+
+    @Override
+    String idOf(User user) {
+        return user.getId();
+    }
+
+    @Override
+    void setId(User user, String id) {
+        user.setId(id);
+    }
+
+    @Override
+    long versionOf(User user) {
+        return user.getVersion();
+    }
+
+    @Override
+    void setVersion(User user, long version) {
+        user.setVersion(version);
+    }
+
+    @Override
+    void stored(User user) {
+        removed(user.getId());
+        List<String> keys = keysOf(user);
+        keys.forEach(key -> lookups.put(key, new Lookup(user.getId(), null)));
+        lookupKeys.put(user.getId(), keys);
+    }
+
+    @Override
+    void removed(String id) {
+        List<String> keys = lookupKeys.remove(id);
+        if (keys != null) {
+            // A key may already point at the user's new id or another user
+            keys.forEach(key -> lookups.computeIfPresent(key, (k, lookup) -> lookup.userId().equals(id) ? null : lookup));
+        }
+    }
+
+    private static List<String> keysOf(User user) {
+        List<String> keys = new ArrayList<>();
+        if (user.getUsername() != null) {
+            keys.add(USERNAME_PREFIX + user.getUsername());
+        }
+        if (user.getEmail() != null) {
+            keys.add(EMAIL_PREFIX + user.getEmail());
+        }
+        return keys;
+    }
+
+    @Override
+    public Optional<User> findUserByUsername(String username) {
+        Lookup lookup = lookups.get(USERNAME_PREFIX + username);
+        if (lookup == null || lookup.expiresAt() != null) {
+            // A reservation points at a user that does not exist yet
+            return Optional.empty();
+        }
+        return findById(lookup.userId()).filter(user -> username.equals(user.getUsername()));
+    }
+
+    @Override
+    public void reserveUser(User user) {
+        writes.lock();
+        try {
+            Instant now = Instant.now();
+            if (taken(USERNAME_PREFIX + user.getUsername(), now)) {
+                throw UserAlreadyExistsException.username(null);
+            }
+            if (user.getEmail() != null && taken(EMAIL_PREFIX + user.getEmail(), now)) {
+                throw UserAlreadyExistsException.email(null);
+            }
+            // Never the id sent by the client, which could be another user's key
+            user.setId(config.getKeyScheme() == TodoProperties.Users.KeyScheme.USERNAME
+                    ? USER_PREFIX + user.getUsername()
+                    : UUID.randomUUID().toString());
+            Lookup reservation = new Lookup(user.getId(), now.plus(config.getReservationTimeout()));
+            keysOf(user).forEach(key -> lookups.put(key, reservation));
+        } finally {
+            writes.unlock();
+        }
+    }
+
+    private boolean taken(String key, Instant now) {
+        Lookup lookup = lookups.get(key);
+        return lookup != null && (lookup.expiresAt() == null || lookup.expiresAt().isAfter(now));
+    }
+
+    @Override
+    public User insertUser(User user) {
+        writes.lock();
+        try {
+            long version;
+            try {
+                version = store.insert(User.COLLECTION, user.getId(), encode(user), null);
+            } catch (RuntimeException e) {
+                keysOf(user).forEach(key -> lookups.computeIfPresent(key,
+                        (k, lookup) -> lookup.expiresAt() != null && lookup.userId().equals(user.getId()) ? null : lookup));
+                throw e;
+            }
+            user.setVersion(version);
+            // Makes the reservations permanent
+            stored(user);
+            return user;
+        } finally {
+            writes.unlock();
+        }
+    }
+
+    @Override
+    public Optional<User> rekeyUser(User user) {
+        String oldId = user.getId();
+        String newId = USER_PREFIX + user.getUsername();
+        if (newId.equals(oldId)) {
+            return Optional.of(user);
+        }
+        writes.lock();
+        try {
+            User moved = findById(newId).orElse(null);
+            if (moved == null) {
+                moved = User.copyOf(user, newId);
+                moved.setVersion(store.insert(User.COLLECTION, newId, encode(moved), null));
+            } else if (!User.sameAccount(moved, user)) {
+                return Optional.empty();
+            }
+            stored(moved);
+            itemRepository.reassign(oldId, newId);
+            if (store.remove(User.COLLECTION, oldId, 0)) {
+                removed(oldId);
+            }
+            return Optional.of(moved);
+        } finally {
+            writes.unlock();
+        }
+    }
+
+    @Override
+    public long moveLegacyUsers(int batchSize, int concurrency) {
+        // Collections are separate from the start here
+        return 0;
+    }
+
+    /**
+     * Owner of a username or email; {@code expiresAt} is set while it is only reserved.
+     */
+    private record Lookup(String userId, Instant expiresAt) {
+    }
+}
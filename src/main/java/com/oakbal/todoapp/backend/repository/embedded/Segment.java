@@ -0,0 +1,137 @@
+package com.oakbal.todoapp.backend.repository.embedded;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * One memory-mapped file of the {@link EmbeddedStore} log. The file is created at its full size, so
+ * the unwritten remainder reads as zeros. Records are written at {@link #position} and read at
+ * absolute offsets, which lets readers share the buffer without coordination.
+ */
+final class Segment {
+    private static final String SUFFIX = ".log";
+
+    final long id;
+    final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    // Guarded by the store's write lock
+    int position;
+    long liveBytes;
+
+    private Segment(long id, Path path, FileChannel channel) throws IOException {
+        this.id = id;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+    }
+
+    static Segment create(Path directory, long id, int size) throws IOException {
+        Path path = directory.resolve(String.format("%016d%s", id, SUFFIX));
+        FileChannel channel = FileChannel.open(path, CREATE_NEW, READ, WRITE);
+        try {
+            // Sizes the file without writing it out; the untouched pages stay sparse until used
+            channel.write(ByteBuffer.allocate(1), size - 1);
+            return new Segment(id, path, channel);
+        } catch (IOException e) {
+            channel.close();
+            Files.deleteIfExists(path);
+            throw e;
+        }
+    }
+
+    static Segment open(Path path) throws IOException {
+        String name = path.getFileName().toString();
+        long id = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+        return new Segment(id, path, FileChannel.open(path, READ, WRITE));
+    }
+
+    static boolean isSegment(Path path) {
+        return path.getFileName().toString().matches("\\d{16}" + SUFFIX);
+    }
+
+    int capacity() {
+        return buffer.capacity();
+    }
+
+    int remaining() {
+        return buffer.capacity() - position;
+    }
+
+    byte get(int offset) {
+        return buffer.get(offset);
+    }
+
+    short getShort(int offset) {
+        return buffer.getShort(offset);
+    }
+
+    int getInt(int offset) {
+        return buffer.getInt(offset);
+    }
+
+    long getLong(int offset) {
+        return buffer.getLong(offset);
+    }
+
+    byte[] read(int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return bytes;
+    }
+
+    /**
+     * Appends the record at {@link #position} and returns the offset it was written at.
+     */
+    int append(byte[] record) {
+        int offset = position;
+        buffer.put(offset, record);
+        position += record.length;
+        return offset;
+    }
+
+    /**
+     * Zeroes anything after {@link #position}. A crash can leave part of a record there, or a later
+     * record whose page reached the disk before an earlier one; once new records are appended in
+     * front of it, such leftovers must not be mistaken for data.
+     */
+    void clearTail() {
+        boolean dirty = false;
+        for (int offset = position; offset < buffer.capacity(); offset++) {
+            if (buffer.get(offset) != 0) {
+                buffer.put(offset, (byte) 0);
+                dirty = true;
+            }
+        }
+        if (dirty) {
+            force();
+        }
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void force(int offset, int length) {
+        buffer.force(offset, length);
+    }
+
+    void close() throws IOException {
+        // The mapping stays valid for readers still holding entries in this segment until it is collected
+        channel.close();
+    }
+
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+    }
+}
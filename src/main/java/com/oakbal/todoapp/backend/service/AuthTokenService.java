@@ -0,0 +1,98 @@
+package com.oakbal.todoapp.backend.service;
+
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Issues and verifies short-lived HMAC-SHA256 signed bearer tokens of the form
+ * {@code base64url(username).expiryEpochSeconds.base64url(signature)}.
+ */
+@Service
+@Timed("todo.auth.token")
+public class AuthTokenService {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Clock clock;
+
+    @Autowired
+    public AuthTokenService(TodoProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    AuthTokenService(TodoProperties properties, Clock clock) {
+        TodoProperties.AuthToken config = properties.getAuthToken();
+        this.key = new SecretKeySpec(secretBytes(config.getSecret()), ALGORITHM);
+        this.ttl = config.getTtl();
+        this.clock = clock;
+    }
+
+    public AuthToken issueToken(String username) {
+        Instant expiresAt = clock.instant().plus(ttl);
+        String payload = ENCODER.encodeToString(username.getBytes(StandardCharsets.UTF_8)) + "." + expiresAt.getEpochSecond();
+        return new AuthToken(payload + "." + ENCODER.encodeToString(sign(payload)), expiresAt);
+    }
+
+    public Optional<String> verifyToken(String token) {
+        int signatureStart = token.lastIndexOf('.');
+        int expiryStart = token.lastIndexOf('.', signatureStart - 1);
+        if (expiryStart <= 0) {
+            return Optional.empty();
+        }
+        try {
+            String payload = token.substring(0, signatureStart);
+            byte[] signature = DECODER.decode(token.substring(signatureStart + 1));
+            if (!MessageDigest.isEqual(sign(payload), signature)) {
+                return Optional.empty();
+            }
+            long expiresAt = Long.parseLong(token.substring(expiryStart + 1, signatureStart));
+            if (clock.instant().getEpochSecond() >= expiresAt) {
+                return Optional.empty();
+            }
+            return Optional.of(new String(DECODER.decode(token.substring(0, expiryStart)), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to sign auth token", e);
+        }
+    }
+
+    private static byte[] secretBytes(String secret) {
+        if (StringUtils.hasText(secret)) {
+            return secret.getBytes(StandardCharsets.UTF_8);
+        }
+        // Without a configured secret, tokens are only valid on this instance until restart
+        byte[] random = new byte[32];
+        new SecureRandom().nextBytes(random);
+        return random;
+    }
+
+    public record AuthToken(String token, Instant expiresAt) {
+    }
+}
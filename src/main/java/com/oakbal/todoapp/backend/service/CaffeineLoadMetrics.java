@@ -0,0 +1,35 @@
+package com.oakbal.todoapp.backend.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CaffeineCacheMetrics} for the async caches that load on the calling thread. They put the
+ * pending future through {@code asMap()}, which Caffeine records as a load once it completes, but
+ * Micrometer only reports loads of loading caches; the same {@code cache.load} meters are added here.
+ */
+final class CaffeineLoadMetrics {
+    private CaffeineLoadMetrics() {
+    }
+
+    static void monitor(MeterRegistry registry, AsyncCache<?, ?> cache, String cacheName) {
+        CaffeineCacheMetrics.monitor(registry, cache, cacheName);
+        FunctionCounter.builder("cache.load", cache, c -> c.synchronous().stats().loadSuccessCount())
+                .tags("cache", cacheName, "result", "success")
+                .description("The number of times the cache has successfully loaded a new value")
+                .register(registry);
+        FunctionCounter.builder("cache.load", cache, c -> c.synchronous().stats().loadFailureCount())
+                .tags("cache", cacheName, "result", "failure")
+                .description("The number of times the cache found no value or failed while loading one")
+                .register(registry);
+        TimeGauge.builder("cache.load.duration", cache, TimeUnit.NANOSECONDS, c -> c.synchronous().stats().totalLoadTime())
+                .tags("cache", cacheName)
+                .description("The time the cache has spent loading new values")
+                .register(registry);
+    }
+}
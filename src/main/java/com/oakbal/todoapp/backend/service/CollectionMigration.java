@@ -0,0 +1,56 @@
+package com.oakbal.todoapp.backend.service;
+
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import com.oakbal.todoapp.backend.repository.ItemRepository;
+import com.oakbal.todoapp.backend.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-off startup job that moves users, items and their companion documents from the bucket's default
+ * collection into the collections of the configured scope. Enabled with {@code todo.collections.migrate=true}.
+ * <p>
+ * Runs before the other startup jobs, which only see the new collections. Other instances should be
+ * stopped while it runs; an interrupted run can be started again.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "todo.collections", name = "migrate", havingValue = "true")
+public class CollectionMigration implements ApplicationRunner {
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final TodoProperties.Collections config;
+
+    @Autowired
+    public CollectionMigration(UserRepository userRepository, ItemRepository itemRepository, TodoProperties properties) {
+        this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.config = properties.getCollections();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        migrate();
+    }
+
+    public Result migrate() {
+        if (config.getMigrationBatchSize() < 1 || config.getMigrationConcurrency() < 1) {
+            throw new IllegalStateException("todo.collections migration batch size and concurrency must be at least 1");
+        }
+        long users = userRepository.moveLegacyUsers(config.getMigrationBatchSize(), config.getMigrationConcurrency());
+        long items = itemRepository.moveLegacyItems(config.getMigrationBatchSize(), config.getMigrationConcurrency());
+        Result result = new Result(users, items);
+        log.info("Collection migration finished: {} users and {} items and tombstones moved", result.users(), result.items());
+        return result;
+    }
+
+    public record Result(long users, long items) {
+    }
+}
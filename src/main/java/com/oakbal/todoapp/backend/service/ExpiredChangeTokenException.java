@@ -0,0 +1,11 @@
+package com.oakbal.todoapp.backend.service;
+
+/**
+ * The change token predates the tombstone retention window, so deletions since then may be lost and
+ * the client has to resynchronise from a full listing.
+ */
+public class ExpiredChangeTokenException extends RuntimeException {
+    public ExpiredChangeTokenException(String message) {
+        super(message);
+    }
+}
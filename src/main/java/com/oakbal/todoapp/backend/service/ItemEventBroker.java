@@ -0,0 +1,28 @@
+package com.oakbal.todoapp.backend.service;
+
+import com.oakbal.todoapp.backend.model.ItemEvent;
+import reactor.core.publisher.Flux;
+
+/**
+ * Fans item changes out to the owner's open streams. The default {@link LocalItemEventBroker} only
+ * reaches subscribers connected to this instance; a multi-node deployment can set
+ * {@code todo.items.events.broker} to another value and register an implementation backed by a
+ * message broker instead.
+ */
+public interface ItemEventBroker {
+    /**
+     * Delivers the event without blocking the caller; subscribers that cannot keep up are dropped.
+     */
+    void publish(ItemEvent event);
+
+    /**
+     * Events for {@code userId} from the moment of subscription. Fails with
+     * {@link SubscriberLimitExceededException} when the broker is at capacity.
+     */
+    Flux<ItemEvent> subscribe(String userId);
+
+    /**
+     * Whether publishing can reach anyone, so callers can skip work that only serves subscribers.
+     */
+    boolean hasSubscribers();
+}
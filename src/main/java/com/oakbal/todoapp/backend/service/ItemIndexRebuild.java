@@ -0,0 +1,53 @@
+package com.oakbal.todoapp.backend.service;
+
+import com.oakbal.todoapp.backend.model.User;
+import com.oakbal.todoapp.backend.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Startup job that rebuilds every user's item index from their items, to build the indexes when the
+ * mode is first enabled or to repair them after they have drifted. Enabled with
+ * {@code todo.items.index.rebuild-on-startup=true}.
+ * <p>
+ * A write that reaches a user's index while it is being rebuilt makes that rebuild start over, so the
+ * write is not lost; entries of deleted items are dropped whenever a listing meets them.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "todo.items.index", name = "rebuild-on-startup", havingValue = "true")
+public class ItemIndexRebuild implements ApplicationRunner {
+    private final UserRepository userRepository;
+    private final ItemService itemService;
+
+    @Autowired
+    public ItemIndexRebuild(UserRepository userRepository, ItemService itemService) {
+        this.userRepository = userRepository;
+        this.itemService = itemService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rebuildAll();
+    }
+
+    public int rebuildAll() {
+        int rebuilt = 0;
+        int failed = 0;
+        for (User user : userRepository.findAll()) {
+            try {
+                itemService.rebuildItemIndex(user.getId());
+                rebuilt++;
+            } catch (RuntimeException e) {
+                failed++;
+                log.warn("Item index rebuild failed for user {}", user.getId(), e);
+            }
+        }
+        log.info("Item index rebuild finished: {} users rebuilt, {} failed", rebuilt, failed);
+        return rebuilt;
+    }
+}
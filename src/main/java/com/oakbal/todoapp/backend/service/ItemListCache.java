@@ -0,0 +1,185 @@
+package com.oakbal.todoapp.backend.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import com.oakbal.todoapp.backend.model.Item;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Optional read-through cache of each user's full item list, bounded by the total number of cached
+ * items. Writes on this instance patch the cached list in place; writes on other instances are only
+ * seen once the entry expires, so the TTL bounds how stale a list can be.
+ * <p>
+ * A write that races with a load drops the entry rather than patching it, so a list read before the
+ * write is returned to the callers already waiting on it but never cached.
+ */
+@Component
+public class ItemListCache implements MeterBinder {
+    public static final String CACHE_NAME = "itemList";
+
+    private final boolean enabled;
+    private final AsyncCache<String, List<Item>> cache;
+
+    @Autowired
+    public ItemListCache(TodoProperties properties) {
+        TodoProperties.ListCache config = properties.getItems().getListCache();
+        this.enabled = config.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                // Every list weighs at least 1, so many small lists are bounded as well as a few large ones
+                .maximumWeight(config.getMaximumWeight())
+                .weigher((String userId, List<Item> items) -> items.size() + 1)
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .buildAsync();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the user's cached list or loads it. Concurrent misses for the same user share a
+     * single load.
+     */
+    public List<Item> get(String userId, Function<String, List<Item>> loader) {
+        if (!enabled) {
+            return loader.apply(userId);
+        }
+        CompletableFuture<List<Item>> cached = cache.getIfPresent(userId);
+        if (cached != null) {
+            return join(cached);
+        }
+
+        // Like UserIdentityCache, the query runs on the calling thread rather than under the map's compute lock
+        CompletableFuture<List<Item>> loading = new CompletableFuture<>();
+        CompletableFuture<List<Item>> existing = cache.asMap().putIfAbsent(userId, loading);
+        if (existing != null) {
+            return join(existing);
+        }
+        try {
+            loading.complete(List.copyOf(loader.apply(userId)));
+        } catch (RuntimeException e) {
+            cache.asMap().remove(userId, loading);
+            loading.completeExceptionally(e);
+            throw e;
+        }
+        return loading.join();
+    }
+
+    /**
+     * Adds or replaces a created or updated item in its owner's list. An item without an owner is
+     * dropped from whichever list holds it.
+     */
+    public void put(Item item) {
+        if (!enabled) {
+            return;
+        }
+        if (item.getUserId() == null) {
+            invalidateContaining(Set.of(item.getId()));
+            return;
+        }
+        update(item.getUserId(), items -> {
+            List<Item> updated = new ArrayList<>(items.size() + 1);
+            boolean replaced = false;
+            for (Item cached : items) {
+                if (cached.getId().equals(item.getId())) {
+                    updated.add(item);
+                    replaced = true;
+                } else {
+                    updated.add(cached);
+                }
+            }
+            if (!replaced) {
+                updated.add(item);
+            }
+            return updated;
+        });
+    }
+
+    /**
+     * Applies a change to a copy of the item in its owner's list.
+     */
+    public void patch(String userId, String id, Consumer<Item> change) {
+        if (!enabled) {
+            return;
+        }
+        update(userId, items -> items.stream()
+                .map(item -> {
+                    if (!item.getId().equals(id)) {
+                        return item;
+                    }
+                    Item patched = Item.copyOf(item);
+                    change.accept(patched);
+                    return patched;
+                })
+                .toList());
+    }
+
+    public void remove(String userId, String id) {
+        if (enabled) {
+            update(userId, items -> items.stream().filter(item -> !item.getId().equals(id)).toList());
+        }
+    }
+
+    public void invalidate(String userId) {
+        if (enabled) {
+            cache.synchronous().invalidate(userId);
+        }
+    }
+
+    /**
+     * Drops every list that holds one of the items, for writes whose owner is not known.
+     */
+    public void invalidateContaining(Collection<String> ids) {
+        if (!enabled || ids.isEmpty()) {
+            return;
+        }
+        Set<String> lookup = Set.copyOf(ids);
+        cache.asMap().forEach((userId, future) -> {
+            if (!future.isDone() || future.isCompletedExceptionally()
+                    || future.join().stream().anyMatch(item -> lookup.contains(item.getId()))) {
+                cache.asMap().remove(userId, future);
+            }
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineLoadMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    private void update(String userId, UnaryOperator<List<Item>> change) {
+        cache.asMap().computeIfPresent(userId, (key, future) -> {
+            if (!future.isDone() || future.isCompletedExceptionally()) {
+                // Removing the in-flight load keeps its result, read before this write, out of the cache
+                return null;
+            }
+            return CompletableFuture.completedFuture(List.copyOf(change.apply(future.join())));
+        });
+    }
+
+    private static List<Item> join(CompletableFuture<List<Item>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
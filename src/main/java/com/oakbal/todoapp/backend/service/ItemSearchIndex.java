@@ -0,0 +1,375 @@
+package com.oakbal.todoapp.backend.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import com.oakbal.todoapp.backend.model.Item;
+import com.oakbal.todoapp.backend.model.ItemSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * In-memory inverted index over the title and description of each user's items, serving item search
+ * without N1QL. A user's index is built from their item list on their first search and then kept
+ * current by the writes on this instance; as with {@link ItemListCache}, writes on other instances are
+ * only seen once the entry expires, and a write that races with a build drops the entry.
+ * <p>
+ * Terms are lower-cased with diacritics folded, so "Çiçek" matches "cicek". Every query term has to be
+ * a prefix of a term of the item. Hits in the title outrank hits in the description and whole terms
+ * outrank prefixes; equal scores list the most recently updated item first.
+ */
+@Component
+public class ItemSearchIndex implements MeterBinder {
+    public static final String CACHE_NAME = "itemSearch";
+
+    private static final float TITLE_WEIGHT = 2;
+    private static final float DESCRIPTION_WEIGHT = 1;
+    private static final double PREFIX_FACTOR = 0.5;
+
+    private final AsyncCache<String, UserIndex> cache;
+
+    @Autowired
+    public ItemSearchIndex(TodoProperties properties) {
+        TodoProperties.Search config = properties.getItems().getSearch();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(config.getMaximumWeight())
+                .weigher((String userId, UserIndex index) -> index.weight())
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Best matches for the query among the user's items, building the user's index from
+     * {@code loader} if it is not held yet.
+     */
+    public List<ItemSummary> search(String userId, String query, int limit, Function<String, List<Item>> loader) {
+        List<String> terms = List.copyOf(new LinkedHashSet<>(tokenize(query)));
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("q must contain a letter or digit");
+        }
+        return get(userId, loader).search(terms, limit);
+    }
+
+    /**
+     * Indexes a created or updated item under its owner. An item without an owner is dropped from
+     * whichever index holds it, since the index it belongs to cannot be told.
+     */
+    public void put(Item item) {
+        if (item.getUserId() == null) {
+            invalidateContaining(Set.of(item.getId()));
+            return;
+        }
+        update(item.getUserId(), index -> index.put(item));
+    }
+
+    /**
+     * Applies a change to a copy of the item in its owner's index.
+     */
+    public void patch(String userId, String id, Consumer<Item> change) {
+        update(userId, index -> index.patch(id, change));
+    }
+
+    public void remove(String userId, String id) {
+        update(userId, index -> index.remove(id));
+    }
+
+    public void invalidate(String userId) {
+        cache.synchronous().invalidate(userId);
+    }
+
+    /**
+     * Drops every index that holds one of the items, or is still being built.
+     */
+    public void invalidateContaining(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        cache.asMap().forEach((userId, future) -> {
+            if (!future.isDone() || future.isCompletedExceptionally() || ids.stream().anyMatch(future.join()::contains)) {
+                cache.asMap().remove(userId, future);
+            }
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineLoadMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Lower-cased terms of the text, split at anything but letters and digits. Accents are folded and
+     * the Turkish dotless i is read as i, so the terms do not depend on how the text was typed.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        String folded = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        List<String> terms = new ArrayList<>();
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                term.append(c == 'ı' ? 'i' : c);
+            } else if (!term.isEmpty()) {
+                terms.add(term.toString());
+                term.setLength(0);
+            }
+        }
+        if (!term.isEmpty()) {
+            terms.add(term.toString());
+        }
+        return terms;
+    }
+
+    private UserIndex get(String userId, Function<String, List<Item>> loader) {
+        CompletableFuture<UserIndex> cached = cache.getIfPresent(userId);
+        if (cached != null) {
+            return join(cached);
+        }
+
+        // Built on the calling thread like ItemListCache loads, so concurrent misses share one load
+        CompletableFuture<UserIndex> building = new CompletableFuture<>();
+        CompletableFuture<UserIndex> existing = cache.asMap().putIfAbsent(userId, building);
+        if (existing != null) {
+            return join(existing);
+        }
+        try {
+            UserIndex index = new UserIndex();
+            loader.apply(userId).forEach(index::put);
+            building.complete(index);
+            return index;
+        } catch (RuntimeException e) {
+            cache.asMap().remove(userId, building);
+            building.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void update(String userId, Consumer<UserIndex> change) {
+        cache.asMap().computeIfPresent(userId, (key, future) -> {
+            if (!future.isDone() || future.isCompletedExceptionally()) {
+                // Removing the in-flight build keeps an index that misses this write out of the cache
+                return null;
+            }
+            UserIndex index = future.join();
+            change.accept(index);
+            // A new value makes the cache weigh the changed index again
+            return CompletableFuture.completedFuture(index);
+        });
+    }
+
+    private static UserIndex join(CompletableFuture<UserIndex> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * One user's items and the postings of their terms, kept sorted so a prefix is a range of terms.
+     * Items are numbered by slot and postings hold slots, so a search scores into arrays instead of
+     * hashing item ids. Searches and updates of the same user are serialized, which is cheap at one
+     * user's scale.
+     */
+    private static final class UserIndex {
+        private final List<Item> items = new ArrayList<>();
+        private final List<String[]> itemTerms = new ArrayList<>();
+        private final Map<String, Integer> slots = new HashMap<>();
+        private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+        private final TreeMap<String, Posting> postings = new TreeMap<>();
+        private int postingCount;
+
+        synchronized boolean contains(String id) {
+            return slots.containsKey(id);
+        }
+
+        synchronized void put(Item item) {
+            remove(item.getId());
+            Item copy = Item.copyOf(item);
+            Map<String, Float> weights = new HashMap<>();
+            tokenize(copy.getTitle()).forEach(term -> weights.put(term, TITLE_WEIGHT));
+            // A term in both fields counts for both, but repeats within a field do not add up
+            new LinkedHashSet<>(tokenize(copy.getDescription())).forEach(term -> weights.merge(term, DESCRIPTION_WEIGHT, Float::sum));
+
+            Integer free = freeSlots.poll();
+            int slot = free != null ? free : items.size();
+            if (free == null) {
+                items.add(copy);
+                itemTerms.add(null);
+            } else {
+                items.set(slot, copy);
+            }
+            itemTerms.set(slot, weights.keySet().toArray(String[]::new));
+            weights.forEach((term, weight) -> postings.computeIfAbsent(term, key -> new Posting()).add(slot, weight));
+            postingCount += weights.size();
+            slots.put(copy.getId(), slot);
+        }
+
+        synchronized void patch(String id, Consumer<Item> change) {
+            Integer slot = slots.get(id);
+            if (slot != null) {
+                Item patched = Item.copyOf(items.get(slot));
+                change.accept(patched);
+                put(patched);
+            }
+        }
+
+        synchronized void remove(String id) {
+            Integer slot = slots.remove(id);
+            if (slot == null) {
+                return;
+            }
+            for (String term : itemTerms.get(slot)) {
+                Posting posting = postings.get(term);
+                posting.remove(slot);
+                if (posting.size == 0) {
+                    postings.remove(term);
+                }
+            }
+            postingCount -= itemTerms.get(slot).length;
+            items.set(slot, null);
+            itemTerms.set(slot, null);
+            freeSlots.push(slot);
+        }
+
+        synchronized List<ItemSummary> search(List<String> queryTerms, int limit) {
+            // matched counts the query terms a slot has matched so far; only slots that matched every
+            // earlier term can match the next one
+            int[] matched = new int[items.size()];
+            double[] termScores = new double[items.size()];
+            double[] scores = new double[items.size()];
+            for (int t = 0; t < queryTerms.size(); t++) {
+                String queryTerm = queryTerms.get(t);
+                for (Map.Entry<String, Posting> entry : postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, true).entrySet()) {
+                    double factor = entry.getKey().length() == queryTerm.length() ? 1 : PREFIX_FACTOR;
+                    Posting posting = entry.getValue();
+                    for (int i = 0; i < posting.size; i++) {
+                        int slot = posting.slots[i];
+                        double score = posting.weights[i] * factor;
+                        // A query term counts once per item, with the best of the terms it is a prefix of
+                        if (matched[slot] == t) {
+                            matched[slot] = t + 1;
+                            termScores[slot] = score;
+                            scores[slot] += score;
+                        } else if (matched[slot] == t + 1 && score > termScores[slot]) {
+                            scores[slot] += score - termScores[slot];
+                            termScores[slot] = score;
+                        }
+                    }
+                }
+            }
+            return top(matched, queryTerms.size(), scores, limit);
+        }
+
+        // Keeps the best matches in a heap whose head is the worst kept, so most candidates of a short
+        // prefix that hits many items cost a single comparison. Slots are mostly taken in creation
+        // order, so walking them backwards meets the recent items that win ties first
+        private List<ItemSummary> top(int[] matched, int termCount, double[] scores, int limit) {
+            PriorityQueue<Hit> best = new PriorityQueue<>(Comparator.reverseOrder());
+            for (int slot = matched.length - 1; slot >= 0; slot--) {
+                if (matched[slot] != termCount) {
+                    continue;
+                }
+                Hit hit = new Hit(items.get(slot), scores[slot]);
+                if (best.size() < limit) {
+                    best.add(hit);
+                } else if (hit.compareTo(best.peek()) < 0) {
+                    best.poll();
+                    best.add(hit);
+                }
+            }
+            List<Hit> ranked = new ArrayList<>(best);
+            ranked.sort(null);
+            return ranked.stream().map(hit -> ItemSummary.of(hit.item())).toList();
+        }
+
+        // Every index weighs at least 1, so many empty indexes are bounded as well
+        synchronized int weight() {
+            return postingCount + 1;
+        }
+    }
+
+    /**
+     * Slots of the items holding a term, with the term's weight in each. Unordered, so a slot is
+     * removed by moving the last one into its place.
+     */
+    private static final class Posting {
+        private int[] slots = new int[2];
+        private float[] weights = new float[2];
+        private int size;
+
+        void add(int slot, float weight) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            slots[size] = slot;
+            weights[size] = weight;
+            size++;
+        }
+
+        void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    size--;
+                    slots[i] = slots[size];
+                    weights[i] = weights[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * A match in ranking order: best score first, then the most recently updated. Spelled out rather
+     * than chained from {@link Comparator} methods, which dominated the cost of ranking many matches.
+     */
+    private record Hit(Item item, double score) implements Comparable<Hit> {
+        @Override
+        public int compareTo(Hit other) {
+            int order = Double.compare(other.score, score);
+            if (order != 0) {
+                return order;
+            }
+            LocalDateTime updatedAt = item.getUpdatedAt();
+            LocalDateTime otherUpdatedAt = other.item.getUpdatedAt();
+            if (updatedAt != null && otherUpdatedAt != null) {
+                order = otherUpdatedAt.compareTo(updatedAt);
+            } else if (updatedAt != otherUpdatedAt) {
+                order = updatedAt == null ? 1 : -1;
+            }
+            return order != 0 ? order : item.getId().compareTo(other.item.getId());
+        }
+    }
+}
@@ -1,21 +1,77 @@
 package com.oakbal.todoapp.backend.service;
 
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
 import com.oakbal.todoapp.backend.model.Item;
+import com.oakbal.todoapp.backend.model.ItemBatchOperation;
+import com.oakbal.todoapp.backend.model.ItemBatchResult;
+import com.oakbal.todoapp.backend.model.ItemChangeToken;
+import com.oakbal.todoapp.backend.model.ItemChanges;
+import com.oakbal.todoapp.backend.model.ItemCursor;
+import com.oakbal.todoapp.backend.model.ItemEvent;
+import com.oakbal.todoapp.backend.model.ItemIndex;
+import com.oakbal.todoapp.backend.model.ItemPage;
+import com.oakbal.todoapp.backend.model.ItemPatch;
+import com.oakbal.todoapp.backend.model.ItemQuery;
+import com.oakbal.todoapp.backend.model.ItemSummary;
+import com.oakbal.todoapp.backend.model.ItemSummaryPage;
+import com.oakbal.todoapp.backend.model.ItemTombstone;
 import com.oakbal.todoapp.backend.repository.ItemRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
+@Timed("todo.item.service")
 public class ItemService {
+    private static final Comparator<ItemChangeToken> CHANGE_ORDER =
+            Comparator.comparing(ItemChangeToken::changedAt).thenComparing(ItemChangeToken::id);
+    // Same order as the N1QL listing, which sorts missing values first
+    private static final Comparator<ItemSummary> LISTING_ORDER =
+            Comparator.comparing(ItemSummary::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(ItemSummary::getId);
+    // A rebuild that keeps losing the race with index writes gives up and leaves the index as it is
+    static final int INDEX_REBUILD_ATTEMPTS = 3;
+
     private final ItemRepository itemRepository;
+    private final TodoProperties.Items itemProperties;
+    private final Counter itemNotFoundCounter;
+    private final ItemWriteBehindStore writeBehindStore;
+    private final ItemEventBroker eventBroker;
+    private final ItemListCache listCache;
+    private final ItemSearchIndex searchIndex;
+    private final boolean indexEnabled;
+    private final Counter indexRebuiltCounter;
+    private final Counter indexStaleCounter;
 
     @Autowired
-    public ItemService(ItemRepository itemRepository) {
+    public ItemService(ItemRepository itemRepository, TodoProperties properties, MeterRegistry meterRegistry,
+                       ItemWriteBehindStore writeBehindStore, ItemEventBroker eventBroker, ItemListCache listCache,
+                       ItemSearchIndex searchIndex) {
         this.itemRepository = itemRepository;
+        this.itemProperties = properties.getItems();
+        this.writeBehindStore = writeBehindStore;
+        this.eventBroker = eventBroker;
+        this.listCache = listCache;
+        this.searchIndex = searchIndex;
+        this.itemNotFoundCounter = TodoMetrics.notFoundCounter(meterRegistry, "item");
+        this.indexEnabled = itemProperties.getIndex().isEnabled();
+        this.indexRebuiltCounter = TodoMetrics.itemIndexRepairCounter(meterRegistry, "rebuilt");
+        this.indexStaleCounter = TodoMetrics.itemIndexRepairCounter(meterRegistry, "stale");
     }
 
     public Item createItem(Item item, String userId) {
@@ -23,24 +79,510 @@ public class ItemService {
         item.setCreatedAt(LocalDateTime.now());
         item.setUpdatedAt(LocalDateTime.now());
         item.setType("Item");
-        return itemRepository.save(item);
+        item.setVersion(0);
+        Item saved = itemRepository.save(item);
+        index(saved);
+        listCache.put(saved);
+        searchIndex.put(saved);
+        eventBroker.publish(ItemEvent.created(saved));
+        return saved;
     }
 
     public Optional<Item> getItemById(String id) {
-        return itemRepository.findById(id);
+        Optional<Item> item = writeBehindStore.get(id).or(() -> itemRepository.findById(id));
+        if (item.isEmpty()) {
+            itemNotFoundCounter.increment();
+        }
+        return item;
+    }
+
+    /**
+     * The id of the user who owns the item, read without fetching the document body.
+     */
+    public Optional<String> findOwnerById(String id) {
+        return itemRepository.findOwnerById(id);
+    }
+
+    /**
+     * Current version of a persisted item, for cheap revalidation. Empty when the item is missing
+     * or has a buffered update whose version is not known yet.
+     */
+    public Optional<Long> getItemVersion(String id) {
+        if (writeBehindStore.get(id).isPresent()) {
+            return Optional.empty();
+        }
+        return itemRepository.findVersionById(id);
     }
 
     public List<Item> getItemsByUserId(String userId) {
-        return itemRepository.findItemByUserId(userId);
+        return writeBehindStore.overlay(listCache.get(userId, this::loadItemsByUserId));
+    }
+
+    private List<Item> loadItemsByUserId(String userId) {
+        if (indexEnabled) {
+            List<String> ids = selectFromIndex(loadItemIndex(userId), new ItemQuery(), null, Integer.MAX_VALUE);
+            return getIndexedItems(userId, ids);
+        }
+        // A cached list has to include the writes made just before the miss
+        return listCache.isEnabled() ? itemRepository.findCurrentItemsByUserId(userId) : itemRepository.findItemByUserId(userId);
+    }
+
+    /**
+     * Best matches for the query among the user's items, from the in-memory search index. The first
+     * search of a user builds their index from a query that waits for every write made so far, plus
+     * the buffered updates.
+     */
+    public List<ItemSummary> searchItems(String userId, String query, Integer requestedLimit) {
+        if (query == null) {
+            throw new IllegalArgumentException("q is required");
+        }
+        return searchIndex.search(userId, query, resolvePageSize(requestedLimit, itemProperties),
+                id -> writeBehindStore.overlay(itemRepository.findCurrentItemsByUserId(id)));
+    }
+
+    public Stream<Item> streamItemsByUserId(String userId) {
+        return itemRepository.streamItemsByUserId(userId);
+    }
+
+    public ItemPage getItemPage(String userId, ItemQuery query) {
+        int limit = resolvePageSize(query.getLimit(), itemProperties);
+        ItemCursor after = query.getCursor() == null ? null : ItemCursor.decode(query.getCursor());
+
+        // One extra row tells us whether another page exists without a count query
+        if (listCache.isEnabled()) {
+            return toPage(selectFromList(getItemsByUserId(userId), query, after, limit + 1), limit);
+        }
+        if (indexEnabled) {
+            List<String> ids = selectFromIndex(loadItemIndex(userId), query, after, limit + 1);
+            return toPage(writeBehindStore.overlay(getIndexedItems(userId, ids)), limit);
+        }
+        return toPage(writeBehindStore.overlay(itemRepository.findItemPage(userId, query, after, limit + 1)), limit);
+    }
+
+    /**
+     * {@link #getItemPage} returning only the listing fields. In index mode the page is served from the
+     * index document alone, without reading the items.
+     */
+    public ItemSummaryPage getItemSummaryPage(String userId, ItemQuery query) {
+        int limit = resolvePageSize(query.getLimit(), itemProperties);
+        ItemCursor after = query.getCursor() == null ? null : ItemCursor.decode(query.getCursor());
+
+        if (listCache.isEnabled()) {
+            List<Item> items = selectFromList(getItemsByUserId(userId), query, after, limit + 1);
+            return toSummaryPage(items.stream().map(ItemSummary::of).toList(), limit);
+        }
+        List<ItemSummary> summaries = indexEnabled
+                ? selectSummariesFromIndex(loadItemIndex(userId), query, after, limit + 1)
+                : itemRepository.findItemSummaryPage(userId, query, after, limit + 1);
+        return toSummaryPage(writeBehindStore.overlaySummaries(summaries), limit);
     }
 
-    public Item updateItem(Item item) {
+    /**
+     * Rebuilds the user's item index from a query over their items, for an index that has drifted from
+     * the items. The index is only replaced if no write reached it while the items were read; otherwise
+     * the rebuild starts over.
+     */
+    public ItemIndex rebuildItemIndex(String userId) {
+        for (int attempt = 1; ; attempt++) {
+            Optional<ItemIndex> current = itemRepository.findItemIndex(userId);
+            if (current.isEmpty()) {
+                return createItemIndex(userId);
+            }
+            ItemIndex index = buildItemIndex(userId);
+            index.setVersion(current.get().getVersion());
+            try {
+                ItemIndex replaced = itemRepository.replaceItemIndex(index);
+                indexRebuiltCounter.increment();
+                return replaced;
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == INDEX_REBUILD_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds the index of a user who has none yet. If another listing created it first, that index is
+     * used as it is, since it may already hold writes this build missed.
+     */
+    private ItemIndex createItemIndex(String userId) {
+        ItemIndex index = itemRepository.createItemIndex(buildItemIndex(userId));
+        indexRebuiltCounter.increment();
+        return index;
+    }
+
+    // Writes skip a user without an index, so the build must see every item written before it
+    private ItemIndex buildItemIndex(String userId) {
+        return new ItemIndex(userId, itemRepository.findCurrentItemsByUserId(userId).stream().map(ItemSummary::of).toList());
+    }
+
+    private ItemIndex loadItemIndex(String userId) {
+        return itemRepository.findItemIndex(userId).orElseGet(() -> createItemIndex(userId));
+    }
+
+    /**
+     * Fetches the indexed items in parallel, in the given order. Entries whose item is gone are
+     * dropped from the index.
+     */
+    private List<Item> getIndexedItems(String userId, List<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Item> found = new HashMap<>();
+        itemRepository.findAllById(ids).forEach(item -> found.put(item.getId(), item));
+        List<String> stale = ids.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!stale.isEmpty()) {
+            indexStaleCounter.increment(stale.size());
+            itemRepository.unindexItems(userId, stale);
+        }
+        return ids.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    private void index(Item item) {
+        // An update that did not carry the owner cannot be attributed; the next rebuild picks it up
+        if (indexEnabled && item.getUserId() != null) {
+            itemRepository.indexItems(item.getUserId(), List.of(ItemSummary.of(item)));
+        }
+    }
+
+    /**
+     * Items created or updated, and ids deleted, since {@code since}. Without a token the feed starts
+     * from the beginning, which serves as the initial full sync.
+     */
+    public ItemChanges getChanges(String userId, String since, Integer requestedLimit) {
+        int limit = resolvePageSize(requestedLimit, itemProperties);
+        LocalDateTime now = LocalDateTime.now();
+        ItemChangeToken token = resolveChangeToken(since, now, itemProperties);
+        LocalDateTime until = changeHorizon(now, itemProperties);
+
+        List<Item> items = itemRepository.findItemChanges(userId, token, until, limit + 1);
+        // Nothing can have been deleted before the client first synced
+        List<ItemTombstone> tombstones = token == null ? List.of() : itemRepository.findItemTombstones(userId, token, until, limit + 1);
+        return toChanges(items, tombstones, limit, token, until);
+    }
+
+    /**
+     * Replaces the item. With a {@code cas} the write only succeeds if the stored document is
+     * still at that version; without one it is an unconditional upsert.
+     */
+    public Item updateItem(Item item, Long cas) {
+        Item updated = writeItem(item, cas);
+        index(updated);
+        listCache.put(updated);
+        searchIndex.put(updated);
+        eventBroker.publish(ItemEvent.updated(updated));
+        return updated;
+    }
+
+    private Item writeItem(Item item, Long cas) {
         item.setUpdatedAt(LocalDateTime.now());
         item.setType("Item");
-        return itemRepository.save(item);
+        if (cas != null) {
+            item.setVersion(cas);
+            return writeBehindStore.writeDirectly(List.of(item.getId()), () -> {
+                writeBehindStore.discard(item.getId());
+                return itemRepository.save(item);
+            });
+        }
+        item.setVersion(0);
+        if (writeBehindStore.enqueue(item)) {
+            return item;
+        }
+        return writeBehindStore.writeDirectly(List.of(item.getId()), () -> itemRepository.upsertItem(item));
+    }
+
+    /**
+     * Applies a field-level update without reading the document first and returns the new CAS. The
+     * caller has already checked that the item belongs to {@code userId}.
+     */
+    public long patchItem(String id, String userId, ItemPatch patch, Long cas) {
+        if (patch.isEmpty()) {
+            throw new IllegalArgumentException("Patch must change at least one field");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        long newCas = writeBehindStore.writeDirectly(List.of(id), () -> {
+            long written = itemRepository.patchItem(id, patch, now, cas);
+            // Keep a buffered full update from overwriting the patch when it is flushed
+            writeBehindStore.applyIfPresent(id, item -> {
+                patch.applyTo(item);
+                item.setUpdatedAt(now);
+            });
+            return written;
+        });
+        listCache.patch(userId, id, item -> {
+            patch.applyTo(item);
+            item.setUpdatedAt(now);
+            item.setVersion(newCas);
+        });
+        searchIndex.patch(userId, id, item -> {
+            patch.applyTo(item);
+            item.setUpdatedAt(now);
+        });
+        if (indexEnabled) {
+            itemRepository.patchItemIndex(userId, id, patch, now);
+        }
+        eventBroker.publish(ItemEvent.patched(id, userId, newCas));
+        return newCas;
+    }
+
+    public void deleteItem(String id, Long cas) {
+        writeBehindStore.discard(id);
+        itemRepository.deleteItem(id, cas).ifPresent(userId -> {
+            listCache.remove(userId, id);
+            searchIndex.remove(userId, id);
+            if (indexEnabled) {
+                itemRepository.unindexItems(userId, List.of(id));
+            }
+            eventBroker.publish(ItemEvent.deleted(id, userId));
+        });
+    }
+
+    public List<ItemBatchResult> applyBatch(String userId, List<ItemBatchOperation> operations) {
+        prepareBatch(userId, operations, itemProperties);
+        List<String> ids = operations.stream().map(ItemBatchOperation::getId).toList();
+        List<ItemBatchResult> results = writeBehindStore.writeDirectly(ids, () -> {
+            // Direct writes supersede anything still buffered for the same items
+            ids.forEach(writeBehindStore::discard);
+            return itemRepository.executeBatch(operations, itemProperties.getBatchConcurrency());
+        });
+        IndexChanges changes = indexChanges(results);
+        if (indexEnabled) {
+            if (!changes.written().isEmpty()) {
+                itemRepository.indexItems(userId, changes.written());
+            }
+            if (!changes.deleted().isEmpty()) {
+                itemRepository.unindexItems(userId, changes.deleted());
+            }
+        }
+        listCache.invalidate(userId);
+        results.stream()
+                .filter(result -> result.getStatus() < 300 && result.getItem() != null)
+                .forEach(result -> searchIndex.put(result.getItem()));
+        changes.deleted().forEach(id -> searchIndex.remove(userId, id));
+        results.forEach(result -> eventFor(result, userId).ifPresent(eventBroker::publish));
+        return results;
+    }
+
+    /**
+     * Index entries to write and remove for the successful operations of a batch.
+     */
+    static IndexChanges indexChanges(List<ItemBatchResult> results) {
+        List<ItemSummary> written = new ArrayList<>();
+        List<String> deleted = new ArrayList<>();
+        for (ItemBatchResult result : results) {
+            if (result.getStatus() >= 300) {
+                continue;
+            }
+            if (result.getItem() == null) {
+                deleted.add(result.getId());
+            } else {
+                written.add(ItemSummary.of(result.getItem()));
+            }
+        }
+        return new IndexChanges(written, deleted);
+    }
+
+    record IndexChanges(List<ItemSummary> written, List<String> deleted) {
+    }
+
+    /**
+     * Event for a successful batch operation. The batch only reaches the caller's items, so deletions
+     * are attributed to the caller.
+     */
+    static Optional<ItemEvent> eventFor(ItemBatchResult result, String userId) {
+        if (result.getStatus() >= 300) {
+            return Optional.empty();
+        }
+        if (result.getItem() == null) {
+            return Optional.of(ItemEvent.deleted(result.getId(), userId));
+        }
+        return Optional.of(result.getStatus() == 201 ? ItemEvent.created(result.getItem()) : ItemEvent.updated(result.getItem()));
+    }
+
+    /**
+     * Live create, update and delete events for the user's items.
+     */
+    public Flux<ItemEvent> streamEvents(String userId) {
+        return eventBroker.subscribe(userId);
+    }
+
+    static void prepareBatch(String userId, List<ItemBatchOperation> operations, TodoProperties.Items itemProperties) {
+        if (operations.size() > itemProperties.getMaxBatchSize()) {
+            throw new IllegalArgumentException("Batch must not exceed " + itemProperties.getMaxBatchSize() + " operations");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (int index = 0; index < operations.size(); index++) {
+            prepareBatchOperation(index, operations.get(index), userId, now);
+        }
+    }
+
+    private static void prepareBatchOperation(int index, ItemBatchOperation operation, String userId, LocalDateTime now) {
+        if (operation.getOp() == null) {
+            throw new IllegalArgumentException("operations[" + index + "]: op is required");
+        }
+        operation.setUserId(userId);
+        switch (operation.getOp()) {
+            case CREATE -> {
+                Item item = requireBatchItem(index, operation);
+                item.setUserId(userId);
+                item.setCreatedAt(now);
+                item.setUpdatedAt(now);
+                item.setType("Item");
+                operation.setId(item.getId());
+            }
+            case UPDATE -> {
+                Item item = requireBatchItem(index, operation);
+                String id = operation.getId() != null ? operation.getId() : item.getId();
+                if (id == null) {
+                    throw new IllegalArgumentException("operations[" + index + "]: id is required");
+                }
+                item.setId(id);
+                item.setUserId(userId);
+                item.setUpdatedAt(now);
+                item.setType("Item");
+                operation.setId(id);
+            }
+            case DELETE -> {
+                if (operation.getId() == null) {
+                    throw new IllegalArgumentException("operations[" + index + "]: id is required");
+                }
+            }
+        }
+    }
+
+    private static Item requireBatchItem(int index, ItemBatchOperation operation) {
+        if (operation.getItem() == null) {
+            throw new IllegalArgumentException("operations[" + index + "]: item is required");
+        }
+        return operation.getItem();
+    }
+
+    static ItemChangeToken resolveChangeToken(String since, LocalDateTime now, TodoProperties.Items itemProperties) {
+        if (since == null) {
+            return null;
+        }
+        ItemChangeToken token = ItemChangeToken.decode(since);
+        if (token.changedAt().isBefore(now.minus(itemProperties.getChanges().getTombstoneTtl()))) {
+            throw new ExpiredChangeTokenException("Change token is older than the tombstone retention; resync from GET /items");
+        }
+        return token;
+    }
+
+    static LocalDateTime changeHorizon(LocalDateTime now, TodoProperties.Items itemProperties) {
+        // Writes still in flight (write-behind, index lag, clock skew between instances) land in the
+        // settle window and are picked up by the next poll instead of being skipped
+        return now.minus(itemProperties.getChanges().getSettleWindow()).truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    /**
+     * Merges both feeds, which share the (change time, item id) order, and keeps the first {@code limit}.
+     */
+    static ItemChanges toChanges(List<Item> items, List<ItemTombstone> tombstones, int limit, ItemChangeToken since, LocalDateTime until) {
+        List<Item> changed = new ArrayList<>();
+        List<String> deleted = new ArrayList<>();
+        ItemChangeToken last = null;
+        int itemIndex = 0;
+        int tombstoneIndex = 0;
+        while (changed.size() + deleted.size() < limit && (itemIndex < items.size() || tombstoneIndex < tombstones.size())) {
+            ItemChangeToken nextItem = itemIndex < items.size() ? ItemChangeToken.after(items.get(itemIndex)) : null;
+            ItemChangeToken nextTombstone = tombstoneIndex < tombstones.size() ? ItemChangeToken.after(tombstones.get(tombstoneIndex)) : null;
+            if (nextTombstone == null || (nextItem != null && CHANGE_ORDER.compare(nextItem, nextTombstone) <= 0)) {
+                changed.add(items.get(itemIndex++));
+                last = nextItem;
+            } else {
+                deleted.add(tombstones.get(tombstoneIndex++).getItemId());
+                last = nextTombstone;
+            }
+        }
+
+        boolean hasMore = itemIndex < items.size() || tombstoneIndex < tombstones.size();
+        if (hasMore) {
+            return new ItemChanges(changed, deleted, last.encode(), true);
+        }
+        // Everything before the horizon has been returned, so an idle client's token still moves forward
+        ItemChangeToken next = new ItemChangeToken(until, "");
+        if (since != null && CHANGE_ORDER.compare(since, next) > 0) {
+            next = since;
+        }
+        return new ItemChanges(changed, deleted, next.encode(), false);
+    }
+
+    /**
+     * Ids of the indexed items matching the query, in listing order, starting after {@code after}.
+     */
+    static List<String> selectFromIndex(ItemIndex index, ItemQuery query, ItemCursor after, int limit) {
+        return selectSummariesFromIndex(index, query, after, limit).stream().map(ItemSummary::getId).toList();
+    }
+
+    static List<ItemSummary> selectSummariesFromIndex(ItemIndex index, ItemQuery query, ItemCursor after, int limit) {
+        return select(index.getItems().values().stream(), query, after, limit);
+    }
+
+    /**
+     * Page of an in-memory item list, selected the same way as from the index.
+     */
+    static List<Item> selectFromList(List<Item> items, ItemQuery query, ItemCursor after, int limit) {
+        Map<String, Item> byId = new HashMap<>();
+        items.forEach(item -> byId.put(item.getId(), item));
+        return select(items.stream().map(ItemSummary::of), query, after, limit).stream()
+                .map(summary -> byId.get(summary.getId()))
+                .toList();
+    }
+
+    private static List<ItemSummary> select(Stream<ItemSummary> summaries, ItemQuery query, ItemCursor after, int limit) {
+        ItemSummary position = after == null ? null : new ItemSummary(after.id(), null, false, after.createdAt(), null);
+        return summaries
+                .filter(summary -> matches(summary, query))
+                .filter(summary -> position == null || LISTING_ORDER.compare(summary, position) > 0)
+                .sorted(LISTING_ORDER)
+                .limit(limit)
+                .toList();
+    }
+
+    private static boolean matches(ItemSummary summary, ItemQuery query) {
+        if (query.getCompleted() != null && summary.isCompleted() != query.getCompleted()) {
+            return false;
+        }
+        if (!within(summary.getCreatedAt(), query.getCreatedFrom(), query.getCreatedTo())
+                || !within(summary.getUpdatedAt(), query.getUpdatedFrom(), query.getUpdatedTo())) {
+            return false;
+        }
+        String prefix = query.getTitlePrefix();
+        return prefix == null || prefix.isEmpty() || (summary.getTitle() != null && summary.getTitle().startsWith(prefix));
+    }
+
+    private static boolean within(LocalDateTime value, LocalDateTime from, LocalDateTime to) {
+        if (from == null && to == null) {
+            return true;
+        }
+        // Like the query, a missing timestamp never satisfies a range
+        return value != null && (from == null || !value.isBefore(from)) && (to == null || value.isBefore(to));
+    }
+
+    static ItemPage toPage(List<Item> items, int limit) {
+        if (items.size() <= limit) {
+            return new ItemPage(items, null);
+        }
+        List<Item> page = new ArrayList<>(items.subList(0, limit));
+        return new ItemPage(page, ItemCursor.after(page.get(limit - 1)).encode());
+    }
+
+    static ItemSummaryPage toSummaryPage(List<ItemSummary> summaries, int limit) {
+        if (summaries.size() <= limit) {
+            return new ItemSummaryPage(summaries, null);
+        }
+        List<ItemSummary> page = new ArrayList<>(summaries.subList(0, limit));
+        return new ItemSummaryPage(page, ItemCursor.after(page.get(limit - 1)).encode());
     }
 
-    public void deleteItem(String id) {
-        itemRepository.deleteById(id);
+    static int resolvePageSize(Integer requested, TodoProperties.Items itemProperties) {
+        if (requested == null) {
+            return itemProperties.getPageSize();
+        }
+        if (requested < 1) {
+            throw new IllegalArgumentException("limit must be greater than 0");
+        }
+        return Math.min(requested, itemProperties.getMaxPageSize());
     }
 }
@@ -0,0 +1,373 @@
+package com.oakbal.todoapp.backend.service;
+
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import com.oakbal.todoapp.backend.model.Item;
+import com.oakbal.todoapp.backend.model.ItemBatchOperation;
+import com.oakbal.todoapp.backend.model.ItemBatchResult;
+import com.oakbal.todoapp.backend.model.ItemSummary;
+import com.oakbal.todoapp.backend.repository.ItemRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Optional write-behind buffer for item updates. Updates are held in memory and coalesced per item,
+ * so repeated updates between flushes cost one Couchbase write, then flushed in pipelined batches
+ * on a single background thread.
+ * <p>
+ * Pending writes are lost if the process dies without a graceful shutdown, so the window is bounded
+ * by the flush interval. Flushes use replace, so an item deleted in the meantime is not recreated.
+ * Other direct writes go through {@link #writeDirectly}, so a flush never races them.
+ */
+@Slf4j
+@Component
+public class ItemWriteBehindStore implements SmartLifecycle {
+    private final ItemRepository itemRepository;
+    private final TodoProperties.WriteBehind config;
+    private final int flushConcurrency;
+
+    private final Map<String, PendingWrite> pending = new ConcurrentHashMap<>();
+    private final Map<String, PendingWrite> inFlight = new ConcurrentHashMap<>();
+    // Items with a direct write in progress, by number of writers; guarded by this
+    private final Map<String, Integer> held = new HashMap<>();
+
+    private final Timer flushTimer;
+    private final Timer lagTimer;
+    private final Counter coalescedCounter;
+    private final Counter overflowCounter;
+    private final Counter flushedCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    @Autowired
+    public ItemWriteBehindStore(ItemRepository itemRepository, TodoProperties properties, MeterRegistry meterRegistry) {
+        this.itemRepository = itemRepository;
+        this.config = properties.getItems().getWriteBehind();
+        this.flushConcurrency = properties.getItems().getBatchConcurrency();
+
+        Gauge.builder("todo.write.behind.pending", pending, Map::size)
+                .description("Item updates waiting to be flushed")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("todo.write.behind.flush")
+                .description("Duration of one flush batch")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("todo.write.behind.lag")
+                .description("Time from the first buffered update of an item until it is persisted")
+                .register(meterRegistry);
+        this.coalescedCounter = counter(meterRegistry, "coalesced");
+        this.overflowCounter = counter(meterRegistry, "overflow");
+        this.flushedCounter = counter(meterRegistry, "flushed");
+        this.droppedCounter = counter(meterRegistry, "dropped");
+        this.failedCounter = counter(meterRegistry, "failed");
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Buffers the update. Returns {@code false} when the buffer is full and the caller must write
+     * synchronously instead.
+     */
+    public boolean enqueue(Item item) {
+        if (!running) {
+            return false;
+        }
+        long now = System.nanoTime();
+        if (!pending.containsKey(item.getId()) && pending.size() >= config.getMaxPending()) {
+            overflowCounter.increment();
+            return false;
+        }
+        pending.compute(item.getId(), (id, existing) -> {
+            if (existing == null) {
+                return new PendingWrite(item, now);
+            }
+            coalescedCounter.increment();
+            return new PendingWrite(item, existing.firstEnqueuedNanos());
+        });
+        return true;
+    }
+
+    /**
+     * Latest buffered version of the item, if it has not been persisted yet.
+     */
+    public Optional<Item> get(String id) {
+        PendingWrite write = pending.get(id);
+        if (write == null) {
+            write = inFlight.get(id);
+        }
+        return Optional.ofNullable(write).map(PendingWrite::item);
+    }
+
+    /**
+     * Replaces items in a query result with their buffered versions so readers see their own writes.
+     */
+    public List<Item> overlay(List<Item> items) {
+        if (pending.isEmpty() && inFlight.isEmpty()) {
+            return items;
+        }
+        return items.stream()
+                .map(item -> get(item.getId()).orElse(item))
+                .toList();
+    }
+
+    /**
+     * {@link #overlay} for summary listings.
+     */
+    public List<ItemSummary> overlaySummaries(List<ItemSummary> summaries) {
+        if (pending.isEmpty() && inFlight.isEmpty()) {
+            return summaries;
+        }
+        return summaries.stream()
+                .map(summary -> get(summary.getId()).map(ItemSummary::of).orElse(summary))
+                .toList();
+    }
+
+    /**
+     * Applies a change to the buffered version of the item, if there is one.
+     */
+    public void applyIfPresent(String id, Consumer<Item> change) {
+        pending.computeIfPresent(id, (key, write) -> {
+            Item item = Item.copyOf(write.item());
+            change.accept(item);
+            return new PendingWrite(item, write.firstEnqueuedNanos());
+        });
+    }
+
+    /**
+     * Runs a write that bypasses the buffer for the given items. Their buffered updates are not flushed
+     * while it runs, and a flush already in flight is waited for first, so a stale flushed copy can
+     * neither land on top of the direct write nor slip in between it and {@link #discard} or
+     * {@link #applyIfPresent}.
+     */
+    public <T> T writeDirectly(Collection<String> ids, Supplier<T> write) {
+        if (!isEnabled()) {
+            return write.get();
+        }
+        List<String> keys = ids.stream().filter(Objects::nonNull).distinct().toList();
+        hold(keys);
+        try {
+            return write.get();
+        } finally {
+            release(keys);
+        }
+    }
+
+    /**
+     * Drops any buffered update for an item that is being written or deleted directly.
+     */
+    public void discard(String id) {
+        if (id != null) {
+            pending.remove(id);
+        }
+    }
+
+    /**
+     * Flushes up to one batch of buffered updates and returns how many were attempted.
+     */
+    int flush() {
+        List<PendingWrite> batch = takeBatch();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        // Stamped when persisted rather than when buffered: a write that was requeued past the change feed's
+        // settle window would otherwise land behind change tokens already handed out and never be synced
+        LocalDateTime flushedAt = LocalDateTime.now();
+        List<ItemBatchOperation> operations = batch.stream()
+                .map(write -> {
+                    Item item = Item.copyOf(write.item());
+                    item.setUpdatedAt(flushedAt);
+                    return new ItemBatchOperation(ItemBatchOperation.Type.UPDATE, item.getId(), item, item.getUserId());
+                })
+                .toList();
+        List<ItemBatchResult> results;
+        Timer.Sample sample = Timer.start();
+        try {
+            results = itemRepository.executeBatch(operations, flushConcurrency);
+        } catch (RuntimeException e) {
+            log.warn("Write-behind flush of {} items failed, retrying on next flush", batch.size(), e);
+            batch.forEach(this::requeue);
+            failedCounter.increment(batch.size());
+            return batch.size();
+        } finally {
+            sample.stop(flushTimer);
+        }
+
+        long now = System.nanoTime();
+        for (ItemBatchResult result : results) {
+            PendingWrite write = batch.get(result.getIndex());
+            if (result.getStatus() == 200) {
+                flushedCounter.increment();
+                lagTimer.record(now - write.firstEnqueuedNanos(), TimeUnit.NANOSECONDS);
+                land(write);
+            } else if (result.getStatus() == 404) {
+                droppedCounter.increment();
+                land(write);
+            } else {
+                failedCounter.increment();
+                requeue(write);
+            }
+        }
+        return batch.size();
+    }
+
+    private synchronized List<PendingWrite> takeBatch() {
+        List<PendingWrite> batch = new ArrayList<>();
+        for (String id : pending.keySet()) {
+            if (batch.size() >= config.getMaxBatchSize()) {
+                break;
+            }
+            if (held.containsKey(id)) {
+                // Left for a flush after the direct write, which may still change or discard it
+                continue;
+            }
+            PendingWrite write = pending.remove(id);
+            if (write != null) {
+                inFlight.put(id, write);
+                batch.add(write);
+            }
+        }
+        return batch;
+    }
+
+    private synchronized void land(PendingWrite write) {
+        inFlight.remove(write.item().getId(), write);
+        notifyAll();
+    }
+
+    private synchronized void requeue(PendingWrite write) {
+        // A newer update buffered while this one was in flight wins
+        pending.putIfAbsent(write.item().getId(), write);
+        land(write);
+    }
+
+    private synchronized void hold(List<String> ids) {
+        ids.forEach(id -> held.merge(id, 1, Integer::sum));
+        boolean interrupted = false;
+        // Flushes are bounded by the Couchbase timeouts, so this wait is too
+        while (ids.stream().anyMatch(inFlight::containsKey)) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized void release(List<String> ids) {
+        ids.forEach(id -> held.computeIfPresent(id, (key, writers) -> writers == 1 ? null : writers - 1));
+    }
+
+    private void flushSafely() {
+        try {
+            while (flush() >= config.getMaxBatchSize()) {
+                // Keep draining while full batches are waiting
+            }
+        } catch (RuntimeException e) {
+            log.warn("Write-behind flush failed", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("item-write-behind").daemon().factory());
+        long interval = config.getFlushInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::flushSafely, interval, interval, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(config.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Drain what is left before the Couchbase client is closed
+        long deadline = System.nanoTime() + config.getShutdownTimeout().toNanos();
+        while (!pending.isEmpty() && System.nanoTime() < deadline) {
+            int before = pending.size();
+            flushSafely();
+            if (pending.size() >= before && !pauseBeforeRetry(deadline)) {
+                break;
+            }
+        }
+        if (!pending.isEmpty()) {
+            log.warn("Write-behind shutdown timed out with {} unflushed item updates", pending.size());
+        }
+    }
+
+    /**
+     * Waits one flush interval, or until the deadline, after a drain round whose writes all failed, so a
+     * struggling cluster is not retried in a tight loop. Returns {@code false} if interrupted.
+     */
+    private boolean pauseBeforeRetry(long deadline) {
+        long pause = Math.min(config.getFlushInterval().toNanos(), deadline - System.nanoTime());
+        try {
+            if (pause > 0) {
+                TimeUnit.NANOSECONDS.sleep(pause);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Stop after the web server has stopped accepting requests, so nothing is buffered after the drain
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("todo.write.behind.writes")
+                .description("Buffered item updates by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record PendingWrite(Item item, long firstEnqueuedNanos) {
+    }
+}
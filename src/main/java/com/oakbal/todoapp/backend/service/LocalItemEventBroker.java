@@ -0,0 +1,165 @@
+package com.oakbal.todoapp.backend.service;
+
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import com.oakbal.todoapp.backend.model.ItemEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process subscription registry keyed by user. Users without open streams have no entry, and
+ * each stream buffers at most {@code buffer-size} events, so memory is bounded by the subscriber
+ * limits rather than by event volume.
+ * <p>
+ * Publishing only hands the event to each stream's buffer; delivery to the client happens on
+ * another thread. A stream whose buffer is full is terminated instead of slowing down writers,
+ * and the client is expected to reconnect and catch up through {@code GET /items/changes}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "todo.items.events", name = "broker", havingValue = "local", matchIfMissing = true)
+public class LocalItemEventBroker implements ItemEventBroker {
+    private final TodoProperties.Events config;
+    private final Scheduler deliveryScheduler;
+
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final Counter deliveredCounter;
+    private final Counter droppedCounter;
+    private final Counter rejectedCounter;
+
+    @Autowired
+    public LocalItemEventBroker(TodoProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, Schedulers.boundedElastic());
+    }
+
+    LocalItemEventBroker(TodoProperties properties, MeterRegistry meterRegistry, Scheduler deliveryScheduler) {
+        this.config = properties.getItems().getEvents();
+        // Servlet responses are written with blocking I/O, so delivery must not run on the publisher
+        this.deliveryScheduler = deliveryScheduler;
+
+        Gauge.builder("todo.item.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open item event streams")
+                .register(meterRegistry);
+        this.deliveredCounter = counter(meterRegistry, "delivered");
+        this.droppedCounter = counter(meterRegistry, "dropped");
+        this.rejectedCounter = counter(meterRegistry, "rejected");
+    }
+
+    @Override
+    public void publish(ItemEvent event) {
+        if (event.getUserId() == null) {
+            return;
+        }
+        Set<Subscriber> targets = subscribers.get(event.getUserId());
+        if (targets == null) {
+            return;
+        }
+        for (Subscriber subscriber : targets) {
+            Sinks.EmitResult result = subscriber.offer(event);
+            if (result.isSuccess()) {
+                deliveredCounter.increment();
+            } else if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+                droppedCounter.increment();
+                unregister(event.getUserId(), subscriber);
+            } else if (result == Sinks.EmitResult.FAIL_TERMINATED || result == Sinks.EmitResult.FAIL_CANCELLED) {
+                unregister(event.getUserId(), subscriber);
+            }
+        }
+    }
+
+    @Override
+    public Flux<ItemEvent> subscribe(String userId) {
+        return Flux.defer(() -> {
+            Subscriber subscriber = register(userId);
+            if (subscriber == null) {
+                rejectedCounter.increment();
+                return Flux.error(new SubscriberLimitExceededException("Too many open item streams"));
+            }
+            // delayError=false discards the buffer as soon as a slow subscriber is dropped
+            return subscriber.sink.asFlux()
+                    .publishOn(deliveryScheduler, false, config.getBufferSize())
+                    .doFinally(signal -> unregister(userId, subscriber));
+        });
+    }
+
+    @Override
+    public boolean hasSubscribers() {
+        return subscriberCount.get() > 0;
+    }
+
+    int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private Subscriber register(String userId) {
+        if (subscriberCount.incrementAndGet() > config.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+        Subscriber subscriber = new Subscriber();
+        boolean[] added = new boolean[1];
+        subscribers.compute(userId, (key, existing) -> {
+            Set<Subscriber> set = existing != null ? existing : ConcurrentHashMap.newKeySet();
+            if (set.size() < config.getMaxSubscribersPerUser()) {
+                added[0] = set.add(subscriber);
+            }
+            return set.isEmpty() ? null : set;
+        });
+        if (!added[0]) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+        return subscriber;
+    }
+
+    private void unregister(String userId, Subscriber subscriber) {
+        boolean[] removed = new boolean[1];
+        subscribers.computeIfPresent(userId, (key, set) -> {
+            removed[0] = set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+        if (removed[0]) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("todo.item.events")
+                .description("Item events offered to open streams, by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static final class Subscriber {
+        // No queue of its own: the publishOn buffer downstream is the only per-stream buffer
+        private final Sinks.Many<ItemEvent> sink = Sinks.many().unicast().onBackpressureError();
+
+        /**
+         * Hands the event to the stream's buffer. A full buffer terminates the stream and reports
+         * {@code FAIL_OVERFLOW}.
+         */
+        Sinks.EmitResult offer(ItemEvent event) {
+            // Writers on different threads may publish to the same stream concurrently
+            synchronized (this) {
+                Sinks.EmitResult result = sink.tryEmitNext(event);
+                if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+                    sink.tryEmitError(new IllegalStateException("Item event stream could not keep up"));
+                }
+                return result;
+            }
+        }
+    }
+}
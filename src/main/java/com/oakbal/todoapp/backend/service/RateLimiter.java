@@ -0,0 +1,146 @@
+package com.oakbal.todoapp.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Token-bucket rate limits per route, keyed by client IP or authenticated user. Shared by the servlet
+ * and WebFlux filters.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} updated with compare-and-set (the GCRA formulation of a
+ * token bucket), so concurrent requests never take a lock. Buckets live in a size-bounded cache that
+ * evicts idle entries; an evicted bucket simply starts full again.
+ */
+@Component
+public class RateLimiter {
+    private final List<Route> routes = new ArrayList<>();
+    private final Cache<String, TokenBucket> buckets;
+    private final LongSupplier nanoTime;
+
+    @Autowired
+    public RateLimiter(TodoProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    RateLimiter(TodoProperties properties, MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        TodoProperties.RateLimit config = properties.getRateLimit();
+        this.nanoTime = nanoTime;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(config.getMaxBuckets())
+                .expireAfterAccess(config.getIdleExpiry())
+                .build();
+        if (config.isEnabled()) {
+            config.getRoutes().forEach((name, route) -> routes.add(new Route(name, route, meterRegistry)));
+        }
+        Gauge.builder("todo.rate.limit.buckets", buckets, Cache::estimatedSize)
+                .description("Rate limit buckets currently held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes a token for the request. Returns {@link Duration#ZERO} when it may proceed, otherwise how
+     * long the client should wait. {@code user} is only consulted for user-keyed routes.
+     */
+    public Duration acquire(String path, String clientIp, Supplier<Optional<String>> user) {
+        if (routes.isEmpty()) {
+            return Duration.ZERO;
+        }
+        PathContainer pathContainer = PathContainer.parsePath(path);
+        for (Route route : routes) {
+            if (route.pattern.matches(pathContainer)) {
+                return acquire(route, clientKey(route, clientIp, user));
+            }
+        }
+        return Duration.ZERO;
+    }
+
+    private Duration acquire(Route route, String clientKey) {
+        long now = nanoTime.getAsLong();
+        TokenBucket bucket = buckets.get(route.name + '|' + clientKey, key -> new TokenBucket(now));
+        long waitNanos = bucket.tryAcquire(now, route.intervalNanos, route.toleranceNanos);
+        if (waitNanos == 0) {
+            return Duration.ZERO;
+        }
+        route.rejectedCounter.increment();
+        return Duration.ofNanos(waitNanos);
+    }
+
+    private static String clientKey(Route route, String clientIp, Supplier<Optional<String>> user) {
+        if (route.key == TodoProperties.RateLimitRoute.Key.USER) {
+            // Requests that do not carry a verifiable identity share their IP's bucket
+            Optional<String> username = user.get();
+            if (username.isPresent()) {
+                return "user:" + username.get();
+            }
+        }
+        return "ip:" + clientIp;
+    }
+
+    private static final class Route {
+        private final String name;
+        private final PathPattern pattern;
+        private final TodoProperties.RateLimitRoute.Key key;
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        private final Counter rejectedCounter;
+
+        Route(String name, TodoProperties.RateLimitRoute config, MeterRegistry meterRegistry) {
+            if (config.getPath() == null || config.getCapacity() < 1) {
+                throw new IllegalArgumentException("Rate limit route '" + name + "' needs a path and a capacity of at least 1");
+            }
+            this.name = name;
+            this.pattern = PathPatternParser.defaultInstance.parse(config.getPath());
+            this.key = config.getKey();
+            // One token is restored every interval; a full bucket allows `capacity` requests at once
+            this.intervalNanos = Math.max(1, config.getPeriod().toNanos() / config.getCapacity());
+            this.toleranceNanos = intervalNanos * (config.getCapacity() - 1);
+            this.rejectedCounter = Counter.builder("todo.rate.limit.rejected")
+                    .description("Requests rejected with 429 by the rate limiter")
+                    .tag("route", name)
+                    .register(meterRegistry);
+        }
+    }
+
+    static final class TokenBucket {
+        // Time at which the bucket would be full again; each request pushes it one interval forward
+        private final AtomicLong theoreticalArrival;
+
+        TokenBucket(long now) {
+            this.theoreticalArrival = new AtomicLong(now);
+        }
+
+        /**
+         * Returns 0 if a token was taken, otherwise the nanoseconds until one is available.
+         */
+        long tryAcquire(long now, long intervalNanos, long toleranceNanos) {
+            while (true) {
+                long current = theoreticalArrival.get();
+                // Differences rather than comparisons, since nanoTime values may wrap
+                long backlog = Math.max(0, current - now);
+                if (backlog > toleranceNanos) {
+                    return backlog - toleranceNanos;
+                }
+                if (theoreticalArrival.compareAndSet(current, now + backlog + intervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
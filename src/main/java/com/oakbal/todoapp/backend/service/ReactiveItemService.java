@@ -0,0 +1,245 @@
+package com.oakbal.todoapp.backend.service;
+
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import com.oakbal.todoapp.backend.model.Item;
+import com.oakbal.todoapp.backend.model.ItemBatchOperation;
+import com.oakbal.todoapp.backend.model.ItemBatchResult;
+import com.oakbal.todoapp.backend.model.ItemChangeToken;
+import com.oakbal.todoapp.backend.model.ItemChanges;
+import com.oakbal.todoapp.backend.model.ItemCursor;
+import com.oakbal.todoapp.backend.model.ItemEvent;
+import com.oakbal.todoapp.backend.model.ItemIndex;
+import com.oakbal.todoapp.backend.model.ItemPage;
+import com.oakbal.todoapp.backend.model.ItemPatch;
+import com.oakbal.todoapp.backend.model.ItemQuery;
+import com.oakbal.todoapp.backend.model.ItemSummary;
+import com.oakbal.todoapp.backend.model.ItemSummaryPage;
+import com.oakbal.todoapp.backend.model.ItemTombstone;
+import com.oakbal.todoapp.backend.repository.ReactiveItemRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Non-blocking counterpart of {@link ItemService}, used when the {@code reactive} profile is active.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveItemService {
+    private final ReactiveItemRepository itemRepository;
+    private final TodoProperties.Items itemProperties;
+    private final Counter itemNotFoundCounter;
+    private final ItemEventBroker eventBroker;
+    private final boolean indexEnabled;
+    private final Counter indexRebuiltCounter;
+    private final Counter indexStaleCounter;
+
+    @Autowired
+    public ReactiveItemService(ReactiveItemRepository itemRepository, TodoProperties properties, MeterRegistry meterRegistry,
+                               ItemEventBroker eventBroker) {
+        this.itemRepository = itemRepository;
+        this.itemProperties = properties.getItems();
+        this.eventBroker = eventBroker;
+        this.itemNotFoundCounter = TodoMetrics.notFoundCounter(meterRegistry, "item");
+        this.indexEnabled = itemProperties.getIndex().isEnabled();
+        this.indexRebuiltCounter = TodoMetrics.itemIndexRepairCounter(meterRegistry, "rebuilt");
+        this.indexStaleCounter = TodoMetrics.itemIndexRepairCounter(meterRegistry, "stale");
+    }
+
+    public Mono<Item> createItem(Item item, String userId) {
+        item.setUserId(userId);
+        item.setCreatedAt(LocalDateTime.now());
+        item.setUpdatedAt(LocalDateTime.now());
+        item.setType("Item");
+        item.setVersion(0);
+        return itemRepository.save(item)
+                .flatMap(this::index)
+                .doOnNext(saved -> eventBroker.publish(ItemEvent.created(saved)));
+    }
+
+    public Mono<Item> getItemById(String id) {
+        return itemRepository.findById(id)
+                .switchIfEmpty(Mono.fromRunnable(itemNotFoundCounter::increment));
+    }
+
+    /**
+     * The id of the user who owns the item, read without fetching the document body.
+     */
+    public Mono<String> findOwnerById(String id) {
+        return itemRepository.findOwnerById(id);
+    }
+
+    public Mono<Long> getItemVersion(String id) {
+        return itemRepository.findVersionById(id);
+    }
+
+    public Flux<Item> getItemsByUserId(String userId) {
+        if (indexEnabled) {
+            return loadItemIndex(userId)
+                    .flatMapMany(index -> getIndexedItems(userId, ItemService.selectFromIndex(index, new ItemQuery(), null, Integer.MAX_VALUE)));
+        }
+        return itemRepository.findItemByUserId(userId);
+    }
+
+    public Flux<Item> streamItemsByUserId(String userId) {
+        return itemRepository.streamItemsByUserId(userId);
+    }
+
+    public Mono<ItemPage> getItemPage(String userId, ItemQuery query) {
+        return Mono.defer(() -> {
+            int limit = ItemService.resolvePageSize(query.getLimit(), itemProperties);
+            ItemCursor after = query.getCursor() == null ? null : ItemCursor.decode(query.getCursor());
+            Flux<Item> items = indexEnabled
+                    ? loadItemIndex(userId).flatMapMany(index -> getIndexedItems(userId, ItemService.selectFromIndex(index, query, after, limit + 1)))
+                    : itemRepository.findItemPage(userId, query, after, limit + 1);
+            return items.collectList()
+                    .map(page -> ItemService.toPage(page, limit));
+        });
+    }
+
+    public Mono<ItemSummaryPage> getItemSummaryPage(String userId, ItemQuery query) {
+        return Mono.defer(() -> {
+            int limit = ItemService.resolvePageSize(query.getLimit(), itemProperties);
+            ItemCursor after = query.getCursor() == null ? null : ItemCursor.decode(query.getCursor());
+            Mono<List<ItemSummary>> summaries = indexEnabled
+                    ? loadItemIndex(userId).map(index -> ItemService.selectSummariesFromIndex(index, query, after, limit + 1))
+                    : itemRepository.findItemSummaryPage(userId, query, after, limit + 1).collectList();
+            return summaries.map(page -> ItemService.toSummaryPage(page, limit));
+        });
+    }
+
+    /**
+     * See {@link ItemService#rebuildItemIndex}.
+     */
+    public Mono<ItemIndex> rebuildItemIndex(String userId) {
+        return itemRepository.findItemIndex(userId)
+                .flatMap(current -> buildItemIndex(userId)
+                        .flatMap(index -> {
+                            index.setVersion(current.getVersion());
+                            return itemRepository.replaceItemIndex(index);
+                        })
+                        .doOnNext(index -> indexRebuiltCounter.increment()))
+                .switchIfEmpty(Mono.defer(() -> createItemIndex(userId)))
+                .retryWhen(Retry.max(ItemService.INDEX_REBUILD_ATTEMPTS - 1)
+                        .filter(OptimisticLockingFailureException.class::isInstance)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    private Mono<ItemIndex> createItemIndex(String userId) {
+        return buildItemIndex(userId)
+                .flatMap(itemRepository::createItemIndex)
+                .doOnNext(index -> indexRebuiltCounter.increment());
+    }
+
+    private Mono<ItemIndex> buildItemIndex(String userId) {
+        return itemRepository.findCurrentItemsByUserId(userId)
+                .map(ItemSummary::of)
+                .collectList()
+                .map(summaries -> new ItemIndex(userId, summaries));
+    }
+
+    private Mono<ItemIndex> loadItemIndex(String userId) {
+        return itemRepository.findItemIndex(userId)
+                .switchIfEmpty(Mono.defer(() -> createItemIndex(userId)));
+    }
+
+    private Flux<Item> getIndexedItems(String userId, List<String> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        return itemRepository.findAllById(ids)
+                .collectMap(Item::getId)
+                .flatMapMany(found -> {
+                    List<String> stale = ids.stream().filter(id -> !found.containsKey(id)).toList();
+                    Mono<Void> repair = Mono.empty();
+                    if (!stale.isEmpty()) {
+                        indexStaleCounter.increment(stale.size());
+                        repair = itemRepository.unindexItems(userId, stale);
+                    }
+                    return repair.thenMany(Flux.fromStream(ids.stream().map(found::get).filter(Objects::nonNull)));
+                });
+    }
+
+    private Mono<Item> index(Item item) {
+        if (!indexEnabled || item.getUserId() == null) {
+            return Mono.just(item);
+        }
+        return itemRepository.indexItems(item.getUserId(), List.of(ItemSummary.of(item))).thenReturn(item);
+    }
+
+    public Mono<ItemChanges> getChanges(String userId, String since, Integer requestedLimit) {
+        return Mono.defer(() -> {
+            int limit = ItemService.resolvePageSize(requestedLimit, itemProperties);
+            LocalDateTime now = LocalDateTime.now();
+            ItemChangeToken token = ItemService.resolveChangeToken(since, now, itemProperties);
+            LocalDateTime until = ItemService.changeHorizon(now, itemProperties);
+
+            Mono<List<ItemTombstone>> tombstones = token == null
+                    ? Mono.just(List.of())
+                    : itemRepository.findItemTombstones(userId, token, until, limit + 1).collectList();
+            return Mono.zip(itemRepository.findItemChanges(userId, token, until, limit + 1).collectList(), tombstones)
+                    .map(results -> ItemService.toChanges(results.getT1(), results.getT2(), limit, token, until));
+        });
+    }
+
+    public Mono<Item> updateItem(Item item, Long cas) {
+        item.setUpdatedAt(LocalDateTime.now());
+        item.setType("Item");
+        item.setVersion(cas != null ? cas : 0);
+        Mono<Item> updated = cas != null ? itemRepository.save(item) : itemRepository.upsertItem(item);
+        return updated
+                .flatMap(this::index)
+                .doOnNext(saved -> eventBroker.publish(ItemEvent.updated(saved)));
+    }
+
+    public Mono<Long> patchItem(String id, String userId, ItemPatch patch, Long cas) {
+        if (patch.isEmpty()) {
+            return Mono.error(new IllegalArgumentException("Patch must change at least one field"));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return itemRepository.patchItem(id, patch, now, cas)
+                .flatMap(newCas -> (indexEnabled ? itemRepository.patchItemIndex(userId, id, patch, now) : Mono.<Void>empty())
+                        .doOnSuccess(ignored -> eventBroker.publish(ItemEvent.patched(id, userId, newCas)))
+                        .thenReturn(newCas));
+    }
+
+    public Mono<Void> deleteItem(String id, Long cas) {
+        return itemRepository.deleteItem(id, cas)
+                .flatMap(userId -> (indexEnabled ? itemRepository.unindexItems(userId, List.of(id)) : Mono.<Void>empty())
+                        .doOnSuccess(ignored -> eventBroker.publish(ItemEvent.deleted(id, userId))))
+                .then();
+    }
+
+    public Flux<ItemBatchResult> applyBatch(String userId, List<ItemBatchOperation> operations) {
+        return Flux.defer(() -> {
+            ItemService.prepareBatch(userId, operations, itemProperties);
+            Flux<ItemBatchResult> results = itemRepository.executeBatch(operations, itemProperties.getBatchConcurrency())
+                    .doOnNext(result -> ItemService.eventFor(result, userId).ifPresent(eventBroker::publish));
+            if (!indexEnabled) {
+                return results;
+            }
+            // Results are held back until the index reflects them, so a listing right after the batch sees its writes
+            return results.collectList()
+                    .flatMapMany(all -> {
+                        ItemService.IndexChanges changes = ItemService.indexChanges(all);
+                        Mono<Void> written = changes.written().isEmpty() ? Mono.empty() : itemRepository.indexItems(userId, changes.written());
+                        Mono<Void> deleted = changes.deleted().isEmpty() ? Mono.empty() : itemRepository.unindexItems(userId, changes.deleted());
+                        return written.then(deleted).thenMany(Flux.fromIterable(all));
+                    });
+        });
+    }
+
+    public Flux<ItemEvent> streamEvents(String userId) {
+        return eventBroker.subscribe(userId);
+    }
+}
@@ -0,0 +1,85 @@
+package com.oakbal.todoapp.backend.service;
+
+import com.oakbal.todoapp.backend.model.User;
+import com.oakbal.todoapp.backend.repository.ReactiveUserRepository;
+import com.oakbal.todoapp.backend.repository.UserAlreadyExistsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Non-blocking counterpart of {@link UserService}, used when the {@code reactive} profile is active.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveUserService implements ReactiveUserDetailsService {
+    private final ReactiveUserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final UserIdentityCache userIdentityCache;
+    private final Counter usernameExistsCounter;
+    private final Counter emailExistsCounter;
+    private final Counter userNotFoundCounter;
+
+    @Autowired
+    public ReactiveUserService(ReactiveUserRepository userRepository, PasswordEncoder passwordEncoder, UserIdentityCache userIdentityCache,
+                               MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.userIdentityCache = userIdentityCache;
+        this.usernameExistsCounter = TodoMetrics.alreadyExistsCounter(meterRegistry, "username");
+        this.emailExistsCounter = TodoMetrics.alreadyExistsCounter(meterRegistry, "email");
+        this.userNotFoundCounter = TodoMetrics.notFoundCounter(meterRegistry, "user");
+    }
+
+    public Mono<User> registerUser(User user) {
+        return userRepository.reserveUser(user)
+                .doOnError(UserAlreadyExistsException.class, e -> alreadyExistsCounter(e).increment())
+                // BCrypt is deliberately slow, so it must stay off the event loop
+                .then(Mono.fromCallable(() -> passwordEncoder.encode(user.getPassword()))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .flatMap(encoded -> {
+                    user.setPassword(encoded);
+                    user.setType("User");
+                    user.setVersion(0);
+                    return userRepository.insertUser(user);
+                })
+                .doOnNext(savedUser -> userIdentityCache.invalidate(savedUser.getUsername()));
+    }
+
+    private Counter alreadyExistsCounter(UserAlreadyExistsException e) {
+        return UserAlreadyExistsException.USERNAME.equals(e.getField()) ? usernameExistsCounter : emailExistsCounter;
+    }
+
+    public Mono<User> getUserByUsername(String username) {
+        return userRepository.findUserByUsername(username);
+    }
+
+    public Mono<String> getUserIdByUsername(String username) {
+        return getUserIdentity(username)
+                .map(UserIdentity::id)
+                .switchIfEmpty(Mono.error(() -> new UsernameNotFoundException("User not found " + username)));
+    }
+
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        return getUserIdentity(username)
+                .map(user -> org.springframework.security.core.userdetails.User
+                        .withUsername(user.username())
+                        .password(user.password())
+                        .authorities("USER")
+                        .build());
+    }
+
+    private Mono<UserIdentity> getUserIdentity(String username) {
+        return userIdentityCache.getAsync(username, name -> getUserByUsername(name).map(UserIdentity::of))
+                .switchIfEmpty(Mono.fromRunnable(userNotFoundCounter::increment));
+    }
+}
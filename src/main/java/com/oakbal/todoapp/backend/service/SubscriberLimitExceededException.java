@@ -0,0 +1,7 @@
+package com.oakbal.todoapp.backend.service;
+
+public class SubscriberLimitExceededException extends RuntimeException {
+    public SubscriberLimitExceededException(String message) {
+        super(message);
+    }
+}
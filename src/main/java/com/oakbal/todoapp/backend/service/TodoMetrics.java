@@ -0,0 +1,37 @@
+package com.oakbal.todoapp.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Names of the application counters shared by the blocking and reactive services.
+ */
+public final class TodoMetrics {
+    public static final String NOT_FOUND = "todo.not.found";
+    public static final String ALREADY_EXISTS = "todo.users.already.exists";
+    public static final String ITEM_INDEX_REPAIRS = "todo.item.index.repairs";
+
+    private TodoMetrics() {
+    }
+
+    static Counter notFoundCounter(MeterRegistry meterRegistry, String entity) {
+        return Counter.builder(NOT_FOUND)
+                .description("Lookups that found no matching document")
+                .tag("entity", entity)
+                .register(meterRegistry);
+    }
+
+    static Counter alreadyExistsCounter(MeterRegistry meterRegistry, String field) {
+        return Counter.builder(ALREADY_EXISTS)
+                .description("Registrations rejected because the username or email is taken")
+                .tag("field", field)
+                .register(meterRegistry);
+    }
+
+    static Counter itemIndexRepairCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder(ITEM_INDEX_REPAIRS)
+                .description("Item index rebuilds and entries dropped because their item no longer exists")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,13 @@
+package com.oakbal.todoapp.backend.service;
+
+import com.oakbal.todoapp.backend.model.User;
+
+/**
+ * Immutable snapshot of the fields needed to authenticate a user and resolve their id.
+ * Kept separate from {@link User} so cached entries can't be mutated by callers.
+ */
+public record UserIdentity(String id, String username, String password) {
+    public static UserIdentity of(User user) {
+        return new UserIdentity(user.getId(), user.getUsername(), user.getPassword());
+    }
+}
@@ -0,0 +1,98 @@
+package com.oakbal.todoapp.backend.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-evicting cache of username to {@link UserIdentity}. Sits in front of
+ * {@code findUserByUsername} so authentication and userId resolution share one lookup.
+ */
+@Component
+public class UserIdentityCache implements MeterBinder {
+    public static final String CACHE_NAME = "userIdentity";
+
+    private final AsyncCache<String, UserIdentity> cache;
+
+    @Autowired
+    public UserIdentityCache(TodoProperties properties) {
+        TodoProperties.UserCache config = properties.getUserCache();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Returns the cached identity or loads it. Concurrent misses for the same username
+     * share a single load; absent users are not cached.
+     */
+    public Optional<UserIdentity> get(String username, Function<String, Optional<UserIdentity>> loader) {
+        CompletableFuture<UserIdentity> cached = cache.getIfPresent(username);
+        if (cached != null) {
+            return Optional.ofNullable(join(cached));
+        }
+
+        // The query runs on the calling thread, outside the map's compute lock, so a virtual thread
+        // is never pinned to its carrier while waiting on Couchbase
+        CompletableFuture<UserIdentity> loading = new CompletableFuture<>();
+        CompletableFuture<UserIdentity> existing = cache.asMap().putIfAbsent(username, loading);
+        if (existing != null) {
+            return Optional.ofNullable(join(existing));
+        }
+        try {
+            loading.complete(loader.apply(username).orElse(null));
+        } catch (RuntimeException e) {
+            cache.asMap().remove(username, loading);
+            loading.completeExceptionally(e);
+            throw e;
+        }
+        return Optional.ofNullable(loading.join());
+    }
+
+    /**
+     * Non-blocking variant for the reactive stack. The loader only assembles a {@link Mono}, so the
+     * map's compute lock is never held across I/O; an empty result is not cached.
+     */
+    public Mono<UserIdentity> getAsync(String username, Function<String, Mono<UserIdentity>> loader) {
+        // Cancelling one subscriber must not cancel a load other callers are waiting on
+        return Mono.fromFuture(() -> cache.get(username, (key, executor) -> loader.apply(key).toFuture()), true);
+    }
+
+    public void invalidate(String username) {
+        if (username != null) {
+            cache.synchronous().invalidate(username);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineLoadMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    private static UserIdentity join(CompletableFuture<UserIdentity> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.oakbal.todoapp.backend.service;
+
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import com.oakbal.todoapp.backend.model.User;
+import com.oakbal.todoapp.backend.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * One-off startup job that moves users with random ids to {@code user::<username>} keys, so lookups by
+ * username become a single get. Enabled with {@code todo.users.migrate-keys=true}.
+ * <p>
+ * Other instances should be stopped while it runs: they may still hold old user ids in their identity
+ * caches and write items under them. Running it again picks up where an interrupted run stopped.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "todo.users", name = "migrate-keys", havingValue = "true")
+public class UserKeyMigration implements ApplicationRunner {
+    private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
+    private final TodoProperties.Users config;
+
+    @Autowired
+    public UserKeyMigration(UserRepository userRepository, UserIdentityCache userIdentityCache, TodoProperties properties) {
+        this.userRepository = userRepository;
+        this.userIdentityCache = userIdentityCache;
+        this.config = properties.getUsers();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        migrate();
+    }
+
+    public Result migrate() {
+        if (config.getKeyScheme() != TodoProperties.Users.KeyScheme.USERNAME) {
+            throw new IllegalStateException("todo.users.migrate-keys requires todo.users.key-scheme=username");
+        }
+        int migrated = 0;
+        int unchanged = 0;
+        int conflicts = 0;
+        for (User user : userRepository.findAll()) {
+            String oldId = user.getId();
+            Optional<User> moved = userRepository.rekeyUser(user);
+            if (moved.isEmpty()) {
+                conflicts++;
+                log.warn("User {} ({}) not migrated: another user already holds its username key", oldId, user.getUsername());
+            } else if (moved.get().getId().equals(oldId)) {
+                unchanged++;
+            } else {
+                migrated++;
+            }
+        }
+        // Cached identities carry the old ids
+        userIdentityCache.invalidateAll();
+        Result result = new Result(migrated, unchanged, conflicts);
+        log.info("User key migration finished: {} migrated, {} already keyed by username, {} conflicts",
+                result.migrated(), result.unchanged(), result.conflicts());
+        return result;
+    }
+
+    public record Result(int migrated, int unchanged, int conflicts) {
+    }
+}
@@ -1,7 +1,11 @@
 package com.oakbal.todoapp.backend.service;
 
 import com.oakbal.todoapp.backend.model.User;
+import com.oakbal.todoapp.backend.repository.UserAlreadyExistsException;
 import com.oakbal.todoapp.backend.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -12,30 +16,50 @@ import org.springframework.stereotype.Service;
 import java.util.Optional;
 
 @Service
+@Timed("todo.user.service")
 public class UserService implements UserDetailsService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserIdentityCache userIdentityCache;
+    private final Counter usernameExistsCounter;
+    private final Counter emailExistsCounter;
+    private final Counter userNotFoundCounter;
 
     @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, UserIdentityCache userIdentityCache,
+                       MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userIdentityCache = userIdentityCache;
+        this.usernameExistsCounter = TodoMetrics.alreadyExistsCounter(meterRegistry, "username");
+        this.emailExistsCounter = TodoMetrics.alreadyExistsCounter(meterRegistry, "email");
+        this.userNotFoundCounter = TodoMetrics.notFoundCounter(meterRegistry, "user");
     }
 
     public User registerUser(User user) {
-        if (userRepository.findUserByUsername(user.getUsername()).isPresent()) {
-            throw new RuntimeException("Username already exists");
-        }
-        if (userRepository.findUserByEmail(user.getEmail()).isPresent()) {
-            throw new RuntimeException("Email already exists");
+        // Reserving the username and email first keeps BCrypt off the path of a duplicate registration
+        try {
+            userRepository.reserveUser(user);
+        } catch (UserAlreadyExistsException e) {
+            alreadyExistsCounter(e).increment();
+            throw e;
         }
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         user.setType("User");
-        return userRepository.save(user);
+        user.setVersion(0);
+        User savedUser = userRepository.insertUser(user);
+        userIdentityCache.invalidate(savedUser.getUsername());
+        return savedUser;
+    }
+
+    private Counter alreadyExistsCounter(UserAlreadyExistsException e) {
+        return UserAlreadyExistsException.USERNAME.equals(e.getField()) ? usernameExistsCounter : emailExistsCounter;
     }
 
     public User createUser(User user) {
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userIdentityCache.invalidate(savedUser.getUsername());
+        return savedUser;
     }
 
     public Optional<User> getUserByUsername(String username) {
@@ -43,20 +67,28 @@ public class UserService implements UserDetailsService {
     }
 
     public String getUserIdByUsername(String username) {
-        return getUserByUsername(username)
-                .map(User::getId)
+        return getUserIdentity(username)
+                .map(UserIdentity::id)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found " + username));
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = getUserByUsername(username)
+        UserIdentity user = getUserIdentity(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
 
         return org.springframework.security.core.userdetails.User
-                .withUsername(user.getUsername())
-                .password(user.getPassword())
+                .withUsername(user.username())
+                .password(user.password())
                 .authorities("USER")
                 .build();
     }
+
+    private Optional<UserIdentity> getUserIdentity(String username) {
+        Optional<UserIdentity> identity = userIdentityCache.get(username, name -> getUserByUsername(name).map(UserIdentity::of));
+        if (identity.isEmpty()) {
+            userNotFoundCounter.increment();
+        }
+        return identity;
+    }
 }
@@ -0,0 +1,43 @@
+package com.oakbal.todoapp.backend;
+
+import com.oakbal.todoapp.backend.repository.ItemRepository;
+import com.oakbal.todoapp.backend.repository.UserRepository;
+import com.oakbal.todoapp.backend.repository.embedded.EmbeddedItemRepository;
+import com.oakbal.todoapp.backend.repository.embedded.EmbeddedUserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+@SpringBootTest
+@ActiveProfiles("embedded")
+class EmbeddedProfileApplicationTests {
+
+	@TempDir
+	static Path directory;
+
+	@DynamicPropertySource
+	static void embeddedDirectory(DynamicPropertyRegistry registry) {
+		registry.add("todo.embedded.directory", () -> directory.toString());
+	}
+
+	@Autowired
+	private ItemRepository itemRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Test
+	void contextLoads() {
+		assertInstanceOf(EmbeddedItemRepository.class, itemRepository);
+		assertInstanceOf(EmbeddedUserRepository.class, userRepository);
+	}
+
+}
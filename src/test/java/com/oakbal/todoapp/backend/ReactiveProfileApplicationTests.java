@@ -0,0 +1,15 @@
+package com.oakbal.todoapp.backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("reactive")
+class ReactiveProfileApplicationTests {
+
+	@Test
+	void contextLoads() {
+	}
+
+}
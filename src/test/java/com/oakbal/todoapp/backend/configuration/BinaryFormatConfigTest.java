@@ -0,0 +1,71 @@
+package com.oakbal.todoapp.backend.configuration;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.oakbal.todoapp.backend.model.Item;
+import com.oakbal.todoapp.backend.model.ItemPage;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryFormatConfigTest {
+
+    private final BinaryFormatConfig config = new BinaryFormatConfig();
+
+    @Test
+    void cborConverter_RoundTripsItemPage() throws IOException {
+        AbstractJackson2HttpMessageConverter converter = config.cborHttpMessageConverter(builder());
+        ItemPage page = new ItemPage(items(3), "next");
+
+        ItemPage result = (ItemPage) converter.read(ItemPage.class, new MockHttpInputMessage(write(converter, page, MediaType.APPLICATION_CBOR)));
+
+        assertEquals(page, result);
+    }
+
+    @Test
+    void binaryConverters_AreSmallerThanJson() throws IOException {
+        ItemPage page = new ItemPage(items(50), null);
+        int json = builder().build().writeValueAsBytes(page).length;
+        int cbor = write(config.cborHttpMessageConverter(builder()), page, MediaType.APPLICATION_CBOR).length;
+        int smile = write(config.smileHttpMessageConverter(builder()), page, new MediaType("application", "x-jackson-smile")).length;
+
+        assertTrue(cbor < json, "cbor " + cbor + " >= json " + json);
+        assertTrue(smile < json, "smile " + smile + " >= json " + json);
+    }
+
+    private static byte[] write(AbstractJackson2HttpMessageConverter converter, Object value, MediaType mediaType) throws IOException {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(value, mediaType, output);
+        return output.getBodyAsBytes();
+    }
+
+    // What Spring Boot's auto-configured builder applies to every mapper
+    private static Jackson2ObjectMapperBuilder builder() {
+        return new Jackson2ObjectMapperBuilder().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static List<Item> items(int count) {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 10, 0);
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Item item = new Item();
+            item.setId("item-" + i);
+            item.setUserId("user123");
+            item.setTitle("Item " + i);
+            item.setCompleted(i % 2 == 0);
+            item.setCreatedAt(now.plusMinutes(i));
+            item.setUpdatedAt(now.plusMinutes(i));
+            items.add(item);
+        }
+        return items;
+    }
+}
@@ -0,0 +1,64 @@
+package com.oakbal.todoapp.backend.configuration;
+
+import com.oakbal.todoapp.backend.service.AuthTokenService;
+import com.oakbal.todoapp.backend.service.RateLimiter;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RateLimitFilterTest {
+
+    @Mock
+    private RateLimiter rateLimiter;
+
+    @Mock
+    private AuthTokenService authTokenService;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private RateLimitFilter rateLimitFilter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        rateLimitFilter = new RateLimitFilter(rateLimiter, authTokenService);
+    }
+
+    @Test
+    void doFilter_PassesAllowedRequests() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/users/login");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(rateLimiter.acquire(eq("/users/login"), eq("127.0.0.1"), any())).thenReturn(Duration.ZERO);
+
+        rateLimitFilter.doFilter(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void doFilter_RejectsWithRetryAfter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/users/register");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(rateLimiter.acquire(eq("/users/register"), eq("127.0.0.1"), any())).thenReturn(Duration.ofMillis(1500));
+
+        rateLimitFilter.doFilter(request, response, filterChain);
+
+        verify(filterChain, never()).doFilter(any(), any());
+        assertEquals(429, response.getStatus());
+        assertEquals("2", response.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+}
@@ -0,0 +1,50 @@
+package com.oakbal.todoapp.backend.configuration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TimedAuthenticationProviderTest {
+
+    @Mock
+    private AuthenticationProvider delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TimedAuthenticationProvider authenticationProvider;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        authenticationProvider = new TimedAuthenticationProvider(delegate, meterRegistry);
+    }
+
+    @Test
+    void authenticate_RecordsSuccess() {
+        Authentication request = UsernamePasswordAuthenticationToken.unauthenticated("testuser", "password");
+        Authentication authenticated = UsernamePasswordAuthenticationToken.authenticated("testuser", null, null);
+        when(delegate.authenticate(request)).thenReturn(authenticated);
+
+        assertSame(authenticated, authenticationProvider.authenticate(request));
+        assertEquals(1, meterRegistry.get(TimedAuthenticationProvider.TIMER_NAME).tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void authenticate_RecordsFailure() {
+        Authentication request = UsernamePasswordAuthenticationToken.unauthenticated("testuser", "wrong");
+        when(delegate.authenticate(request)).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        assertThrows(BadCredentialsException.class, () -> authenticationProvider.authenticate(request));
+        assertEquals(1, meterRegistry.get(TimedAuthenticationProvider.TIMER_NAME).tag("outcome", "failure").timer().count());
+    }
+}
@@ -1,6 +1,14 @@
 package com.oakbal.todoapp.backend.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.oakbal.todoapp.backend.model.Item;
+import com.oakbal.todoapp.backend.model.ItemBatchOperation;
+import com.oakbal.todoapp.backend.model.ItemBatchResult;
+import com.oakbal.todoapp.backend.model.ItemPage;
+import com.oakbal.todoapp.backend.model.ItemPatch;
+import com.oakbal.todoapp.backend.model.ItemQuery;
+import com.oakbal.todoapp.backend.model.ItemSummary;
+import com.oakbal.todoapp.backend.model.ItemSummaryPage;
 import com.oakbal.todoapp.backend.service.ItemService;
 import com.oakbal.todoapp.backend.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,18 +16,30 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 class ItemControllerTest {
@@ -30,6 +50,9 @@ class ItemControllerTest {
     @Mock
     private UserService userService;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
     @InjectMocks
     private ItemController itemController;
 
@@ -63,16 +86,51 @@ class ItemControllerTest {
         item2.setId("item2");
         List<Item> items = Arrays.asList(item1, item2);
 
+        ItemQuery query = new ItemQuery();
+
         Authentication auth = mock(Authentication.class);
         when(auth.getName()).thenReturn("testuser");
         when(userService.getUserIdByUsername("testuser")).thenReturn("user123");
-        when(itemService.getItemsByUserId("user123")).thenReturn(items);
+        when(itemService.getItemPage("user123", query)).thenReturn(new ItemPage(items, "next"));
 
-        ResponseEntity<List<Item>> response = itemController.getUserItems(auth);
+        ResponseEntity<ItemPage> response = itemController.getUserItems(auth, query);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(2, response.getBody().size());
+        assertEquals(2, response.getBody().getItems().size());
+        assertEquals("next", response.getBody().getNextCursor());
+    }
+
+    @Test
+    void getUserItemSummaries_SerializesOnlyListFields() throws IOException {
+        ItemSummary summary = new ItemSummary("item1", "Test Item", true, LocalDateTime.of(2024, 1, 1, 10, 0), LocalDateTime.of(2024, 1, 2, 10, 0));
+        ItemQuery query = new ItemQuery();
+
+        Authentication auth = mock(Authentication.class);
+        when(auth.getName()).thenReturn("testuser");
+        when(userService.getUserIdByUsername("testuser")).thenReturn("user123");
+        when(itemService.getItemSummaryPage("user123", query)).thenReturn(new ItemSummaryPage(List.of(summary), null));
+
+        ResponseEntity<ItemSummaryPage> response = itemController.getUserItemSummaries(auth, query);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("{\"items\":[{\"id\":\"item1\",\"title\":\"Test Item\",\"completed\":true}],\"nextCursor\":null}",
+                objectMapper.writeValueAsString(response.getBody()));
+    }
+
+    @Test
+    void searchItems_ReturnsMatchesOfCaller() {
+        ItemSummary summary = new ItemSummary("item1", "Buy milk", false, LocalDateTime.of(2024, 1, 1, 10, 0), null);
+
+        Authentication auth = mock(Authentication.class);
+        when(auth.getName()).thenReturn("testuser");
+        when(userService.getUserIdByUsername("testuser")).thenReturn("user123");
+        when(itemService.searchItems("user123", "milk", 5)).thenReturn(List.of(summary));
+
+        ResponseEntity<List<ItemSummary>> response = itemController.searchItems(auth, "milk", 5);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(summary), response.getBody());
     }
 
     @Test
@@ -83,7 +141,7 @@ class ItemControllerTest {
 
         when(itemService.getItemById("item123")).thenReturn(Optional.of(item));
 
-        ResponseEntity<Item> response = itemController.getItemById("item123");
+        ResponseEntity<Item> response = itemController.getItemById("item123", null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -91,11 +149,53 @@ class ItemControllerTest {
         assertEquals("Test Item", response.getBody().getTitle());
     }
 
+    @Test
+    void getItemById_ReturnsETag() {
+        Item item = new Item();
+        item.setId("item123");
+        item.setVersion(42L);
+
+        when(itemService.getItemById("item123")).thenReturn(Optional.of(item));
+
+        ResponseEntity<Item> response = itemController.getItemById("item123", null);
+
+        assertEquals("\"42\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void getItemById_NotModifiedSkipsDocumentRead() {
+        when(itemService.getItemVersion("item123")).thenReturn(Optional.of(42L));
+
+        ResponseEntity<Item> response = itemController.getItemById("item123", "W/\"41\", \"42\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        verify(itemService, never()).getItemById(anyString());
+    }
+
+    @Test
+    void updateItem_PassesIfMatchAsCas() {
+        Item item = new Item();
+        item.setVersion(43L);
+        when(itemService.updateItem(any(Item.class), any())).thenReturn(item);
+
+        ResponseEntity<Item> response = itemController.updateItem("item123", item, ownerOf("item123"), "\"42\"");
+
+        verify(itemService).updateItem(item, 42L);
+        assertEquals("\"43\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void updateItem_RejectsWeakIfMatch() {
+        assertThrows(IllegalArgumentException.class, () -> itemController.updateItem("item123", new Item(), ownerOf("item123"), "W/\"42\""));
+        verify(itemService, never()).updateItem(any(Item.class), any());
+    }
+
     @Test
     void getItemById_NotFound() {
         when(itemService.getItemById("nonexistent")).thenReturn(Optional.empty());
 
-        ResponseEntity<Item> response = itemController.getItemById("nonexistent");
+        ResponseEntity<Item> response = itemController.getItemById("nonexistent", null);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
@@ -108,13 +208,17 @@ class ItemControllerTest {
         item2.setId("item2");
         List<Item> items = Arrays.asList(item1, item2);
 
-        when(itemService.getItemsByUserId("user123")).thenReturn(items);
+        ItemQuery query = new ItemQuery();
+        query.setCompleted(false);
 
-        ResponseEntity<List<Item>> response = itemController.getItemsByUserId("user123");
+        when(itemService.getItemPage("user123", query)).thenReturn(new ItemPage(items, null));
+
+        ResponseEntity<ItemPage> response = itemController.getItemsByUserId("user123", query);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(2, response.getBody().size());
+        assertEquals(2, response.getBody().getItems().size());
+        assertNull(response.getBody().getNextCursor());
     }
 
     @Test
@@ -123,9 +227,9 @@ class ItemControllerTest {
         item.setId("item123");
         item.setTitle("Updated Item");
 
-        when(itemService.updateItem(any(Item.class))).thenReturn(item);
+        when(itemService.updateItem(any(Item.class), isNull())).thenReturn(item);
 
-        ResponseEntity<Item> response = itemController.updateItem("item123", item);
+        ResponseEntity<Item> response = itemController.updateItem("item123", item, ownerOf("item123"), null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -133,14 +237,52 @@ class ItemControllerTest {
         assertEquals("Updated Item", response.getBody().getTitle());
     }
 
+    @Test
+    void patchItem_ReturnsNewCasAsETag() {
+        ItemPatch patch = new ItemPatch(null, null, true);
+        when(itemService.patchItem("item123", "user123", patch, 41L)).thenReturn(42L);
+
+        ResponseEntity<Void> response = itemController.patchItem("item123", patch, ownerOf("item123"), "\"41\"");
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        assertEquals("\"42\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void patchItem_WithoutIfMatchIsUnconditional() {
+        ItemPatch patch = new ItemPatch("New title", null, null);
+        when(itemService.patchItem("item123", "user123", patch, null)).thenReturn(42L);
+
+        ResponseEntity<Void> response = itemController.patchItem("item123", patch, ownerOf("item123"), null);
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        verify(itemService).patchItem("item123", "user123", patch, null);
+    }
+
+    @Test
+    void patchItem_RejectsWeakETag() {
+        ItemPatch patch = new ItemPatch(null, null, true);
+
+        assertThrows(IllegalArgumentException.class, () -> itemController.patchItem("item123", patch, ownerOf("item123"), "W/\"41\""));
+        verify(itemService, never()).patchItem(any(), any(), any(), any());
+    }
+
+    @Test
+    void handleConcurrentModification_ReturnsPreconditionFailed() {
+        ResponseEntity<String> response = itemController.handleConcurrentModification(
+                new OptimisticLockingFailureException("Item item123 was modified concurrently"));
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+    }
+
     @Test
     void deleteItem_Success() {
-        doNothing().when(itemService).deleteItem("item123");
+        doNothing().when(itemService).deleteItem("item123", null);
 
-        ResponseEntity<Void> response = itemController.deleteItem("item123");
+        ResponseEntity<Void> response = itemController.deleteItem("item123", ownerOf("item123"), null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        verify(itemService, times(1)).deleteItem("item123");
+        verify(itemService, times(1)).deleteItem("item123", null);
     }
 
     @Test
@@ -158,18 +300,145 @@ class ItemControllerTest {
     @Test
     void updateItem_WithNonExistingItem() {
         Item item = new Item();
-        item.setId("nonexistent");
         item.setTitle("Updated Item");
+        when(itemService.findOwnerById("nonexistent")).thenReturn(Optional.empty());
+
+        ResponseEntity<Item> response = itemController.updateItem("nonexistent", item, caller(), null);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        verify(itemService, never()).updateItem(any(Item.class), any());
+    }
+
+    @Test
+    void updateItem_StoresItemUnderCaller() {
+        Item item = new Item();
+        item.setUserId("user456");
+        when(itemService.updateItem(any(Item.class), isNull())).thenAnswer(invocation -> invocation.getArgument(0));
 
-        when(itemService.updateItem(any(Item.class))).thenThrow(new RuntimeException("Item not found"));
+        itemController.updateItem("item123", item, ownerOf("item123"), null);
 
-        assertThrows(RuntimeException.class, () -> itemController.updateItem("nonexistent", item));
+        assertEquals("user123", item.getUserId());
     }
 
     @Test
     void deleteItem_WithNonExistingItem() {
-        doThrow(new RuntimeException("Item not found")).when(itemService).deleteItem("nonexistent");
+        when(itemService.findOwnerById("nonexistent")).thenReturn(Optional.empty());
+
+        ResponseEntity<Void> response = itemController.deleteItem("nonexistent", caller(), null);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        verify(itemService, never()).deleteItem(any(), any());
+    }
+
+    @Test
+    void writes_AnswerItemsOfOtherUsersAsNotFound() {
+        Authentication auth = caller();
+        when(itemService.findOwnerById("item456")).thenReturn(Optional.of("user456"));
+
+        assertEquals(HttpStatus.NOT_FOUND, itemController.updateItem("item456", new Item(), auth, null).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, itemController.patchItem("item456", new ItemPatch(null, null, true), auth, null).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, itemController.deleteItem("item456", auth, null).getStatusCode());
+        verify(itemService, never()).updateItem(any(Item.class), any());
+        verify(itemService, never()).patchItem(any(), any(), any(), any());
+        verify(itemService, never()).deleteItem(any(), any());
+    }
+
+    @Test
+    void handleInvalidArgument_ReturnsBadRequest() {
+        ResponseEntity<String> response = itemController.handleInvalidArgument(new IllegalArgumentException("Invalid cursor"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Invalid cursor", response.getBody());
+    }
+
+    @Test
+    void exportItems_WritesOneJsonDocumentPerLine() throws IOException {
+        Item item1 = new Item();
+        item1.setId("item1");
+        item1.setTitle("First");
+        item1.setCreatedAt(LocalDateTime.of(2024, 1, 1, 10, 0));
+        Item item2 = new Item();
+        item2.setId("item2");
+        item2.setTitle("Second");
+        AtomicBoolean closed = new AtomicBoolean();
+
+        Authentication auth = mock(Authentication.class);
+        when(auth.getName()).thenReturn("testuser");
+        when(userService.getUserIdByUsername("testuser")).thenReturn("user123");
+        when(itemService.streamItemsByUserId("user123"))
+                .thenReturn(Stream.of(item1, item2).onClose(() -> closed.set(true)));
+
+        ResponseEntity<StreamingResponseBody> response = itemController.exportItems(auth);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+
+        String content = output.toString(StandardCharsets.UTF_8);
+        String[] lines = content.split("\n");
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].startsWith("{"));
+        assertTrue(content.endsWith("}\n"));
+        assertEquals("item1", objectMapper.readValue(lines[0], Item.class).getId());
+        assertEquals("Second", objectMapper.readValue(lines[1], Item.class).getTitle());
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void exportItems_ClosesStreamWhenClientDisconnects() {
+        Item item = new Item();
+        item.setId("item1");
+        AtomicBoolean closed = new AtomicBoolean();
+
+        Authentication auth = mock(Authentication.class);
+        when(auth.getName()).thenReturn("testuser");
+        when(userService.getUserIdByUsername("testuser")).thenReturn("user123");
+        when(itemService.streamItemsByUserId("user123"))
+                .thenReturn(Stream.generate(() -> item).onClose(() -> closed.set(true)));
+
+        StreamingResponseBody body = itemController.exportItems(auth).getBody();
+        OutputStream disconnected = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThrows(IOException.class, () -> body.writeTo(disconnected));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void applyBatch_ReturnsPerOperationResults() {
+        List<ItemBatchOperation> operations = List.of(
+                new ItemBatchOperation(ItemBatchOperation.Type.DELETE, "item1", null),
+                new ItemBatchOperation(ItemBatchOperation.Type.DELETE, "missing", null));
+        List<ItemBatchResult> results = List.of(
+                ItemBatchResult.deleted(0, "item1"),
+                ItemBatchResult.failure(1, "missing", 404, "Document not found"));
+
+        Authentication auth = mock(Authentication.class);
+        when(auth.getName()).thenReturn("testuser");
+        when(userService.getUserIdByUsername("testuser")).thenReturn("user123");
+        when(itemService.applyBatch("user123", operations)).thenReturn(results);
+
+        ResponseEntity<List<ItemBatchResult>> response = itemController.applyBatch(operations, auth);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().size());
+        assertEquals(404, response.getBody().get(1).getStatus());
+    }
+
+    private Authentication caller() {
+        Authentication auth = mock(Authentication.class);
+        when(auth.getName()).thenReturn("testuser");
+        when(userService.getUserIdByUsername("testuser")).thenReturn("user123");
+        return auth;
+    }
 
-        assertThrows(RuntimeException.class, () -> itemController.deleteItem("nonexistent"));
+    private Authentication ownerOf(String id) {
+        Authentication auth = caller();
+        when(itemService.findOwnerById(id)).thenReturn(Optional.of("user123"));
+        return auth;
     }
-}
\ No newline at end of file
+}
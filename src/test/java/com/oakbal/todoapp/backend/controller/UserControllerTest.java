@@ -1,6 +1,7 @@
 package com.oakbal.todoapp.backend.controller;
 
 import com.oakbal.todoapp.backend.model.User;
+import com.oakbal.todoapp.backend.service.AuthTokenService;
 import com.oakbal.todoapp.backend.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +15,7 @@ import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 
+import java.time.Instant;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -28,6 +30,9 @@ class UserControllerTest {
     @Mock
     private AuthenticationManager authenticationManager;
 
+    @Mock
+    private AuthTokenService authTokenService;
+
     @InjectMocks
     private UserController userController;
 
@@ -72,12 +77,17 @@ class UserControllerTest {
         user.setPassword("password");
 
         Authentication auth = mock(Authentication.class);
+        when(auth.getName()).thenReturn("testuser");
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(auth);
+        when(authTokenService.issueToken("testuser"))
+                .thenReturn(new AuthTokenService.AuthToken("signed-token", Instant.parse("2030-01-01T00:00:00Z")));
 
         ResponseEntity<?> response = userController.loginUser(user);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("User logged in successfully", response.getBody());
+        assertEquals("signed-token", response.getHeaders().getFirst(UserController.AUTH_TOKEN_HEADER));
+        assertEquals("2030-01-01T00:00:00Z", response.getHeaders().getFirst(UserController.AUTH_TOKEN_EXPIRES_HEADER));
     }
 
     @Test
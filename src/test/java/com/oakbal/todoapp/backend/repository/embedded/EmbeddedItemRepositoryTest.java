@@ -0,0 +1,174 @@
+package com.oakbal.todoapp.backend.repository.embedded;
+
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import com.oakbal.todoapp.backend.model.Item;
+import com.oakbal.todoapp.backend.model.ItemBatchOperation;
+import com.oakbal.todoapp.backend.model.ItemBatchResult;
+import com.oakbal.todoapp.backend.model.ItemChangeToken;
+import com.oakbal.todoapp.backend.model.ItemCursor;
+import com.oakbal.todoapp.backend.model.ItemPatch;
+import com.oakbal.todoapp.backend.model.ItemQuery;
+import com.oakbal.todoapp.backend.model.ItemSummary;
+import com.oakbal.todoapp.backend.model.ItemTombstone;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmbeddedItemRepositoryTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @TempDir
+    private Path directory;
+
+    private TodoProperties properties;
+
+    private EmbeddedStore store;
+
+    private EmbeddedItemRepository repository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        properties = new TodoProperties();
+        properties.getEmbedded().setDirectory(directory.toString());
+        properties.getEmbedded().setCompactionInterval(Duration.ZERO);
+        store = new EmbeddedStore(properties.getEmbedded());
+        repository = new EmbeddedItemRepository(store, properties);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void findItemPage_PagesInListingOrderWithFilters() {
+        Item first = repository.save(item("user123", "Buy milk", 0));
+        Item second = repository.save(item("user123", "Buy bread", 1));
+        Item third = repository.save(item("user123", "Walk dog", 2));
+        repository.save(item("user456", "Buy milk", 0));
+        ItemQuery buying = new ItemQuery();
+        buying.setTitlePrefix("Buy");
+
+        List<Item> firstPage = repository.findItemPage("user123", new ItemQuery(), null, 2);
+        List<Item> nextPage = repository.findItemPage("user123", new ItemQuery(), ItemCursor.after(second), 2);
+        List<ItemSummary> summaries = repository.findItemSummaryPage("user123", buying, null, 10);
+
+        assertEquals(List.of(first.getId(), second.getId()), firstPage.stream().map(Item::getId).toList());
+        assertEquals(List.of(third.getId()), nextPage.stream().map(Item::getId).toList());
+        assertEquals(List.of("Buy milk", "Buy bread"), summaries.stream().map(ItemSummary::getTitle).toList());
+    }
+
+    @Test
+    void save_ReplacesOnlyAtCurrentVersion() {
+        Item item = repository.save(item("user123", "Buy milk", 0));
+        long version = item.getVersion();
+        item.setTitle("Buy oat milk");
+        repository.save(item);
+
+        Item stale = item("user123", "Buy soy milk", 0);
+        stale.setId(item.getId());
+        stale.setVersion(version);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> repository.save(stale));
+        assertEquals(Optional.of(item.getVersion()), repository.findVersionById(item.getId()));
+        assertEquals("Buy oat milk", repository.findById(item.getId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    void patchItem_UpdatesItemAndListing() {
+        Item item = repository.save(item("user123", "Buy milk", 0));
+
+        long version = repository.patchItem(item.getId(), new ItemPatch(null, null, true), START.plusHours(1), item.getVersion());
+
+        Item patched = repository.findById(item.getId()).orElseThrow();
+        assertEquals(version, patched.getVersion());
+        assertTrue(patched.isCompleted());
+        assertTrue(repository.findItemIndex("user123").orElseThrow().getItems().get(item.getId()).isCompleted());
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> repository.patchItem(item.getId(), new ItemPatch("x", null, null), START, item.getVersion()));
+        assertThrows(DataRetrievalFailureException.class, () -> repository.patchItem("missing", new ItemPatch("x", null, null), START, null));
+    }
+
+    @Test
+    void deleteItem_LeavesTombstoneForChanges() {
+        Item kept = repository.save(item("user123", "Buy milk", 0));
+        Item deleted = repository.save(item("user123", "Walk dog", 1));
+        ItemChangeToken since = new ItemChangeToken(START.minusDays(1), "");
+
+        assertEquals(Optional.of("user123"), repository.deleteItem(deleted.getId(), null));
+
+        LocalDateTime until = LocalDateTime.now().plusMinutes(1);
+        assertEquals(List.of(kept.getId()), repository.findItemChanges("user123", null, until, 10).stream().map(Item::getId).toList());
+        List<ItemTombstone> tombstones = repository.findItemTombstones("user123", since, until, 10);
+        assertEquals(List.of(deleted.getId()), tombstones.stream().map(ItemTombstone::getItemId).toList());
+        assertTrue(repository.findOwnerById(deleted.getId()).isEmpty());
+        assertThrows(DataRetrievalFailureException.class, () -> repository.deleteItem(deleted.getId(), null));
+    }
+
+    @Test
+    void executeBatch_ReportsEachOperation() {
+        Item existing = repository.save(item("user123", "Buy milk", 0));
+        Item update = item("user123", "Missing", 1);
+        update.setId("missing");
+
+        List<ItemBatchResult> results = repository.executeBatch(List.of(
+                new ItemBatchOperation(ItemBatchOperation.Type.CREATE, null, item("user123", "Walk dog", 2), "user123"),
+                new ItemBatchOperation(ItemBatchOperation.Type.UPDATE, "missing", update, "user123"),
+                new ItemBatchOperation(ItemBatchOperation.Type.DELETE, existing.getId(), null, "user123")), 4);
+
+        assertEquals(List.of(201, 404, 200), results.stream().map(ItemBatchResult::getStatus).toList());
+        assertEquals(List.of("Walk dog"), repository.findItemByUserId("user123").stream().map(Item::getTitle).toList());
+    }
+
+    @Test
+    void executeBatch_LeavesItemsOfOtherUsersAlone() {
+        Item updated = repository.save(item("user456", "Buy milk", 0));
+        Item deleted = repository.save(item("user456", "Walk dog", 1));
+        Item takeover = item("user123", "Mine now", 2);
+        takeover.setId(updated.getId());
+
+        List<ItemBatchResult> results = repository.executeBatch(List.of(
+                new ItemBatchOperation(ItemBatchOperation.Type.UPDATE, updated.getId(), takeover, "user123"),
+                new ItemBatchOperation(ItemBatchOperation.Type.DELETE, deleted.getId(), null, "user123")), 4);
+
+        assertEquals(List.of(404, 404), results.stream().map(ItemBatchResult::getStatus).toList());
+        assertEquals(List.of("Buy milk", "Walk dog"), repository.findItemByUserId("user456").stream().map(Item::getTitle).toList());
+        assertTrue(repository.findItemByUserId("user123").isEmpty());
+    }
+
+    @Test
+    void open_RebuildsListingsFromStore() throws IOException {
+        Item first = repository.save(item("user123", "Buy milk", 0));
+        Item second = repository.save(item("user123", "Walk dog", 1));
+        repository.deleteItem(first.getId(), null);
+
+        store.close();
+        store = new EmbeddedStore(properties.getEmbedded());
+        repository = new EmbeddedItemRepository(store, properties);
+
+        assertEquals(List.of(second.getId()), repository.findItemByUserId("user123").stream().map(Item::getId).toList());
+        assertEquals(Optional.of("user123"), repository.findOwnerById(second.getId()));
+        assertEquals(1, repository.findItemTombstones("user123", new ItemChangeToken(START, ""), LocalDateTime.now().plusMinutes(1), 10).size());
+    }
+
+    private static Item item(String userId, String title, int minutes) {
+        Item item = new Item();
+        item.setUserId(userId);
+        item.setTitle(title);
+        item.setCreatedAt(START.plusMinutes(minutes));
+        item.setUpdatedAt(START.plusMinutes(minutes));
+        return item;
+    }
+}
@@ -0,0 +1,199 @@
+package com.oakbal.todoapp.backend.repository.embedded;
+
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmbeddedStoreTest {
+
+    @TempDir
+    private Path directory;
+
+    private TodoProperties.Embedded config;
+
+    private EmbeddedStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        config = new TodoProperties.Embedded();
+        config.setDirectory(directory.toString());
+        config.setSegmentSize(DataSize.ofKilobytes(4));
+        config.setCompactionInterval(Duration.ZERO);
+        store = new EmbeddedStore(config);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void writes_CheckExistenceAndVersion() {
+        long version = store.insert("items", "item1", bytes("a"), null);
+
+        assertThrows(DuplicateKeyException.class, () -> store.insert("items", "item1", bytes("b"), null));
+        assertThrows(OptimisticLockingFailureException.class, () -> store.replace("items", "item1", bytes("b"), version + 1));
+        assertThrows(DataRetrievalFailureException.class, () -> store.replace("items", "item2", bytes("b"), 0));
+        long replaced = store.replace("items", "item1", bytes("b"), version);
+
+        assertTrue(replaced > version);
+        assertEquals("b", text(store.get("items", "item1")));
+        assertTrue(store.get("users", "item1").isEmpty());
+        assertThrows(OptimisticLockingFailureException.class, () -> store.remove("items", "item1", version));
+        assertTrue(store.remove("items", "item1", replaced));
+        assertFalse(store.remove("items", "item1", 0));
+    }
+
+    @Test
+    void open_RecoversDocumentsAndVersions() throws IOException {
+        store.insert("items", "item1", bytes("a"), null);
+        store.upsert("items", "item2", bytes("b"), null);
+        long version = store.upsert("items", "item2", bytes("c"), null);
+        store.remove("items", "item1", 0);
+
+        store.close();
+        store = new EmbeddedStore(config);
+
+        assertTrue(store.get("items", "item1").isEmpty());
+        assertEquals("c", text(store.get("items", "item2")));
+        assertEquals(Optional.of(version), store.version("items", "item2"));
+        assertTrue(store.upsert("items", "item3", bytes("d"), null) > version);
+    }
+
+    @Test
+    void open_IgnoresTornRecordAtEndOfLog() throws IOException {
+        store.insert("items", "item1", bytes("a"), null);
+        store.insert("items", "item2", bytes("b"), null);
+        store.close();
+
+        // Damage the last byte of the second record, as a crash halfway through writing it would
+        Path segment = segments().get(0);
+        int end = recordEnd(segment);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(end - 1);
+            file.write('x');
+        }
+        store = new EmbeddedStore(config);
+        store.insert("items", "item3", bytes("c"), null);
+        store.close();
+        store = new EmbeddedStore(config);
+
+        assertEquals("a", text(store.get("items", "item1")));
+        assertTrue(store.get("items", "item2").isEmpty());
+        assertEquals("c", text(store.get("items", "item3")));
+    }
+
+    @Test
+    void compact_KeepsLiveDocumentsAndDropsTheRest() throws IOException {
+        for (int i = 0; i < 100; i++) {
+            store.upsert("items", "item" + (i % 5), bytes("value" + i), null);
+        }
+        store.insert("items", "removed", bytes("gone"), null);
+        store.remove("items", "removed", 0);
+        int before = segments().size();
+        assertTrue(before > 1);
+        assertTrue(store.garbageRatio() > 0.5);
+
+        assertTrue(store.compact() > 0);
+        store.close();
+        store = new EmbeddedStore(config);
+
+        assertTrue(segments().size() < before);
+        for (int i = 0; i < 5; i++) {
+            assertEquals("value" + (95 + i), text(store.get("items", "item" + i)));
+        }
+        assertTrue(store.get("items", "removed").isEmpty());
+        assertEquals(5, store.count("items"));
+    }
+
+    @Test
+    void get_HidesExpiredDocuments() throws IOException {
+        store.close();
+        MutableClock clock = new MutableClock();
+        store = new EmbeddedStore(config, clock);
+        store.insert("tombstones", "t1", bytes("a"), Duration.ofMinutes(1));
+
+        clock.advance(Duration.ofMinutes(2));
+
+        assertTrue(store.get("tombstones", "t1").isEmpty());
+        store.insert("tombstones", "t1", bytes("b"), null);
+        assertEquals("b", text(store.get("tombstones", "t1")));
+    }
+
+    @Test
+    void open_RejectsDirectoryInUse() {
+        assertThrows(IllegalStateException.class, () -> new EmbeddedStore(config));
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(Segment::isSegment).sorted().toList();
+        }
+    }
+
+    private static int recordEnd(Path segment) throws IOException {
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(segment));
+        int offset = 0;
+        while (true) {
+            int length = content.getInt(offset);
+            if (length == 0) {
+                return offset;
+            }
+            offset += 8 + length;
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(Optional<EmbeddedStore.Document> document) {
+        return new String(document.orElseThrow().content(), StandardCharsets.UTF_8);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.oakbal.todoapp.backend.repository.embedded;
+
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import com.oakbal.todoapp.backend.model.Item;
+import com.oakbal.todoapp.backend.model.User;
+import com.oakbal.todoapp.backend.repository.UserAlreadyExistsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmbeddedUserRepositoryTest {
+
+    @TempDir
+    private Path directory;
+
+    private TodoProperties properties;
+
+    private EmbeddedStore store;
+
+    private EmbeddedItemRepository itemRepository;
+
+    private EmbeddedUserRepository repository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        properties = new TodoProperties();
+        properties.getEmbedded().setDirectory(directory.toString());
+        properties.getEmbedded().setCompactionInterval(Duration.ZERO);
+        open();
+    }
+
+    private void open() throws IOException {
+        store = new EmbeddedStore(properties.getEmbedded());
+        itemRepository = new EmbeddedItemRepository(store, properties);
+        repository = new EmbeddedUserRepository(store, itemRepository, properties);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void registration_ReservesNamesUntilInserted() {
+        User user = user("testuser", "test@example.com");
+        repository.reserveUser(user);
+
+        assertEquals("user::testuser", user.getId());
+        assertTrue(repository.findUserByUsername("testuser").isEmpty());
+        UserAlreadyExistsException duplicate = assertThrows(UserAlreadyExistsException.class,
+                () -> repository.reserveUser(user("other", "test@example.com")));
+        assertEquals(UserAlreadyExistsException.EMAIL, duplicate.getField());
+
+        repository.insertUser(user);
+
+        assertEquals(Optional.of(user.getId()), repository.findUserByUsername("testuser").map(User::getId));
+        assertThrows(UserAlreadyExistsException.class, () -> repository.reserveUser(user("testuser", "new@example.com")));
+    }
+
+    @Test
+    void reserveUser_IgnoresIdSentByClient() {
+        User bob = user("bob", "bob@example.com");
+        repository.reserveUser(bob);
+        repository.insertUser(bob);
+        User alice = user("alice", "alice@example.com");
+        alice.setId("user::bob");
+
+        repository.reserveUser(alice);
+
+        assertEquals("user::alice", alice.getId());
+        assertEquals(Optional.of("bob@example.com"), repository.findUserByUsername("bob").map(User::getEmail));
+    }
+
+    @Test
+    void open_ResolvesUsernamesOfStoredUsers() throws IOException {
+        User user = user("testuser", "test@example.com");
+        repository.reserveUser(user);
+        repository.insertUser(user);
+
+        store.close();
+        open();
+
+        assertEquals(Optional.of("test@example.com"), repository.findUserByUsername("testuser").map(User::getEmail));
+        assertThrows(UserAlreadyExistsException.class, () -> repository.reserveUser(user("other", "test@example.com")));
+    }
+
+    @Test
+    void rekeyUser_MovesUserAndItems() {
+        properties.getUsers().setKeyScheme(TodoProperties.Users.KeyScheme.UUID);
+        User user = user("testuser", "test@example.com");
+        repository.reserveUser(user);
+        repository.insertUser(user);
+        Item item = new Item();
+        item.setUserId(user.getId());
+        item.setCreatedAt(LocalDateTime.now());
+        itemRepository.save(item);
+
+        User moved = repository.rekeyUser(user).orElseThrow();
+
+        assertEquals("user::testuser", moved.getId());
+        assertTrue(repository.findById(user.getId()).isEmpty());
+        assertEquals(Optional.of(moved.getId()), repository.findUserByUsername("testuser").map(User::getId));
+        assertEquals(List.of(item.getId()), itemRepository.findItemByUserId(moved.getId()).stream().map(Item::getId).toList());
+        assertTrue(itemRepository.findItemByUserId(user.getId()).isEmpty());
+    }
+
+    private static User user(String username, String email) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setPassword("hash");
+        return user;
+    }
+}
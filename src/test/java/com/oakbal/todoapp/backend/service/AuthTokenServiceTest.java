@@ -0,0 +1,72 @@
+package com.oakbal.todoapp.backend.service;
+
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthTokenServiceTest {
+
+    private static final Instant NOW = Instant.parse("2024-07-01T10:00:00Z");
+
+    private TodoProperties properties;
+
+    private AuthTokenService authTokenService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TodoProperties();
+        properties.getAuthToken().setSecret("test-secret");
+        properties.getAuthToken().setTtl(Duration.ofMinutes(15));
+        authTokenService = new AuthTokenService(properties, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void issueToken_VerifiesToUsername() {
+        AuthTokenService.AuthToken token = authTokenService.issueToken("test.user");
+
+        assertEquals(NOW.plus(Duration.ofMinutes(15)), token.expiresAt());
+        assertEquals(Optional.of("test.user"), authTokenService.verifyToken(token.token()));
+    }
+
+    @Test
+    void verifyToken_Expired() {
+        String token = authTokenService.issueToken("testuser").token();
+        AuthTokenService later = new AuthTokenService(properties, Clock.fixed(NOW.plus(Duration.ofMinutes(16)), ZoneOffset.UTC));
+
+        assertTrue(later.verifyToken(token).isEmpty());
+    }
+
+    @Test
+    void verifyToken_TamperedUsername() {
+        String token = authTokenService.issueToken("testuser").token();
+        String forged = authTokenService.issueToken("admin").token().split("\\.")[0]
+                + token.substring(token.indexOf('.'));
+
+        assertTrue(authTokenService.verifyToken(forged).isEmpty());
+    }
+
+    @Test
+    void verifyToken_DifferentSecret() {
+        String token = authTokenService.issueToken("testuser").token();
+        TodoProperties otherProperties = new TodoProperties();
+        otherProperties.getAuthToken().setSecret("other-secret");
+        AuthTokenService other = new AuthTokenService(otherProperties, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        assertTrue(other.verifyToken(token).isEmpty());
+    }
+
+    @Test
+    void verifyToken_Malformed() {
+        assertTrue(authTokenService.verifyToken("not-a-token").isEmpty());
+        assertTrue(authTokenService.verifyToken("a.b.c").isEmpty());
+        assertTrue(authTokenService.verifyToken("..").isEmpty());
+    }
+}
@@ -0,0 +1,56 @@
+package com.oakbal.todoapp.backend.service;
+
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import com.oakbal.todoapp.backend.repository.ItemRepository;
+import com.oakbal.todoapp.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class CollectionMigrationTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private TodoProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        properties = new TodoProperties();
+    }
+
+    @Test
+    void migrate_MovesUsersThenItemsWithConfiguredBatches() {
+        properties.getCollections().setMigrationBatchSize(200);
+        properties.getCollections().setMigrationConcurrency(8);
+        when(userRepository.moveLegacyUsers(200, 8)).thenReturn(3L);
+        when(itemRepository.moveLegacyItems(200, 8)).thenReturn(42L);
+
+        CollectionMigration.Result result = new CollectionMigration(userRepository, itemRepository, properties).migrate();
+
+        assertEquals(new CollectionMigration.Result(3, 42), result);
+        InOrder order = inOrder(userRepository, itemRepository);
+        order.verify(userRepository).moveLegacyUsers(200, 8);
+        order.verify(itemRepository).moveLegacyItems(200, 8);
+    }
+
+    @Test
+    void migrate_RejectsInvalidBatchSize() {
+        properties.getCollections().setMigrationBatchSize(0);
+
+        CollectionMigration migration = new CollectionMigration(userRepository, itemRepository, properties);
+
+        assertThrows(IllegalStateException.class, migration::migrate);
+        verify(userRepository, never()).moveLegacyUsers(anyInt(), anyInt());
+    }
+}
@@ -0,0 +1,134 @@
+package com.oakbal.todoapp.backend.service;
+
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import com.oakbal.todoapp.backend.model.Item;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemListCacheTest {
+
+    private ItemListCache itemListCache;
+
+    @BeforeEach
+    void setUp() {
+        TodoProperties properties = new TodoProperties();
+        properties.getItems().getListCache().setEnabled(true);
+        itemListCache = new ItemListCache(properties);
+    }
+
+    @Test
+    void get_ConcurrentMissesShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Item> items = List.of(item("item1", "user123"));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<List<Item>>> results = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                results.add(executor.submit(() -> itemListCache.get("user123", userId -> {
+                    loads.incrementAndGet();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return items;
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<List<Item>> result : results) {
+                assertEquals(items, result.get());
+            }
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void put_ReplacesOrAppendsInOwnersList() {
+        itemListCache.get("user123", userId -> List.of(item("item1", "user123")));
+        Item updated = item("item1", "user123");
+        updated.setTitle("Updated");
+        Item created = item("item2", "user123");
+
+        itemListCache.put(updated);
+        itemListCache.put(created);
+
+        assertEquals(List.of(updated, created), itemListCache.get("user123", userId -> fail("should be cached")));
+    }
+
+    @Test
+    void patch_ChangesCopyOfCachedItem() {
+        Item original = item("item1", "user123");
+        itemListCache.get("user123", userId -> List.of(original));
+
+        itemListCache.patch("user123", "item1", item -> item.setCompleted(true));
+
+        assertTrue(itemListCache.get("user123", userId -> fail("should be cached")).get(0).isCompleted());
+        assertFalse(original.isCompleted());
+    }
+
+    @Test
+    void put_WithoutOwnerDropsListsHoldingItem() {
+        itemListCache.get("user123", userId -> List.of(item("item1", "user123")));
+        itemListCache.get("user456", userId -> List.of(item("item2", "user456")));
+
+        itemListCache.put(item("item1", null));
+
+        assertEquals(List.of(), itemListCache.get("user123", userId -> List.of()));
+        assertEquals(1, itemListCache.get("user456", userId -> fail("should be cached")).size());
+    }
+
+    @Test
+    void remove_DuringLoadKeepsResultOutOfCache() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<List<Item>> stale = executor.submit(() -> itemListCache.get("user123", userId -> {
+                loading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return List.of(item("item1", "user123"));
+            }));
+            loading.await();
+            itemListCache.remove("user123", "item1");
+            release.countDown();
+
+            assertEquals(1, stale.get().size());
+        }
+        assertEquals(List.of(), itemListCache.get("user123", userId -> List.of()));
+    }
+
+    @Test
+    void get_DisabledAlwaysLoads() {
+        ItemListCache disabled = new ItemListCache(new TodoProperties());
+        AtomicInteger loads = new AtomicInteger();
+
+        disabled.get("user123", userId -> List.of(item("item" + loads.incrementAndGet(), userId)));
+        disabled.get("user123", userId -> List.of(item("item" + loads.incrementAndGet(), userId)));
+
+        assertEquals(2, loads.get());
+    }
+
+    private static Item item(String id, String userId) {
+        Item item = new Item();
+        item.setId(id);
+        item.setUserId(userId);
+        return item;
+    }
+}
@@ -0,0 +1,122 @@
+package com.oakbal.todoapp.backend.service;
+
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import com.oakbal.todoapp.backend.model.Item;
+import com.oakbal.todoapp.backend.model.ItemSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemSearchIndexTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private ItemSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new ItemSearchIndex(new TodoProperties());
+    }
+
+    @Test
+    void tokenize_FoldsCaseAndDiacritics() {
+        assertEquals(List.of("cicek", "al", "ilac", "istanbul"), ItemSearchIndex.tokenize("Çiçek AL, ilaç/İSTANBUL"));
+        assertEquals(List.of("irmak", "irmak", "2024"), ItemSearchIndex.tokenize("IRMAK ırmak 2024"));
+        assertEquals(List.of(), ItemSearchIndex.tokenize("?! "));
+    }
+
+    @Test
+    void search_RequiresEveryTermAndRanksTitleAndWholeTermHigher() {
+        List<Item> items = List.of(
+                item("prefix", "Groceries", "milkshake", 3),
+                item("description", "Groceries", "milk", 2),
+                item("title", "Buy milk", null, 0),
+                item("other", "Buy bread", null, 1));
+
+        List<ItemSummary> results = searchIndex.search("user123", "MILK", 10, userId -> items);
+
+        assertEquals(List.of("title", "description", "prefix"), ids(results));
+        assertEquals(List.of("title"), ids(searchIndex.search("user123", "milk bu", 10, userId -> fail("should be cached"))));
+        assertEquals(List.of(), searchIndex.search("user123", "milk bread", 10, userId -> fail("should be cached")));
+    }
+
+    @Test
+    void search_BreaksTiesByMostRecentUpdateAndLimits() {
+        List<Item> items = List.of(item("old", "Walk dog", null, 0), item("new", "Walk dog", null, 5), item("mid", "Walk dog", null, 2));
+
+        assertEquals(List.of("new", "mid"), ids(searchIndex.search("user123", "walk", 2, userId -> items)));
+    }
+
+    @Test
+    void writes_UpdateIndexWithoutRebuilding() {
+        searchIndex.search("user123", "buy", 10, userId -> List.of(item("item1", "Buy milk", null, 0), item("item2", "Buy bread", null, 1)));
+
+        searchIndex.put(item("item3", "Buy eggs", null, 2));
+        searchIndex.patch("user123", "item1", item -> item.setTitle("Drink milk"));
+        searchIndex.remove("user123", "item2");
+
+        assertEquals(List.of("item3"), ids(searchIndex.search("user123", "buy", 10, userId -> fail("should be cached"))));
+        assertEquals(List.of("item1"), ids(searchIndex.search("user123", "drink", 10, userId -> fail("should be cached"))));
+
+        searchIndex.remove("user123", "item1");
+        assertEquals(List.of(), searchIndex.search("user123", "milk", 10, userId -> fail("should be cached")));
+    }
+
+    @Test
+    void put_DuringBuildKeepsIndexOutOfCache() throws Exception {
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<List<ItemSummary>> stale = executor.submit(() -> searchIndex.search("user123", "buy", 10, userId -> {
+                loads.incrementAndGet();
+                building.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return List.of(item("item1", "Buy milk", null, 0));
+            }));
+            building.await();
+            searchIndex.put(item("item2", "Buy bread", null, 1));
+            release.countDown();
+
+            assertEquals(List.of("item1"), ids(stale.get()));
+        }
+        searchIndex.search("user123", "buy", 10, userId -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void search_RejectsQueryWithoutTerms() {
+        assertThrows(IllegalArgumentException.class, () -> searchIndex.search("user123", " - ", 10, userId -> fail("should not load")));
+    }
+
+    private static Item item(String id, String title, String description, int minutes) {
+        Item item = new Item();
+        item.setId(id);
+        item.setUserId("user123");
+        item.setTitle(title);
+        item.setDescription(description);
+        item.setCreatedAt(START);
+        item.setUpdatedAt(START.plusMinutes(minutes));
+        return item;
+    }
+
+    private static List<String> ids(List<ItemSummary> summaries) {
+        return summaries.stream().map(ItemSummary::getId).toList();
+    }
+}
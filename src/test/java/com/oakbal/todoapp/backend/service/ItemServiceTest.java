@@ -1,19 +1,43 @@
 package com.oakbal.todoapp.backend.service;
 
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
 import com.oakbal.todoapp.backend.model.Item;
+import com.oakbal.todoapp.backend.model.ItemBatchOperation;
+import com.oakbal.todoapp.backend.model.ItemBatchResult;
+import com.oakbal.todoapp.backend.model.ItemChangeToken;
+import com.oakbal.todoapp.backend.model.ItemChanges;
+import com.oakbal.todoapp.backend.model.ItemCursor;
+import com.oakbal.todoapp.backend.model.ItemEvent;
+import com.oakbal.todoapp.backend.model.ItemIndex;
+import com.oakbal.todoapp.backend.model.ItemPage;
+import com.oakbal.todoapp.backend.model.ItemPatch;
+import com.oakbal.todoapp.backend.model.ItemQuery;
+import com.oakbal.todoapp.backend.model.ItemSummary;
+import com.oakbal.todoapp.backend.model.ItemSummaryPage;
+import com.oakbal.todoapp.backend.model.ItemTombstone;
 import com.oakbal.todoapp.backend.repository.ItemRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.OptimisticLockingFailureException;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 class ItemServiceTest {
@@ -21,12 +45,21 @@ class ItemServiceTest {
     @Mock
     private ItemRepository itemRepository;
 
-    @InjectMocks
+    @Mock
+    private ItemEventBroker eventBroker;
+
+    private SimpleMeterRegistry meterRegistry;
+
     private ItemService itemService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        TodoProperties properties = new TodoProperties();
+        properties.getItems().setPageSize(2);
+        properties.getItems().setMaxPageSize(3);
+        itemService = new ItemService(itemRepository, properties, meterRegistry, new ItemWriteBehindStore(itemRepository, properties, meterRegistry), eventBroker, new ItemListCache(properties), new ItemSearchIndex(properties));
     }
 
     @Test
@@ -51,6 +84,7 @@ class ItemServiceTest {
         assertNotNull(result.getCreatedAt());
         assertNotNull(result.getUpdatedAt());
         verify(itemRepository, times(1)).save(any(Item.class));
+        verify(eventBroker).publish(ItemEvent.created(result));
     }
 
     @Test
@@ -75,6 +109,7 @@ class ItemServiceTest {
         Optional<Item> result = itemService.getItemById("nonexistent");
 
         assertFalse(result.isPresent());
+        assertEquals(1.0, meterRegistry.get(TodoMetrics.NOT_FOUND).tag("entity", "item").counter().count());
     }
 
     @Test
@@ -101,31 +136,599 @@ class ItemServiceTest {
         item.setId("item123");
         item.setTitle("Updated Item");
 
-        when(itemRepository.save(any(Item.class))).thenReturn(item);
+        when(itemRepository.upsertItem(any(Item.class))).thenReturn(item);
 
-        Item result = itemService.updateItem(item);
+        Item result = itemService.updateItem(item, null);
 
         assertNotNull(result);
         assertEquals("item123", result.getId());
         assertEquals("Updated Item", result.getTitle());
         assertEquals("Item", result.getType());
         assertNotNull(result.getUpdatedAt());
-        verify(itemRepository, times(1)).save(any(Item.class));
+        verify(itemRepository, times(1)).upsertItem(any(Item.class));
+        verify(itemRepository, never()).save(any(Item.class));
+    }
+
+    @Test
+    void updateItem_WithCasUsesVersionedSave() {
+        Item item = new Item();
+        item.setId("item123");
+
+        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Item result = itemService.updateItem(item, 42L);
+
+        assertEquals(42L, result.getVersion());
+        verify(itemRepository, never()).upsertItem(any(Item.class));
+    }
+
+    @Test
+    void getItemVersion_EmptyWhileWriteIsBuffered() {
+        TodoProperties properties = new TodoProperties();
+        properties.getItems().getWriteBehind().setEnabled(true);
+        properties.getItems().getWriteBehind().setFlushInterval(Duration.ofHours(1));
+        ItemWriteBehindStore writeBehindStore = new ItemWriteBehindStore(itemRepository, properties, meterRegistry);
+        writeBehindStore.start();
+        itemService = new ItemService(itemRepository, properties, meterRegistry, writeBehindStore, eventBroker, new ItemListCache(properties), new ItemSearchIndex(properties));
+        Item item = new Item();
+        item.setId("item123");
+        itemService.updateItem(item, null);
+
+        assertTrue(itemService.getItemVersion("item123").isEmpty());
+        verify(itemRepository, never()).findVersionById(anyString());
+    }
+
+    @Test
+    void updateItem_WriteBehindSkipsSynchronousSave() {
+        TodoProperties properties = new TodoProperties();
+        properties.getItems().getWriteBehind().setEnabled(true);
+        properties.getItems().getWriteBehind().setFlushInterval(Duration.ofHours(1));
+        ItemWriteBehindStore writeBehindStore = new ItemWriteBehindStore(itemRepository, properties, meterRegistry);
+        writeBehindStore.start();
+        itemService = new ItemService(itemRepository, properties, meterRegistry, writeBehindStore, eventBroker, new ItemListCache(properties), new ItemSearchIndex(properties));
+        Item item = new Item();
+        item.setId("item123");
+        item.setCompleted(true);
+
+        itemService.updateItem(item, null);
+
+        verify(itemRepository, never()).save(any(Item.class));
+        assertTrue(itemService.getItemById("item123").orElseThrow().isCompleted());
+        verify(itemRepository, never()).findById("item123");
+    }
+
+    @Test
+    void patchItem_DelegatesWithoutReading() {
+        ItemPatch patch = new ItemPatch(null, null, true);
+        when(itemRepository.patchItem(eq("item123"), eq(patch), any(LocalDateTime.class), eq(41L))).thenReturn(42L);
+
+        long cas = itemService.patchItem("item123", "user123", patch, 41L);
+
+        assertEquals(42L, cas);
+        verify(itemRepository, never()).findById(anyString());
+        verify(itemRepository, never()).save(any(Item.class));
+        verify(itemRepository, never()).findOwnerById(anyString());
+    }
+
+    @Test
+    void patchItem_PublishesToVerifiedOwner() {
+        ItemPatch patch = new ItemPatch("Title", null, null);
+        when(itemRepository.patchItem(eq("item123"), eq(patch), any(LocalDateTime.class), isNull())).thenReturn(42L);
+
+        itemService.patchItem("item123", "user123", patch, null);
+
+        verify(eventBroker).publish(ItemEvent.patched("item123", "user123", 42L));
+        verify(itemRepository, never()).findOwnerById(anyString());
+    }
+
+    @Test
+    void patchItem_RejectsEmptyPatch() {
+        assertThrows(IllegalArgumentException.class, () -> itemService.patchItem("item123", "user123", new ItemPatch(), null));
+        verify(itemRepository, never()).patchItem(any(), any(), any(), any());
     }
 
     @Test
     void deleteItem_Success() {
-        doNothing().when(itemRepository).deleteById("item123");
+        when(itemRepository.deleteItem("item123", null)).thenReturn(Optional.of("user123"));
+
+        itemService.deleteItem("item123", null);
 
-        itemService.deleteItem("item123");
+        verify(itemRepository, times(1)).deleteItem("item123", null);
+        verify(itemRepository, never()).deleteById(anyString());
+        verify(eventBroker).publish(ItemEvent.deleted("item123", "user123"));
+    }
+
+    @Test
+    void deleteItem_WithCas() {
+        itemService.deleteItem("item123", 42L);
 
-        verify(itemRepository, times(1)).deleteById("item123");
+        verify(itemRepository, times(1)).deleteItem("item123", 42L);
     }
 
     @Test
     void deleteItem_ItemNotFound() {
-        doThrow(new RuntimeException("Item not found")).when(itemRepository).deleteById("nonexistent");
+        doThrow(new RuntimeException("Item not found")).when(itemRepository).deleteItem("nonexistent", null);
+
+        assertThrows(RuntimeException.class, () -> itemService.deleteItem("nonexistent", null));
+    }
+
+    @Test
+    void getChanges_InitialSyncSkipsTombstones() {
+        Item item1 = changedItem("item1", LocalDateTime.of(2024, 1, 1, 10, 0));
+        when(itemRepository.findItemChanges(eq("user123"), isNull(), any(LocalDateTime.class), eq(3))).thenReturn(List.of(item1));
+
+        ItemChanges result = itemService.getChanges("user123", null, null);
+
+        assertEquals(List.of(item1), result.getItems());
+        assertTrue(result.getDeleted().isEmpty());
+        assertFalse(result.isHasMore());
+        assertNotNull(result.getNextToken());
+        verify(itemRepository, never()).findItemTombstones(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getChanges_MergesItemsAndTombstonesInChangeOrder() {
+        LocalDateTime since = LocalDateTime.now().minusHours(1);
+        Item item1 = changedItem("item1", since.plusMinutes(1));
+        Item item3 = changedItem("item3", since.plusMinutes(3));
+        ItemTombstone deleted2 = new ItemTombstone("item2", "user123", since.plusMinutes(2));
+        ItemTombstone deleted4 = new ItemTombstone("item4", "user123", since.plusMinutes(4));
+        ItemChangeToken token = new ItemChangeToken(since, "");
+        when(itemRepository.findItemChanges(eq("user123"), eq(token), any(LocalDateTime.class), eq(3))).thenReturn(List.of(item1, item3));
+        when(itemRepository.findItemTombstones(eq("user123"), eq(token), any(LocalDateTime.class), eq(3))).thenReturn(List.of(deleted2, deleted4));
+
+        ItemChanges result = itemService.getChanges("user123", token.encode(), null);
+
+        assertEquals(List.of(item1), result.getItems());
+        assertEquals(List.of("item2"), result.getDeleted());
+        assertTrue(result.isHasMore());
+        assertEquals(ItemChangeToken.after(deleted2), ItemChangeToken.decode(result.getNextToken()));
+    }
+
+    @Test
+    void toChanges_IdleFeedAdvancesTokenToHorizon() {
+        LocalDateTime until = LocalDateTime.of(2024, 1, 1, 10, 0);
+        ItemChangeToken since = new ItemChangeToken(until.minusHours(1), "item1");
+
+        ItemChanges result = ItemService.toChanges(List.of(), List.of(), 2, since, until);
+
+        assertFalse(result.isHasMore());
+        assertEquals(new ItemChangeToken(until, ""), ItemChangeToken.decode(result.getNextToken()));
+    }
+
+    @Test
+    void getChanges_RejectsTokenOlderThanTombstoneTtl() {
+        String since = new ItemChangeToken(LocalDateTime.now().minusDays(31), "").encode();
+
+        assertThrows(ExpiredChangeTokenException.class, () -> itemService.getChanges("user123", since, null));
+        verify(itemRepository, never()).findItemChanges(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getItemPage_LastPageHasNoCursor() {
+        ItemQuery query = new ItemQuery();
+        Item item1 = item("item1", LocalDateTime.of(2024, 1, 1, 10, 0));
+
+        when(itemRepository.findItemPage("user123", query, null, 3)).thenReturn(List.of(item1));
+
+        ItemPage result = itemService.getItemPage("user123", query);
+
+        assertEquals(1, result.getItems().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void getItemPage_ReturnsCursorOfLastItemWhenMoreExist() {
+        ItemQuery query = new ItemQuery();
+        Item item1 = item("item1", LocalDateTime.of(2024, 1, 1, 10, 0));
+        Item item2 = item("item2", LocalDateTime.of(2024, 1, 1, 11, 0));
+        Item item3 = item("item3", LocalDateTime.of(2024, 1, 1, 12, 0));
+
+        when(itemRepository.findItemPage("user123", query, null, 3)).thenReturn(List.of(item1, item2, item3));
+
+        ItemPage result = itemService.getItemPage("user123", query);
+
+        assertEquals(2, result.getItems().size());
+        assertEquals(ItemCursor.after(item2), ItemCursor.decode(result.getNextCursor()));
+    }
+
+    @Test
+    void getItemPage_CursorSurvivesItemWithoutCreatedAt() {
+        ItemQuery query = new ItemQuery();
+        Item item1 = item("item1", null);
+        Item item2 = item("item2", null);
+        Item item3 = item("item3", LocalDateTime.of(2024, 1, 1, 12, 0));
+
+        when(itemRepository.findItemPage("user123", query, null, 3)).thenReturn(List.of(item1, item2, item3));
+
+        ItemPage result = itemService.getItemPage("user123", query);
+
+        assertEquals(new ItemCursor(null, "item2"), ItemCursor.decode(result.getNextCursor()));
+    }
+
+    @Test
+    void getItemPage_DecodesCursorAndCapsLimit() {
+        ItemCursor cursor = new ItemCursor(LocalDateTime.of(2024, 1, 1, 10, 0), "item1");
+        ItemQuery query = new ItemQuery();
+        query.setCursor(cursor.encode());
+        query.setLimit(1000);
+
+        when(itemRepository.findItemPage(eq("user123"), eq(query), eq(cursor), eq(4))).thenReturn(List.of());
+
+        ItemPage result = itemService.getItemPage("user123", query);
+
+        assertTrue(result.getItems().isEmpty());
+        verify(itemRepository, never()).findItemPage(anyString(), any(), isNull(), anyInt());
+    }
+
+    @Test
+    void getItemPage_InvalidCursor() {
+        ItemQuery query = new ItemQuery();
+        query.setCursor("not-a-cursor");
+
+        assertThrows(IllegalArgumentException.class, () -> itemService.getItemPage("user123", query));
+    }
+
+    @Test
+    void getItemPage_InvalidLimit() {
+        ItemQuery query = new ItemQuery();
+        query.setLimit(0);
+
+        assertThrows(IllegalArgumentException.class, () -> itemService.getItemPage("user123", query));
+    }
+
+    @Test
+    void applyBatch_StampsOperationsAndDelegates() {
+        Item created = new Item();
+        created.setTitle("Created");
+        Item updated = new Item();
+        updated.setTitle("Updated");
+        List<ItemBatchOperation> operations = List.of(
+                new ItemBatchOperation(ItemBatchOperation.Type.CREATE, null, created),
+                new ItemBatchOperation(ItemBatchOperation.Type.UPDATE, "item2", updated),
+                new ItemBatchOperation(ItemBatchOperation.Type.DELETE, "item3", null, "user456"));
+        List<ItemBatchResult> results = List.of(
+                ItemBatchResult.success(0, 201, created),
+                ItemBatchResult.success(1, 200, updated),
+                ItemBatchResult.deleted(2, "item3"));
+
+        when(itemRepository.executeBatch(operations, 32)).thenReturn(results);
+
+        List<ItemBatchResult> result = itemService.applyBatch("user123", operations);
+
+        assertSame(results, result);
+        assertEquals("user123", created.getUserId());
+        assertNotNull(created.getCreatedAt());
+        assertEquals(created.getCreatedAt(), created.getUpdatedAt());
+        assertEquals("item2", updated.getId());
+        assertEquals("user123", updated.getUserId());
+        assertNotNull(updated.getUpdatedAt());
+        assertEquals(List.of("user123", "user123", "user123"), operations.stream().map(ItemBatchOperation::getUserId).toList());
+    }
+
+    @Test
+    void applyBatch_RejectsOversizedBatch() {
+        List<ItemBatchOperation> operations = new ArrayList<>();
+        for (int i = 0; i < 501; i++) {
+            operations.add(new ItemBatchOperation(ItemBatchOperation.Type.DELETE, "item" + i, null));
+        }
 
-        assertThrows(RuntimeException.class, () -> itemService.deleteItem("nonexistent"));
+        assertThrows(IllegalArgumentException.class, () -> itemService.applyBatch("user123", operations));
+        verify(itemRepository, never()).executeBatch(any(), anyInt());
+    }
+
+    @Test
+    void applyBatch_RejectsUpdateWithoutId() {
+        List<ItemBatchOperation> operations = List.of(
+                new ItemBatchOperation(ItemBatchOperation.Type.UPDATE, null, new Item()));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> itemService.applyBatch("user123", operations));
+        assertEquals("operations[0]: id is required", e.getMessage());
+        verify(itemRepository, never()).executeBatch(any(), anyInt());
+    }
+
+    private static Item changedItem(String id, LocalDateTime updatedAt) {
+        Item item = new Item();
+        item.setId(id);
+        item.setUpdatedAt(updatedAt);
+        return item;
+    }
+
+    @Test
+    void getItemPage_IndexModeListsFromIndexWithoutQuery() {
+        ItemService indexedService = indexedItemService();
+        Item item1 = item("item1", LocalDateTime.of(2024, 1, 1, 10, 0));
+        Item item2 = item("item2", LocalDateTime.of(2024, 1, 1, 11, 0));
+        Item item3 = item("item3", LocalDateTime.of(2024, 1, 1, 12, 0));
+        ItemIndex index = new ItemIndex("user123", List.of(ItemSummary.of(item3), ItemSummary.of(item1), ItemSummary.of(item2)));
+
+        when(itemRepository.findItemIndex("user123")).thenReturn(Optional.of(index));
+        when(itemRepository.findAllById(List.of("item1", "item2", "item3"))).thenReturn(List.of(item3, item1, item2));
+
+        ItemPage result = indexedService.getItemPage("user123", new ItemQuery());
+
+        assertEquals(List.of(item1, item2), result.getItems());
+        assertEquals(ItemCursor.after(item2), ItemCursor.decode(result.getNextCursor()));
+        verify(itemRepository, never()).findItemPage(anyString(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getItemPage_IndexModeRebuildsMissingIndex() {
+        ItemService indexedService = indexedItemService();
+        Item item1 = item("item1", LocalDateTime.of(2024, 1, 1, 10, 0));
+
+        when(itemRepository.findItemIndex("user123")).thenReturn(Optional.empty());
+        when(itemRepository.findCurrentItemsByUserId("user123")).thenReturn(List.of(item1));
+        when(itemRepository.createItemIndex(any(ItemIndex.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(itemRepository.findAllById(List.of("item1"))).thenReturn(List.of(item1));
+
+        ItemPage result = indexedService.getItemPage("user123", new ItemQuery());
+
+        assertEquals(List.of(item1), result.getItems());
+        verify(itemRepository).createItemIndex(argThat(index -> index.getItems().containsKey("item1")));
+        verify(itemRepository, never()).replaceItemIndex(any());
+        assertEquals(1.0, meterRegistry.get(TodoMetrics.ITEM_INDEX_REPAIRS).tag("reason", "rebuilt").counter().count());
+    }
+
+    @Test
+    void getItemPage_IndexModeUsesIndexCreatedByConcurrentListing() {
+        ItemService indexedService = indexedItemService();
+        Item item1 = item("item1", LocalDateTime.of(2024, 1, 1, 10, 0));
+        Item item2 = item("item2", LocalDateTime.of(2024, 1, 1, 11, 0));
+
+        when(itemRepository.findItemIndex("user123")).thenReturn(Optional.empty());
+        when(itemRepository.findCurrentItemsByUserId("user123")).thenReturn(List.of(item1));
+        when(itemRepository.createItemIndex(any(ItemIndex.class)))
+                .thenReturn(new ItemIndex("user123", List.of(ItemSummary.of(item1), ItemSummary.of(item2))));
+        when(itemRepository.findAllById(List.of("item1", "item2"))).thenReturn(List.of(item1, item2));
+
+        assertEquals(List.of(item1, item2), indexedService.getItemPage("user123", new ItemQuery()).getItems());
+    }
+
+    @Test
+    void rebuildItemIndex_StartsOverWhenIndexChangesMeanwhile() {
+        ItemService indexedService = indexedItemService();
+        Item item1 = item("item1", LocalDateTime.of(2024, 1, 1, 10, 0));
+        Item item2 = item("item2", LocalDateTime.of(2024, 1, 1, 11, 0));
+        ItemIndex first = new ItemIndex("user123", List.of());
+        first.setVersion(5L);
+        ItemIndex second = new ItemIndex("user123", List.of(ItemSummary.of(item2)));
+        second.setVersion(6L);
+
+        when(itemRepository.findItemIndex("user123")).thenReturn(Optional.of(first), Optional.of(second));
+        when(itemRepository.findCurrentItemsByUserId("user123")).thenReturn(List.of(item1), List.of(item1, item2));
+        when(itemRepository.replaceItemIndex(any(ItemIndex.class)))
+                .thenThrow(new OptimisticLockingFailureException("modified"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        ItemIndex rebuilt = indexedService.rebuildItemIndex("user123");
+
+        assertEquals(6L, rebuilt.getVersion());
+        assertEquals(Set.of("item1", "item2"), rebuilt.getItems().keySet());
+        verify(itemRepository, never()).createItemIndex(any());
+        assertEquals(1.0, meterRegistry.get(TodoMetrics.ITEM_INDEX_REPAIRS).tag("reason", "rebuilt").counter().count());
+    }
+
+    @Test
+    void getItemPage_IndexModeDropsEntriesOfMissingItems() {
+        ItemService indexedService = indexedItemService();
+        Item item1 = item("item1", LocalDateTime.of(2024, 1, 1, 10, 0));
+        Item gone = item("gone", LocalDateTime.of(2024, 1, 1, 11, 0));
+        ItemIndex index = new ItemIndex("user123", List.of(ItemSummary.of(item1), ItemSummary.of(gone)));
+
+        when(itemRepository.findItemIndex("user123")).thenReturn(Optional.of(index));
+        when(itemRepository.findAllById(List.of("item1", "gone"))).thenReturn(List.of(item1));
+
+        ItemPage result = indexedService.getItemPage("user123", new ItemQuery());
+
+        assertEquals(List.of(item1), result.getItems());
+        verify(itemRepository).unindexItems("user123", List.of("gone"));
+        assertEquals(1.0, meterRegistry.get(TodoMetrics.ITEM_INDEX_REPAIRS).tag("reason", "stale").counter().count());
+    }
+
+    @Test
+    void selectFromIndex_AppliesFiltersAndCursor() {
+        Item first = item("item1", LocalDateTime.of(2024, 1, 1, 10, 0));
+        first.setTitle("Buy milk");
+        Item done = item("item2", LocalDateTime.of(2024, 1, 1, 11, 0));
+        done.setTitle("Buy bread");
+        done.setCompleted(true);
+        Item later = item("item3", LocalDateTime.of(2024, 1, 1, 12, 0));
+        later.setTitle("Buy eggs");
+        Item other = item("item4", LocalDateTime.of(2024, 1, 1, 13, 0));
+        other.setTitle("Call mom");
+        ItemIndex index = new ItemIndex("user123", List.of(ItemSummary.of(first), ItemSummary.of(done), ItemSummary.of(later), ItemSummary.of(other)));
+        ItemQuery query = new ItemQuery();
+        query.setCompleted(false);
+        query.setTitlePrefix("Buy");
+
+        assertEquals(List.of("item1", "item3"), ItemService.selectFromIndex(index, query, null, 10));
+        assertEquals(List.of("item3"), ItemService.selectFromIndex(index, query, ItemCursor.after(first), 10));
+        assertEquals(List.of("item1"), ItemService.selectFromIndex(index, query, null, 1));
+    }
+
+    @Test
+    void createAndDeleteItem_IndexModeMaintainsIndex() {
+        ItemService indexedService = indexedItemService();
+        Item item = new Item();
+        item.setTitle("Test Item");
+        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> {
+            Item saved = invocation.getArgument(0);
+            saved.setId("item123");
+            return saved;
+        });
+        when(itemRepository.deleteItem("item123", null)).thenReturn(Optional.of("user123"));
+
+        indexedService.createItem(item, "user123");
+        indexedService.deleteItem("item123", null);
+
+        verify(itemRepository).indexItems(eq("user123"), argThat(summaries -> summaries.size() == 1
+                && summaries.iterator().next().getId().equals("item123")));
+        verify(itemRepository).unindexItems("user123", List.of("item123"));
+    }
+
+    @Test
+    void patchItem_IndexModeUpdatesOwnersIndex() {
+        ItemService indexedService = indexedItemService();
+        ItemPatch patch = new ItemPatch(null, null, true);
+        when(itemRepository.patchItem(eq("item123"), eq(patch), any(LocalDateTime.class), isNull())).thenReturn(42L);
+
+        indexedService.patchItem("item123", "user123", patch, null);
+
+        verify(itemRepository).patchItemIndex(eq("user123"), eq("item123"), eq(patch), any(LocalDateTime.class));
+        verify(itemRepository, never()).findOwnerById(anyString());
+    }
+
+    @Test
+    void indexChanges_SplitsSuccessfulWritesAndDeletes() {
+        Item created = item("item1", LocalDateTime.of(2024, 1, 1, 10, 0));
+        List<ItemBatchResult> results = List.of(
+                ItemBatchResult.success(0, 201, created),
+                ItemBatchResult.deleted(1, "item2"),
+                ItemBatchResult.failure(2, "item3", 404, "Item not found"));
+
+        ItemService.IndexChanges changes = ItemService.indexChanges(results);
+
+        assertEquals(List.of(ItemSummary.of(created)), changes.written());
+        assertEquals(List.of("item2"), changes.deleted());
+    }
+
+    @Test
+    void getItemSummaryPage_UsesProjectionQuery() {
+        ItemQuery query = new ItemQuery();
+        ItemSummary summary1 = ItemSummary.of(item("item1", LocalDateTime.of(2024, 1, 1, 10, 0)));
+        ItemSummary summary2 = ItemSummary.of(item("item2", LocalDateTime.of(2024, 1, 1, 11, 0)));
+        ItemSummary summary3 = ItemSummary.of(item("item3", LocalDateTime.of(2024, 1, 1, 12, 0)));
+
+        when(itemRepository.findItemSummaryPage("user123", query, null, 3)).thenReturn(List.of(summary1, summary2, summary3));
+
+        ItemSummaryPage result = itemService.getItemSummaryPage("user123", query);
+
+        assertEquals(List.of(summary1, summary2), result.getItems());
+        assertEquals(ItemCursor.after(summary2), ItemCursor.decode(result.getNextCursor()));
+        verify(itemRepository, never()).findItemPage(anyString(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getItemSummaryPage_IndexModeDoesNotReadItems() {
+        ItemService indexedService = indexedItemService();
+        Item item1 = item("item1", LocalDateTime.of(2024, 1, 1, 10, 0));
+        item1.setCompleted(true);
+        Item item2 = item("item2", LocalDateTime.of(2024, 1, 1, 11, 0));
+        ItemIndex index = new ItemIndex("user123", List.of(ItemSummary.of(item2), ItemSummary.of(item1)));
+        ItemQuery query = new ItemQuery();
+        query.setCompleted(true);
+
+        when(itemRepository.findItemIndex("user123")).thenReturn(Optional.of(index));
+
+        ItemSummaryPage result = indexedService.getItemSummaryPage("user123", query);
+
+        assertEquals(List.of(ItemSummary.of(item1)), result.getItems());
+        assertNull(result.getNextCursor());
+        verify(itemRepository, never()).findAllById(any());
+        verify(itemRepository, never()).findItemSummaryPage(anyString(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getItemsByUserId_ListCacheQueriesOncePerUser() {
+        ItemService cachedService = cachedItemService();
+        Item item1 = item("item1", LocalDateTime.of(2024, 1, 1, 10, 0));
+        item1.setUserId("user123");
+
+        when(itemRepository.findCurrentItemsByUserId("user123")).thenReturn(List.of(item1));
+
+        cachedService.getItemsByUserId("user123");
+        List<Item> result = cachedService.getItemsByUserId("user123");
+
+        assertEquals(List.of(item1), result);
+        verify(itemRepository, times(1)).findCurrentItemsByUserId("user123");
+        verify(itemRepository, never()).findItemByUserId(anyString());
+    }
+
+    @Test
+    void createAndDeleteItem_ListCacheUpdatedInPlace() {
+        ItemService cachedService = cachedItemService();
+        Item existing = item("item1", LocalDateTime.of(2024, 1, 1, 10, 0));
+        existing.setUserId("user123");
+        Item created = new Item();
+        created.setId("item2");
+
+        when(itemRepository.findCurrentItemsByUserId("user123")).thenReturn(List.of(existing));
+        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(itemRepository.deleteItem("item1", null)).thenReturn(Optional.of("user123"));
+
+        cachedService.getItemsByUserId("user123");
+        cachedService.createItem(created, "user123");
+        cachedService.deleteItem("item1", null);
+
+        assertEquals(List.of(created), cachedService.getItemsByUserId("user123"));
+        verify(itemRepository, times(1)).findCurrentItemsByUserId("user123");
+    }
+
+    @Test
+    void getItemPage_ListCacheFiltersAndPagesInMemory() {
+        ItemService cachedService = cachedItemService();
+        Item item1 = item("item1", LocalDateTime.of(2024, 1, 1, 10, 0));
+        Item item2 = item("item2", LocalDateTime.of(2024, 1, 1, 11, 0));
+        item2.setCompleted(true);
+        Item item3 = item("item3", LocalDateTime.of(2024, 1, 1, 12, 0));
+        item3.setCompleted(true);
+        Item item4 = item("item4", LocalDateTime.of(2024, 1, 1, 13, 0));
+        item4.setCompleted(true);
+        ItemQuery query = new ItemQuery();
+        query.setCompleted(true);
+
+        when(itemRepository.findCurrentItemsByUserId("user123")).thenReturn(List.of(item4, item1, item3, item2));
+
+        ItemPage result = cachedService.getItemPage("user123", query);
+
+        assertEquals(List.of(item2, item3), result.getItems());
+        assertEquals(ItemCursor.after(item3), ItemCursor.decode(result.getNextCursor()));
+        verify(itemRepository, never()).findItemPage(anyString(), any(), any(), anyInt());
+    }
+
+    @Test
+    void searchItems_BuildsIndexOnceAndFollowsWrites() {
+        Item existing = item("item1", LocalDateTime.of(2024, 1, 1, 10, 0));
+        existing.setUserId("user123");
+        existing.setTitle("Buy milk");
+        Item created = new Item();
+        created.setId("item2");
+        created.setTitle("Buy bread");
+
+        when(itemRepository.findCurrentItemsByUserId("user123")).thenReturn(List.of(existing));
+        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(itemRepository.patchItem(eq("item1"), any(), any(), isNull())).thenReturn(7L);
+
+        assertEquals(List.of("item1"), itemService.searchItems("user123", "buy", null).stream().map(ItemSummary::getId).toList());
+        itemService.createItem(created, "user123");
+        itemService.patchItem("item1", "user123", new ItemPatch("Sell milk", null, null), null);
+
+        assertEquals(List.of("item2"), itemService.searchItems("user123", "buy", null).stream().map(ItemSummary::getId).toList());
+        assertEquals(List.of("item1"), itemService.searchItems("user123", "sell", null).stream().map(ItemSummary::getId).toList());
+        verify(itemRepository, times(1)).findCurrentItemsByUserId("user123");
+        assertThrows(IllegalArgumentException.class, () -> itemService.searchItems("user123", null, null));
+    }
+
+    private ItemService cachedItemService() {
+        TodoProperties properties = new TodoProperties();
+        properties.getItems().setPageSize(2);
+        properties.getItems().getListCache().setEnabled(true);
+        return new ItemService(itemRepository, properties, meterRegistry, new ItemWriteBehindStore(itemRepository, properties, meterRegistry), eventBroker, new ItemListCache(properties), new ItemSearchIndex(properties));
+    }
+
+    private ItemService indexedItemService() {
+        TodoProperties properties = new TodoProperties();
+        properties.getItems().setPageSize(2);
+        properties.getItems().getIndex().setEnabled(true);
+        return new ItemService(itemRepository, properties, meterRegistry, new ItemWriteBehindStore(itemRepository, properties, meterRegistry), eventBroker, new ItemListCache(properties), new ItemSearchIndex(properties));
+    }
+
+    private static Item item(String id, LocalDateTime createdAt) {
+        Item item = new Item();
+        item.setId(id);
+        item.setCreatedAt(createdAt);
+        return item;
     }
-}
\ No newline at end of file
+}
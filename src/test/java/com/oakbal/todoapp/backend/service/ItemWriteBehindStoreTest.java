@@ -0,0 +1,228 @@
+package com.oakbal.todoapp.backend.service;
+
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import com.oakbal.todoapp.backend.model.Item;
+import com.oakbal.todoapp.backend.model.ItemBatchOperation;
+import com.oakbal.todoapp.backend.model.ItemBatchResult;
+import com.oakbal.todoapp.backend.repository.ItemRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ItemWriteBehindStoreTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Captor
+    private ArgumentCaptor<List<ItemBatchOperation>> operations;
+
+    private TodoProperties properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ItemWriteBehindStore store;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        properties = new TodoProperties();
+        TodoProperties.WriteBehind writeBehind = properties.getItems().getWriteBehind();
+        writeBehind.setEnabled(true);
+        writeBehind.setFlushInterval(Duration.ofHours(1));
+        writeBehind.setMaxPending(2);
+        meterRegistry = new SimpleMeterRegistry();
+        store = new ItemWriteBehindStore(itemRepository, properties, meterRegistry);
+        store.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        doAnswer(invocation -> succeed(invocation.getArgument(0))).when(itemRepository).executeBatch(anyList(), anyInt());
+        store.stop();
+    }
+
+    @Test
+    void enqueue_CoalescesUpdatesToOneWrite() {
+        store.enqueue(item("item1", false));
+        store.enqueue(item("item1", true));
+        when(itemRepository.executeBatch(anyList(), anyInt())).thenAnswer(invocation -> succeed(invocation.getArgument(0)));
+
+        assertEquals(1, store.flush());
+
+        verify(itemRepository).executeBatch(operations.capture(), anyInt());
+        assertEquals(1, operations.getValue().size());
+        assertTrue(operations.getValue().get(0).getItem().isCompleted());
+        assertEquals(1.0, meterRegistry.get("todo.write.behind.writes").tag("result", "coalesced").counter().count());
+        assertTrue(store.get("item1").isEmpty());
+    }
+
+    @Test
+    void flush_StampsUpdatedAtWhenPersisted() {
+        LocalDateTime buffered = LocalDateTime.now().minusMinutes(5);
+        Item item = item("item1", true);
+        item.setUpdatedAt(buffered);
+        store.enqueue(item);
+        when(itemRepository.executeBatch(anyList(), anyInt())).thenThrow(new IllegalStateException("cluster unavailable"))
+                .thenAnswer(invocation -> succeed(invocation.getArgument(0)));
+
+        store.flush();
+        store.flush();
+
+        verify(itemRepository, times(2)).executeBatch(operations.capture(), anyInt());
+        assertTrue(operations.getValue().get(0).getItem().getUpdatedAt().isAfter(buffered));
+        assertEquals(buffered, item.getUpdatedAt());
+    }
+
+    @Test
+    void get_ReturnsBufferedVersionAndOverlaysQueryResults() {
+        store.enqueue(item("item1", true));
+
+        assertTrue(store.get("item1").orElseThrow().isCompleted());
+        List<Item> overlaid = store.overlay(List.of(item("item1", false), item("item2", false)));
+        assertTrue(overlaid.get(0).isCompleted());
+        assertFalse(overlaid.get(1).isCompleted());
+    }
+
+    @Test
+    void enqueue_RejectsNewItemsWhenFull() {
+        assertTrue(store.enqueue(item("item1", true)));
+        assertTrue(store.enqueue(item("item2", true)));
+
+        assertFalse(store.enqueue(item("item3", true)));
+        assertTrue(store.enqueue(item("item1", false)));
+    }
+
+    @Test
+    void enqueue_FallsBackWhenNotRunning() {
+        store.stop();
+
+        assertFalse(store.enqueue(item("item1", true)));
+    }
+
+    @Test
+    void flush_RequeuesFailuresAndDropsDeletedItems() {
+        store.enqueue(item("item1", true));
+        store.enqueue(item("item2", true));
+        when(itemRepository.executeBatch(anyList(), anyInt())).thenAnswer(invocation -> {
+            List<ItemBatchOperation> operations = invocation.getArgument(0);
+            return operations.stream()
+                    .map(operation -> ItemBatchResult.failure(operations.indexOf(operation), operation.getId(),
+                            operation.getId().equals("item1") ? 500 : 404, "failed"))
+                    .toList();
+        });
+
+        store.flush();
+
+        assertTrue(store.get("item1").isPresent());
+        assertTrue(store.get("item2").isEmpty());
+        assertEquals(1.0, meterRegistry.get("todo.write.behind.writes").tag("result", "dropped").counter().count());
+    }
+
+    @Test
+    void discard_RemovesBufferedUpdate() {
+        store.enqueue(item("item1", true));
+
+        store.discard("item1");
+
+        assertTrue(store.get("item1").isEmpty());
+        assertEquals(0, store.flush());
+    }
+
+    @Test
+    void writeDirectly_HoldsBufferedUpdateBackUntilPatchIsApplied() {
+        store.enqueue(item("item1", false));
+        when(itemRepository.executeBatch(anyList(), anyInt())).thenAnswer(invocation -> succeed(invocation.getArgument(0)));
+
+        store.writeDirectly(List.of("item1"), () -> {
+            assertEquals(0, store.flush());
+            store.applyIfPresent("item1", item -> item.setTitle("Patched"));
+            return null;
+        });
+
+        assertEquals(1, store.flush());
+        verify(itemRepository).executeBatch(operations.capture(), anyInt());
+        assertEquals("Patched", operations.getValue().get(0).getItem().getTitle());
+    }
+
+    @Test
+    void writeDirectly_WaitsForFlushInFlight() throws Exception {
+        store.enqueue(item("item1", false));
+        List<String> writes = new CopyOnWriteArrayList<>();
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch landed = new CountDownLatch(1);
+        when(itemRepository.executeBatch(anyList(), anyInt())).thenAnswer(invocation -> {
+            flushing.countDown();
+            landed.await();
+            writes.add("flush");
+            return succeed(invocation.getArgument(0));
+        });
+        CompletableFuture<Integer> flush = CompletableFuture.supplyAsync(store::flush);
+        flushing.await();
+
+        CompletableFuture<Boolean> patch = CompletableFuture.supplyAsync(() -> store.writeDirectly(List.of("item1"), () -> writes.add("patch")));
+
+        assertThrows(TimeoutException.class, () -> patch.get(100, TimeUnit.MILLISECONDS));
+        landed.countDown();
+        patch.get(5, TimeUnit.SECONDS);
+        assertEquals(1, flush.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("flush", "patch"), writes);
+    }
+
+    @Test
+    void stop_DrainsPendingWrites() {
+        store.enqueue(item("item1", true));
+        when(itemRepository.executeBatch(anyList(), anyInt())).thenAnswer(invocation -> succeed(invocation.getArgument(0)));
+
+        store.stop();
+
+        verify(itemRepository).executeBatch(anyList(), anyInt());
+        assertTrue(store.get("item1").isEmpty());
+    }
+
+    @Test
+    void stop_PausesBetweenFailedDrainRounds() {
+        TodoProperties.WriteBehind writeBehind = properties.getItems().getWriteBehind();
+        writeBehind.setFlushInterval(Duration.ofMillis(100));
+        writeBehind.setShutdownTimeout(Duration.ofMillis(250));
+        store.enqueue(item("item1", true));
+        when(itemRepository.executeBatch(anyList(), anyInt())).thenThrow(new IllegalStateException("cluster unavailable"));
+
+        store.stop();
+
+        verify(itemRepository, atMost(3)).executeBatch(anyList(), anyInt());
+        assertTrue(store.get("item1").isPresent());
+    }
+
+    private static List<ItemBatchResult> succeed(List<ItemBatchOperation> operations) {
+        return operations.stream()
+                .map(operation -> ItemBatchResult.success(operations.indexOf(operation), 200, operation.getItem()))
+                .toList();
+    }
+
+    private static Item item(String id, boolean completed) {
+        Item item = new Item();
+        item.setId(id);
+        item.setCompleted(completed);
+        return item;
+    }
+}
@@ -0,0 +1,96 @@
+package com.oakbal.todoapp.backend.service;
+
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import com.oakbal.todoapp.backend.model.ItemEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalItemEventBrokerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private LocalItemEventBroker broker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        TodoProperties properties = new TodoProperties();
+        properties.getItems().getEvents().setBufferSize(2);
+        properties.getItems().getEvents().setMaxSubscribersPerUser(2);
+        broker = new LocalItemEventBroker(properties, meterRegistry, Schedulers.immediate());
+    }
+
+    @Test
+    void publish_DeliversOnlyToOwner() {
+        List<ItemEvent> received = new CopyOnWriteArrayList<>();
+        List<ItemEvent> otherReceived = new CopyOnWriteArrayList<>();
+        Disposable subscription = broker.subscribe("user123").subscribe(received::add);
+        Disposable otherSubscription = broker.subscribe("user456").subscribe(otherReceived::add);
+
+        broker.publish(ItemEvent.deleted("item1", "user123"));
+
+        assertEquals(List.of(ItemEvent.deleted("item1", "user123")), received);
+        assertTrue(otherReceived.isEmpty());
+        subscription.dispose();
+        otherSubscription.dispose();
+    }
+
+    @Test
+    void subscribe_CancelReleasesRegistration() {
+        Disposable subscription = broker.subscribe("user123").subscribe();
+        assertTrue(broker.hasSubscribers());
+
+        subscription.dispose();
+
+        assertFalse(broker.hasSubscribers());
+        assertEquals(0, broker.subscriberCount());
+    }
+
+    @Test
+    void subscribe_RejectsBeyondPerUserLimit() {
+        broker.subscribe("user123").subscribe();
+        broker.subscribe("user123").subscribe();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+
+        broker.subscribe("user123").subscribe(event -> { }, error::set);
+
+        assertInstanceOf(SubscriberLimitExceededException.class, error.get());
+        assertEquals(2, broker.subscriberCount());
+        assertEquals(1.0, meterRegistry.get("todo.item.events").tag("result", "rejected").counter().count());
+    }
+
+    @Test
+    void publish_DropsSlowConsumer() {
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        // Never requests, so nothing leaves the stream's buffer
+        broker.subscribe("user123").subscribe(new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+            }
+
+            @Override
+            protected void hookOnError(Throwable throwable) {
+                error.set(throwable);
+            }
+        });
+
+        for (int i = 0; i < 3; i++) {
+            broker.publish(ItemEvent.deleted("item" + i, "user123"));
+        }
+
+        assertNotNull(error.get());
+        assertFalse(broker.hasSubscribers());
+        assertEquals(1.0, meterRegistry.get("todo.item.events").tag("result", "dropped").counter().count());
+    }
+}
@@ -0,0 +1,99 @@
+package com.oakbal.todoapp.backend.service;
+
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        TodoProperties properties = new TodoProperties();
+        properties.getRateLimit().getRoutes().put("login", route("/users/login", 2, Duration.ofSeconds(10), TodoProperties.RateLimitRoute.Key.IP));
+        properties.getRateLimit().getRoutes().put("items", route("/items/**", 2, Duration.ofSeconds(10), TodoProperties.RateLimitRoute.Key.USER));
+        rateLimiter = new RateLimiter(properties, meterRegistry, now::get);
+    }
+
+    @Test
+    void acquire_RejectsBurstBeyondCapacityUntilRefill() {
+        assertTrue(rateLimiter.acquire("/users/login", "10.0.0.1", Optional::empty).isZero());
+        assertTrue(rateLimiter.acquire("/users/login", "10.0.0.1", Optional::empty).isZero());
+
+        assertEquals(Duration.ofSeconds(5), rateLimiter.acquire("/users/login", "10.0.0.1", Optional::empty));
+        assertEquals(1.0, meterRegistry.get("todo.rate.limit.rejected").tag("route", "login").counter().count());
+
+        now.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertTrue(rateLimiter.acquire("/users/login", "10.0.0.1", Optional::empty).isZero());
+    }
+
+    @Test
+    void acquire_KeepsSeparateBucketsPerClient() {
+        rateLimiter.acquire("/users/login", "10.0.0.1", Optional::empty);
+        rateLimiter.acquire("/users/login", "10.0.0.1", Optional::empty);
+
+        assertTrue(rateLimiter.acquire("/users/login", "10.0.0.2", Optional::empty).isZero());
+    }
+
+    @Test
+    void acquire_KeysUserRoutesByUser() {
+        rateLimiter.acquire("/items/1", "10.0.0.1", () -> Optional.of("alice"));
+        rateLimiter.acquire("/items/2", "10.0.0.1", () -> Optional.of("alice"));
+
+        assertFalse(rateLimiter.acquire("/items/3", "10.0.0.2", () -> Optional.of("alice")).isZero());
+        assertTrue(rateLimiter.acquire("/items/3", "10.0.0.1", () -> Optional.of("bob")).isZero());
+    }
+
+    @Test
+    void acquire_IgnoresUnmatchedPaths() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(rateLimiter.acquire("/actuator/health", "10.0.0.1", Optional::empty).isZero());
+        }
+    }
+
+    @Test
+    void acquire_ConcurrentCallersNeverExceedCapacity() throws Exception {
+        TodoProperties properties = new TodoProperties();
+        properties.getRateLimit().getRoutes().put("register", route("/users/register", 50, Duration.ofHours(1), TodoProperties.RateLimitRoute.Key.IP));
+        RateLimiter limiter = new RateLimiter(properties, new SimpleMeterRegistry(), now::get);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                results.add(executor.submit(() -> limiter.acquire("/users/register", "10.0.0.1", Optional::empty).isZero()));
+            }
+            int allowed = 0;
+            for (Future<Boolean> result : results) {
+                allowed += result.get() ? 1 : 0;
+            }
+            assertEquals(50, allowed);
+        }
+    }
+
+    private static TodoProperties.RateLimitRoute route(String path, int capacity, Duration period, TodoProperties.RateLimitRoute.Key key) {
+        TodoProperties.RateLimitRoute route = new TodoProperties.RateLimitRoute();
+        route.setPath(path);
+        route.setCapacity(capacity);
+        route.setPeriod(period);
+        route.setKey(key);
+        return route;
+    }
+}
@@ -0,0 +1,100 @@
+package com.oakbal.todoapp.backend.service;
+
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import com.oakbal.todoapp.backend.model.Item;
+import com.oakbal.todoapp.backend.model.ItemCursor;
+import com.oakbal.todoapp.backend.model.ItemPage;
+import com.oakbal.todoapp.backend.model.ItemQuery;
+import com.oakbal.todoapp.backend.repository.ReactiveItemRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class ReactiveItemServiceTest {
+
+    @Mock
+    private ReactiveItemRepository itemRepository;
+
+    private ReactiveItemService itemService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        TodoProperties properties = new TodoProperties();
+        properties.getItems().setPageSize(2);
+        properties.getItems().setMaxPageSize(3);
+        itemService = new ReactiveItemService(itemRepository, properties, new SimpleMeterRegistry(), mock(ItemEventBroker.class));
+    }
+
+    @Test
+    void createItem_Success() {
+        Item item = new Item();
+        item.setTitle("Test Item");
+
+        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        Item result = itemService.createItem(item, "user123").block();
+
+        assertNotNull(result);
+        assertEquals("user123", result.getUserId());
+        assertEquals("Item", result.getType());
+        assertNotNull(result.getCreatedAt());
+        assertNotNull(result.getUpdatedAt());
+    }
+
+    @Test
+    void getItemPage_ReturnsNextCursorWhenMoreRowsExist() {
+        Item first = item("item1", LocalDateTime.of(2024, 1, 1, 10, 0));
+        Item second = item("item2", LocalDateTime.of(2024, 1, 1, 11, 0));
+        Item third = item("item3", LocalDateTime.of(2024, 1, 1, 12, 0));
+
+        when(itemRepository.findItemPage(eq("user123"), any(ItemQuery.class), isNull(), eq(3)))
+                .thenReturn(Flux.just(first, second, third));
+
+        ItemPage result = itemService.getItemPage("user123", new ItemQuery()).block();
+
+        assertNotNull(result);
+        assertEquals(2, result.getItems().size());
+        assertEquals(ItemCursor.after(second).encode(), result.getNextCursor());
+    }
+
+    @Test
+    void getItemPage_InvalidCursor() {
+        ItemQuery query = new ItemQuery();
+        query.setCursor("not-a-cursor");
+
+        Mono<ItemPage> result = itemService.getItemPage("user123", query);
+
+        assertThrows(IllegalArgumentException.class, result::block);
+        verify(itemRepository, never()).findItemPage(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void deleteItem_Success() {
+        when(itemRepository.deleteItem("item123", null)).thenReturn(Mono.empty());
+
+        itemService.deleteItem("item123", null).block();
+
+        verify(itemRepository, times(1)).deleteItem("item123", null);
+    }
+
+    private static Item item(String id, LocalDateTime createdAt) {
+        Item item = new Item();
+        item.setId(id);
+        item.setCreatedAt(createdAt);
+        return item;
+    }
+}
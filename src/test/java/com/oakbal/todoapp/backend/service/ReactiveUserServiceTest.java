@@ -0,0 +1,104 @@
+package com.oakbal.todoapp.backend.service;
+
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import com.oakbal.todoapp.backend.model.User;
+import com.oakbal.todoapp.backend.repository.ReactiveUserRepository;
+import com.oakbal.todoapp.backend.repository.UserAlreadyExistsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ReactiveUserServiceTest {
+
+    @Mock
+    private ReactiveUserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private ReactiveUserService userService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        userService = new ReactiveUserService(userRepository, passwordEncoder, new UserIdentityCache(new TodoProperties()), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void registerUser_Success() {
+        User user = user();
+
+        when(userRepository.reserveUser(user)).thenReturn(Mono.empty());
+        when(passwordEncoder.encode("password")).thenReturn("encodedPassword");
+        when(userRepository.insertUser(any(User.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        User result = userService.registerUser(user).block();
+
+        assertNotNull(result);
+        assertEquals("encodedPassword", result.getPassword());
+        assertEquals("User", result.getType());
+    }
+
+    @Test
+    void registerUser_UsernameExists() {
+        when(userRepository.reserveUser(any(User.class))).thenReturn(Mono.error(UserAlreadyExistsException.username(null)));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> userService.registerUser(user()).block());
+
+        assertEquals("Username already exists", exception.getMessage());
+        verify(userRepository, never()).insertUser(any(User.class));
+    }
+
+    @Test
+    void registerUser_EmailExists() {
+        when(userRepository.reserveUser(any(User.class))).thenReturn(Mono.error(UserAlreadyExistsException.email(null)));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> userService.registerUser(user()).block());
+
+        assertEquals("Email already exists", exception.getMessage());
+        verify(passwordEncoder, never()).encode(any());
+    }
+
+    @Test
+    void findByUsername_LoadsOnceThenUsesCache() {
+        User user = user();
+        user.setId("user123");
+        user.setPassword("encodedPassword");
+        when(userRepository.findUserByUsername("testuser")).thenReturn(Mono.just(user));
+
+        UserDetails first = userService.findByUsername("testuser").block();
+        String userId = userService.getUserIdByUsername("testuser").block();
+
+        assertNotNull(first);
+        assertEquals("encodedPassword", first.getPassword());
+        assertEquals("user123", userId);
+        verify(userRepository, times(1)).findUserByUsername("testuser");
+    }
+
+    @Test
+    void getUserIdByUsername_UserNotFound() {
+        when(userRepository.findUserByUsername("missing")).thenReturn(Mono.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userService.getUserIdByUsername("missing").block());
+        assertNull(userService.findByUsername("missing").block());
+        verify(userRepository, times(2)).findUserByUsername("missing");
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setUsername("testuser");
+        user.setEmail("test@example.com");
+        user.setPassword("password");
+        return user;
+    }
+}
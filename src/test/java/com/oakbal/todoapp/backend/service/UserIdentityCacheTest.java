@@ -0,0 +1,92 @@
+package com.oakbal.todoapp.backend.service;
+
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserIdentityCacheTest {
+
+    private UserIdentityCache userIdentityCache;
+
+    @BeforeEach
+    void setUp() {
+        userIdentityCache = new UserIdentityCache(new TodoProperties());
+    }
+
+    @Test
+    void get_ConcurrentMissesShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        UserIdentity identity = new UserIdentity("123", "testuser", "encodedPassword");
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Optional<UserIdentity>>> results = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                results.add(executor.submit(() -> userIdentityCache.get("testuser", name -> {
+                    loads.incrementAndGet();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return Optional.of(identity);
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<Optional<UserIdentity>> result : results) {
+                assertEquals(Optional.of(identity), result.get());
+            }
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_FailedLoadIsNotCached() {
+        assertThrows(IllegalStateException.class, () -> userIdentityCache.get("testuser", name -> {
+            throw new IllegalStateException("Couchbase unavailable");
+        }));
+
+        UserIdentity identity = new UserIdentity("123", "testuser", "encodedPassword");
+        assertEquals(Optional.of(identity), userIdentityCache.get("testuser", name -> Optional.of(identity)));
+    }
+
+    @Test
+    void get_RecordsLoadsInCacheMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        userIdentityCache.bindTo(registry);
+        UserIdentity identity = new UserIdentity("123", "testuser", "encodedPassword");
+
+        userIdentityCache.get("testuser", name -> Optional.of(identity));
+        userIdentityCache.get("testuser", name -> fail("should be cached"));
+        userIdentityCache.get("missing", name -> Optional.empty());
+
+        assertEquals(1.0, registry.get("cache.load").tag("result", "success").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.load").tag("result", "failure").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void invalidate_ForcesReload() {
+        UserIdentity first = new UserIdentity("123", "testuser", "first");
+        UserIdentity second = new UserIdentity("123", "testuser", "second");
+
+        userIdentityCache.get("testuser", name -> Optional.of(first));
+        userIdentityCache.invalidate("testuser");
+
+        assertEquals(Optional.of(second), userIdentityCache.get("testuser", name -> Optional.of(second)));
+    }
+}
@@ -0,0 +1,75 @@
+package com.oakbal.todoapp.backend.service;
+
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
+import com.oakbal.todoapp.backend.model.User;
+import com.oakbal.todoapp.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserKeyMigrationTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private TodoProperties properties;
+
+    private UserIdentityCache userIdentityCache;
+
+    private UserKeyMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        properties = new TodoProperties();
+        userIdentityCache = new UserIdentityCache(properties);
+        migration = new UserKeyMigration(userRepository, userIdentityCache, properties);
+    }
+
+    @Test
+    void migrate_CountsMovedUnchangedAndConflictingUsers() {
+        User legacy = user("123", "testuser");
+        User keyed = user("user::keyeduser", "keyeduser");
+        User conflicting = user("456", "takenuser");
+        when(userRepository.findAll()).thenReturn(List.of(legacy, keyed, conflicting));
+        when(userRepository.rekeyUser(legacy)).thenReturn(Optional.of(user("user::testuser", "testuser")));
+        when(userRepository.rekeyUser(keyed)).thenReturn(Optional.of(keyed));
+        when(userRepository.rekeyUser(conflicting)).thenReturn(Optional.empty());
+
+        UserKeyMigration.Result result = migration.migrate();
+
+        assertEquals(new UserKeyMigration.Result(1, 1, 1), result);
+    }
+
+    @Test
+    void migrate_InvalidatesCachedIdentities() {
+        userIdentityCache.get("testuser", name -> Optional.of(new UserIdentity("123", name, "encodedPassword")));
+        when(userRepository.findAll()).thenReturn(List.of());
+
+        migration.migrate();
+
+        assertEquals(Optional.empty(), userIdentityCache.get("testuser", name -> Optional.empty()));
+    }
+
+    @Test
+    void migrate_RequiresUsernameKeyScheme() {
+        properties.getUsers().setKeyScheme(TodoProperties.Users.KeyScheme.UUID);
+
+        assertThrows(IllegalStateException.class, () -> migration.migrate());
+        verify(userRepository, never()).findAll();
+    }
+
+    private static User user(String id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        return user;
+    }
+}
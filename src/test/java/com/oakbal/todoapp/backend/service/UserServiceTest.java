@@ -1,10 +1,13 @@
 package com.oakbal.todoapp.backend.service;
 
+import com.oakbal.todoapp.backend.configuration.TodoProperties;
 import com.oakbal.todoapp.backend.model.User;
+import com.oakbal.todoapp.backend.repository.UserAlreadyExistsException;
 import com.oakbal.todoapp.backend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -25,12 +28,15 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
-    @InjectMocks
+    private SimpleMeterRegistry meterRegistry;
+
     private UserService userService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        userService = new UserService(userRepository, passwordEncoder, new UserIdentityCache(new TodoProperties()), meterRegistry);
     }
 
     @Test
@@ -40,10 +46,8 @@ class UserServiceTest {
         user.setEmail("test@example.com");
         user.setPassword("password");
 
-        when(userRepository.findUserByUsername(anyString())).thenReturn(Optional.empty());
-        when(userRepository.findUserByEmail(anyString())).thenReturn(Optional.empty());
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userRepository.insertUser(any(User.class))).thenReturn(user);
 
         User result = userService.registerUser(user);
 
@@ -52,7 +56,10 @@ class UserServiceTest {
         assertEquals("test@example.com", result.getEmail());
         assertEquals("User", result.getType());
         verify(passwordEncoder, times(1)).encode("password");
-        verify(userRepository, times(1)).save(any(User.class));
+        InOrder inOrder = inOrder(userRepository);
+        inOrder.verify(userRepository).reserveUser(user);
+        inOrder.verify(userRepository).insertUser(user);
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
@@ -61,9 +68,14 @@ class UserServiceTest {
         user.setUsername("existinguser");
         user.setEmail("test@example.com");
 
-        when(userRepository.findUserByUsername("existinguser")).thenReturn(Optional.of(new User()));
+        doThrow(UserAlreadyExistsException.username(null)).when(userRepository).reserveUser(user);
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> userService.registerUser(user));
 
-        assertThrows(RuntimeException.class, () -> userService.registerUser(user));
+        assertEquals("Username already exists", exception.getMessage());
+        assertEquals(1.0, meterRegistry.get(TodoMetrics.ALREADY_EXISTS).tag("field", "username").counter().count());
+        verify(passwordEncoder, never()).encode(any());
+        verify(userRepository, never()).insertUser(any(User.class));
     }
 
     @Test
@@ -72,10 +84,13 @@ class UserServiceTest {
         user.setUsername("testuser");
         user.setEmail("existing@example.com");
 
-        when(userRepository.findUserByUsername(anyString())).thenReturn(Optional.empty());
-        when(userRepository.findUserByEmail("existing@example.com")).thenReturn(Optional.of(new User()));
+        doThrow(UserAlreadyExistsException.email(null)).when(userRepository).reserveUser(user);
 
-        assertThrows(RuntimeException.class, () -> userService.registerUser(user));
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> userService.registerUser(user));
+
+        assertEquals("Email already exists", exception.getMessage());
+        assertEquals(1.0, meterRegistry.get(TodoMetrics.ALREADY_EXISTS).tag("field", "email").counter().count());
+        verify(userRepository, never()).insertUser(any(User.class));
     }
 
     @Test
@@ -150,4 +165,57 @@ class UserServiceTest {
 
         assertThrows(UsernameNotFoundException.class, () -> userService.loadUserByUsername("nonexistent"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getUserIdByUsername_UsesCachedIdentity() {
+        User user = new User();
+        user.setId("123");
+        user.setUsername("testuser");
+        user.setPassword("encodedPassword");
+
+        when(userRepository.findUserByUsername("testuser")).thenReturn(Optional.of(user));
+
+        userService.loadUserByUsername("testuser");
+        String result = userService.getUserIdByUsername("testuser");
+
+        assertEquals("123", result);
+        verify(userRepository, times(1)).findUserByUsername("testuser");
+    }
+
+    @Test
+    void getUserIdByUsername_NotFoundIsNotCached() {
+        User user = new User();
+        user.setId("123");
+        user.setUsername("lateuser");
+
+        when(userRepository.findUserByUsername("lateuser"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(user));
+
+        assertThrows(UsernameNotFoundException.class, () -> userService.getUserIdByUsername("lateuser"));
+        assertEquals("123", userService.getUserIdByUsername("lateuser"));
+    }
+
+    @Test
+    void createUser_InvalidatesCachedIdentity() {
+        User user = new User();
+        user.setId("123");
+        user.setUsername("testuser");
+        user.setPassword("oldPassword");
+        User updatedUser = new User();
+        updatedUser.setId("123");
+        updatedUser.setUsername("testuser");
+        updatedUser.setPassword("newPassword");
+
+        when(userRepository.findUserByUsername("testuser"))
+                .thenReturn(Optional.of(user))
+                .thenReturn(Optional.of(updatedUser));
+        when(userRepository.save(any(User.class))).thenReturn(updatedUser);
+
+        assertEquals("oldPassword", userService.loadUserByUsername("testuser").getPassword());
+        userService.createUser(updatedUser);
+
+        assertEquals("newPassword", userService.loadUserByUsername("testuser").getPassword());
+        verify(userRepository, times(2)).findUserByUsername("testuser");
+    }
+}